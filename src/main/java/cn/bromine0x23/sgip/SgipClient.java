@@ -23,5 +23,22 @@ public interface SgipClient {
 		SgipSessionHandler sessionHandler
 	) throws SgipTimeoutException, SgipChannelException, SgipBindException, UnrecoverablePduException, InterruptedException;
 
+	/**
+	 * 连接指定端点并绑定，忽略配置中的端点
+	 */
+	SgipSession bind(
+		SgipSessionConfiguration configuration,
+		SgipEndpoint endpoint,
+		SgipSessionHandler sessionHandler
+	) throws SgipTimeoutException, SgipChannelException, SgipBindException, UnrecoverablePduException, InterruptedException;
+
+	/**
+	 * 并行排空所有会话后解除绑定，再释放客户端资源
+	 *
+	 * @param timeoutMillis 等待各会话发送窗口清空的最长时间
+	 * @see SgipSession#drain(long)
+	 */
+	void shutdownGracefully(long timeoutMillis) throws InterruptedException;
+
 	void destroy();
 }
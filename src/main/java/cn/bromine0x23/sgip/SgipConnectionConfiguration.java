@@ -8,6 +8,10 @@ package cn.bromine0x23.sgip;
 
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * SGIP连接配置
  *
@@ -30,4 +34,19 @@ public class SgipConnectionConfiguration {
 	 * 连接超时时间
 	 */
 	private int connectTimeout = SgipConstants.DEFAULT_CONNECT_TIMEOUT;
+
+	/**
+	 * 服务器端点列表，非空时取代 {@link #host} 与 {@link #port}，连接时按顺序尝试
+	 */
+	private List<SgipEndpoint> endpoints = new ArrayList<>();
+
+	/**
+	 * @return 实际使用的服务器端点
+	 */
+	public List<SgipEndpoint> listEndpoints() {
+		if (endpoints != null && !endpoints.isEmpty()) {
+			return endpoints;
+		}
+		return Collections.singletonList(new SgipEndpoint(host, port));
+	}
 }
@@ -28,17 +28,21 @@ public class SgipConstants {
 	public static final String PIPELINE_FRAME_DECODER_NAME         = "sgipFrameDecoder";
 	public static final String PIPELINE_PDU_DECODER_NAME           = "sgipPduDecoder";
 	public static final String PIPELINE_PDU_ENCODER_NAME           = "sgipPduEncoder";
+	public static final String PIPELINE_PDU_JOURNAL_NAME           = "sgipPduJournal";
+	public static final String PIPELINE_WIRE_CAPTURE_NAME          = "sgipWireCapture";
 	public static final String PIPELINE_SESSION_WRAPPER_NAME       = "sgipSessionWrapper";
 	public static final String PIPELINE_SESSION_WRITE_TIMEOUT_NAME = "sgipSessionWriteTimeout";
 	public static final String PIPELINE_THREAD_RENAMER             = "sgipThreadRenamer";
 
 	public static final int  DEFAULT_CONNECT_TIMEOUT         = 10000;
 	public static final long DEFAULT_BIND_TIMEOUT            = 5000;
+	public static final long DEFAULT_UNBIND_TIMEOUT          = 5000;
 	public static final long DEFAULT_WRITE_TIMEOUT           = 0;
 	public static final long DEFAULT_REQUEST_EXPIRY_TIMEOUT  = -1;
 	public static final long DEFAULT_WINDOW_WAIT_TIMEOUT     = 30000;
 	public static final int  DEFAULT_WINDOW_SIZE             = 1;
 	public static final long DEFAULT_WINDOW_MONITOR_INTERVAL = -1;  // disabled
+	public static final int  DEFAULT_SUBMISSION_QUEUE_SIZE   = 4096;
 
 	/**
 	 * 消息ID
@@ -187,6 +191,11 @@ public class SgipConstants {
 	@UtilityClass
 	public static class DataCoding {
 		public static final byte ASCII  = 0b00000000; // GSM 7 bit
+		/**
+		 * GSM 7 bit 压缩编码，与 {@link #ASCII} 共用取值，网关无法从编码值区分两者；
+		 * 仅在网关将 0 解释为 GSM 03.38 压缩编码时使用，否则按 ASCII 逐字节解读会得到乱码
+		 */
+		public static final byte GSM7   = 0b00000000;
 		public static final byte BINARY = 0b00000100; // 8 bit data
 		public static final byte UCS2   = 0b00001000; // UCS2
 		public static final byte GBK    = 0b00001111; // GSM 03.38 保留
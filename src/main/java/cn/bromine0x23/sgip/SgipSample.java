@@ -10,6 +10,8 @@ import cn.bromine0x23.sgip.impl.DefaultSgipClient;
 import cn.bromine0x23.sgip.impl.DefaultSgipSessionHandler;
 import cn.bromine0x23.sgip.pdu.SgipSubmit;
 import cn.bromine0x23.sgip.pdu.SgipSubmitResp;
+import cn.bromine0x23.sgip.util.ConcatenatedReferenceAllocator;
+import cn.bromine0x23.sgip.util.EncodedShortMessage;
 import cn.bromine0x23.sgip.util.NamingThreadFactory;
 import cn.bromine0x23.sgip.util.ShortMessageUtil;
 import org.slf4j.Logger;
@@ -66,10 +68,11 @@ public abstract class SgipSample {
 			"Sgip协议测试",
 			"我能够吞下玻璃而不伤身体。我能够吞下玻璃而不伤身体。我能够吞下玻璃而不伤身体。我能够吞下玻璃而不伤身体。我能够吞下玻璃而不伤身体。我能够吞下玻璃而不伤身体。我能够吞下玻璃而不伤身体。我能够吞下玻璃而不伤身体。"
 		};
+		ConcatenatedReferenceAllocator referenceAllocator = new ConcatenatedReferenceAllocator(); // 按接收号码分配 16 位参考号
 		for (String message : messages) {
-			byte[][] contents = ShortMessageUtil.encode(message, SgipConstants.CHARSET_UCS2);
-			byte tpUdhi = contents.length > 1 ? SgipConstants.TpUdhi.CONTAINS_HEADER : SgipConstants.TpUdhi.NORMAL;
-			for (byte[] content : contents) {
+			// 自动选择分段数最少的编码（不含需网关支持的 GSM 7 bit）
+			EncodedShortMessage encoded = ShortMessageUtil.encode(message, ShortMessageUtil.DEFAULT_CANDIDATES, referenceAllocator, target);
+			for (byte[] content : encoded.getSegments()) {
 				SgipSubmit submit = new SgipSubmit();
 				submit.setSourceNodeId(0XFFFFFFFF);
 				submit.setSpNumber(source);
@@ -87,9 +90,9 @@ public abstract class SgipSample {
 				submit.setScheduleTime(null);
 				submit.setReportFlag(SgipConstants.ReportFlag.ERROR_ONLY);
 				submit.setTpPid(SgipConstants.TpPid.NORMAL);
-				submit.setMessageCoding(SgipConstants.DataCoding.UCS2); // USC2(UTF-16) 编码
+				submit.setMessageCoding(encoded.getMessageCoding());
 				submit.setMessageType(SgipConstants.MessageType.SMS);
-				submit.setTpUdhi(tpUdhi);
+				submit.setTpUdhi(encoded.getTpUdhi());
 				submit.setMessageContent(content);
 				logger.info("=> session.submit {}", submit);
 				submitResp = session.submit(submit, 5000);
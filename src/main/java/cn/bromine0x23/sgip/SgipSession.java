@@ -10,12 +10,15 @@ import cn.bromine0x23.sgip.exception.RecoverablePduException;
 import cn.bromine0x23.sgip.exception.SgipChannelException;
 import cn.bromine0x23.sgip.exception.SgipTimeoutException;
 import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.metrics.SgipMetrics;
 import cn.bromine0x23.sgip.pdu.SgipPduRequest;
 import cn.bromine0x23.sgip.pdu.SgipPduResponse;
 import cn.bromine0x23.sgip.pdu.SgipSubmit;
 import cn.bromine0x23.sgip.pdu.SgipSubmitResp;
 import cn.bromine0x23.sgip.windowing.WindowFuture;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * SGIP会话接口
  *
@@ -24,7 +27,7 @@ import cn.bromine0x23.sgip.windowing.WindowFuture;
 public interface SgipSession {
 
 	enum State {
-		INITIAL, OPEN, BINDING, BOUND, UNBINDING, CLOSED
+		INITIAL, OPEN, BINDING, BOUND, DRAINING, UNBINDING, CLOSED
 	}
 
 	boolean isOpen();
@@ -33,18 +36,53 @@ public interface SgipSession {
 
 	boolean isBound();
 
+	/**
+	 * @return 是否正在等待发送窗口清空以解除绑定
+	 */
+	boolean isDraining();
+
 	boolean isUnbinding();
 
 	boolean isClosed();
 
+	/**
+	 * @return 会话指标
+	 */
+	SgipMetrics getMetrics();
+
 	SgipSubmitResp submit(
 		SgipSubmit request, long timeoutMillis
 	) throws RecoverablePduException, UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException;
 
 	void unbind(long timeoutMillis);
 
+	/**
+	 * 停止接受新请求，等待发送窗口中的请求全部完成后解除绑定，不阻塞调用线程
+	 * <p>
+	 * 超过 {@code timeoutMillis} 仍未清空时不再等待，直接解除绑定
+	 *
+	 * @param timeoutMillis 等待窗口清空的最长时间
+	 * @return 解除绑定完成时完成的 Future
+	 */
+	CompletableFuture<Void> drain(long timeoutMillis);
+
+	/**
+	 * 发送 Unbind 后不等待响应即返回，收到响应或超时后关闭连接
+	 *
+	 * @param timeoutMillis 等待 Unbind 响应的最长时间
+	 * @return 连接关闭时完成的 Future
+	 */
+	CompletableFuture<Void> unbindAsync(long timeoutMillis);
+
 	void close();
 
+	/**
+	 * 关闭连接，不阻塞调用线程
+	 *
+	 * @return 连接关闭时完成的 Future
+	 */
+	CompletableFuture<Void> closeAsync();
+
 	void close(long timeoutMillis);
 
 	void destroy();
@@ -6,10 +6,16 @@
  */
 package cn.bromine0x23.sgip;
 
+import cn.bromine0x23.sgip.capture.SgipTrafficReplayer;
+import cn.bromine0x23.sgip.journal.SgipPduJournal;
+import cn.bromine0x23.sgip.windowing.PriorityLanes;
+import cn.bromine0x23.sgip.windowing.PriorityScheduling;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import java.nio.file.Path;
+
 /**
  * SGIP会话配置
  *
@@ -49,16 +55,61 @@ public class SgipSessionConfiguration extends SgipConnectionConfiguration {
 
 	/**
 	 * 是否记录PDU日志
+	 * <p>
+	 * 在收发线程上逐条格式化 PDU，开销较大，审计用途应使用 {@link #pduJournal}
 	 */
 	private boolean logPduEnabled = false;
 
-	private boolean logBytesEnabled = true;
+	/**
+	 * 是否以 TRACE 级别记录收发字节的十六进制转储
+	 */
+	private boolean logBytesEnabled = false;
+
+	/**
+	 * 报文抓包目录，为 {@code null} 时不抓包；每个连接一个文件，可由 {@link SgipTrafficReplayer} 回放
+	 */
+	private Path wireCaptureDirectory;
+
+	/**
+	 * 是否将会话指标注册到 JMX
+	 */
+	private boolean jmxEnabled = false;
+
+	/**
+	 * 是否从对象池创建收到的 Submit_Resp、Deliver、Report 及应答 Deliver、Report 的响应
+	 * <p>
+	 * 开启后收到的请求与处理器返回的响应在回调返回、响应写出后即被回收，处理器不得在回调之外持有，
+	 * 需要保留时调用 {@link cn.bromine0x23.sgip.pdu.SgipPdu#retain()} 并在用毕后 {@code release()}；
+	 * 经窗口返回给调用方的响应由调用方负责 {@code release()}，不释放则仅失去复用
+	 */
+	private boolean pduRecyclingEnabled = false;
+
+	/**
+	 * 是否将会话状态（发送窗口、序列号、过期检查）限定在连接所属的 I/O 线程上
+	 * <p>
+	 * 开启后其他线程提交的请求经无锁队列批量交给 I/O 线程处理，发送请求不再阻塞到写出完成
+	 *
+	 * @see cn.bromine0x23.sgip.impl.EventLoopSgipSession
+	 */
+	private boolean eventLoopAffinityEnabled = false;
+
+	/**
+	 * PDU 二进制审计日志，为 {@code null} 时不记录；可由多个会话共享
+	 */
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private SgipPduJournal pduJournal;
 
 	/**
 	 * Bind超时时间
 	 */
 	private long bindTimeout = SgipConstants.DEFAULT_BIND_TIMEOUT;
 
+	/**
+	 * Unbind超时时间
+	 */
+	private long unbindTimeout = SgipConstants.DEFAULT_UNBIND_TIMEOUT;
+
 	/**
 	 * 写超时时间
 	 */
@@ -80,4 +131,33 @@ public class SgipSessionConfiguration extends SgipConnectionConfiguration {
 	private int windowSize = SgipConstants.DEFAULT_WINDOW_SIZE;
 
 	private long windowMonitorInterval = SgipConstants.DEFAULT_WINDOW_MONITOR_INTERVAL;
+
+	/**
+	 * 提交队列容量，仅在 {@link #eventLoopAffinityEnabled} 开启时有效；队列满时发送请求立即失败，不大于 0 时不限容量
+	 */
+	private int submissionQueueSize = SgipConstants.DEFAULT_SUBMISSION_QUEUE_SIZE;
+
+	/**
+	 * 发送优先级分级数（1-10），大于 1 时需开启 {@link #eventLoopAffinityEnabled}，否则绑定时抛出 {@link IllegalArgumentException}
+	 * <p>
+	 * 大于 1 时 Submit 按 {@code Priority} 均分到各级队列，其他请求进入最高一级；各级共享 {@link #submissionQueueSize} 的总容量
+	 *
+	 * @see PriorityLanes
+	 */
+	private int priorityLanes = 1;
+
+	/**
+	 * 优先级队列调度方式，{@link PriorityScheduling#STRICT} 之外需开启 {@link #eventLoopAffinityEnabled}
+	 */
+	private PriorityScheduling priorityScheduling = PriorityScheduling.STRICT;
+
+	/**
+	 * 加权轮转时各级权重（由低到高），为 {@code null} 时第 i 级权重为 i + 1；非 {@code null} 时需开启 {@link #eventLoopAffinityEnabled}
+	 */
+	private int[] priorityWeights;
+
+	/**
+	 * 为最高一级保留的发送窗口空位数，大于 0 时需开启 {@link #eventLoopAffinityEnabled}
+	 */
+	private int reservedWindowSlots = 0;
 }
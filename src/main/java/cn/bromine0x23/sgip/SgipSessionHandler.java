@@ -33,4 +33,21 @@ public interface SgipSessionHandler {
 	void recoverablePduException(RecoverablePduException exception);
 
 	void unknownThrowable(Throwable throwable);
+
+	/**
+	 * 调用方未同步等待的请求未收到响应即失败（如 offer 超时、编码失败、会话销毁）
+	 *
+	 * @param request 请求
+	 * @param cause   原因
+	 */
+	default void pduRequestFailed(SgipPduRequest request, Throwable cause) {
+	}
+
+	/**
+	 * 未收到响应的请求已在新连接上重新发送，之后仍以响应或过期结束
+	 *
+	 * @param request 请求
+	 */
+	default void pduRequestResent(SgipPduRequest request) {
+	}
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.capture;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import cn.bromine0x23.sgip.SgipSession;
+import cn.bromine0x23.sgip.exception.RecoverablePduException;
+import cn.bromine0x23.sgip.exception.SgipTimeoutException;
+import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.pdu.SgipPdu;
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import cn.bromine0x23.sgip.exception.SgipChannelException;
+import cn.bromine0x23.sgip.util.SgipPduCodec;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 抓包回放
+ * <p>
+ * 按原始时间间隔（可按倍率加速）重放 {@link SgipWireCapture} 中发出方向的帧，用于离线复现生产流量形态：
+ * <ul>
+ * <li>{@link #replay(Channel)} 原样写出帧字节，用于对接模拟网关</li>
+ * <li>{@link #replay(SgipSession, long)} 解码为请求后经会话异步发送，由会话重新分配流水号，跳过 Bind、Unbind 与响应</li>
+ * </ul>
+ * 命令行用法：{@code java cn.bromine0x23.sgip.capture.SgipTrafficReplayer <抓包文件> <host> <port> [倍率]}
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipTrafficReplayer {
+
+	private static final Logger logger = LoggerFactory.getLogger(SgipTrafficReplayer.class);
+
+	/**
+	 * 抓包开始时间（毫秒）
+	 */
+	@Getter
+	private final long startTime;
+
+	private final List<Frame> frames;
+
+	/**
+	 * 回放倍率，1 为原始速度，不大于 0 时不等待
+	 */
+	@Getter
+	@Setter
+	private double speed = 1.0;
+
+	private SgipTrafficReplayer(long startTime, List<Frame> frames) {
+		this.startTime = startTime;
+		this.frames    = frames;
+	}
+
+	/**
+	 * 加载抓包文件中发出方向的帧
+	 *
+	 * @param file 抓包文件
+	 * @return 回放器
+	 * @throws IOException 文件格式错误或读取失败
+	 */
+	public static SgipTrafficReplayer load(Path file) throws IOException {
+		List<Frame> frames = new ArrayList<>();
+		long startTime = SgipWireCaptureReader.read(file, (nanos, direction, frame) -> {
+			if (direction == SgipWireCapture.OUTBOUND) {
+				frames.add(new Frame(nanos, frame));
+			}
+		});
+		return new SgipTrafficReplayer(startTime, Collections.unmodifiableList(frames));
+	}
+
+	/**
+	 * @return 待回放的帧数
+	 */
+	public int getFrameCount() {
+		return frames.size();
+	}
+
+	/**
+	 * 原样写出全部帧，等待最后一次写入完成
+	 *
+	 * @param channel 已连接的通道
+	 * @return 写出的帧数
+	 * @throws InterruptedException 等待被中断
+	 */
+	public int replay(Channel channel) throws InterruptedException {
+		ChannelFuture last  = null;
+		int           count = 0;
+		long          base  = System.nanoTime();
+		for (Frame frame : frames) {
+			pace(base, frame);
+			if (!channel.isActive()) {
+				logger.warn("Channel closed after {} of {} frames replayed", count, frames.size());
+				break;
+			}
+			last = channel.writeAndFlush(Unpooled.wrappedBuffer(frame.bytes));
+			++count;
+		}
+		if (last != null) {
+			last.await();
+		}
+		return count;
+	}
+
+	/**
+	 * 解码请求帧并经会话异步发送，发送窗口已满时按会话配置等待
+	 *
+	 * @param session       已绑定的会话
+	 * @param timeoutMillis 请求超时时间
+	 * @return 发送的请求数
+	 * @throws SgipChannelException 通道异常，回放中止
+	 * @throws InterruptedException 等待被中断
+	 */
+	public int replay(SgipSession session, long timeoutMillis) throws SgipChannelException, InterruptedException {
+		int  count = 0;
+		long base  = System.nanoTime();
+		for (Frame frame : frames) {
+			List<SgipPduRequest<?>> requests = decodeRequests(frame.bytes);
+			if (requests.isEmpty()) {
+				continue;
+			}
+			pace(base, frame);
+			for (SgipPduRequest<?> request : requests) {
+				try {
+					session.sendRequestPdu(request, timeoutMillis, false);
+					++count;
+				} catch (RecoverablePduException | UnrecoverablePduException | SgipTimeoutException exception) {
+					logger.warn("Unable to replay {}: {}", request.getName(), exception.getMessage());
+				}
+			}
+		}
+		return count;
+	}
+
+	private void pace(long base, Frame frame) {
+		if (speed <= 0) {
+			return;
+		}
+		long target = base + (long)((frame.nanos - frames.get(0).nanos) / speed);
+		long delay;
+		while ((delay = target - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(this, delay);
+		}
+	}
+
+	/**
+	 * 按 Message Length 依次解码帧中的全部 PDU（旧版抓包的出站帧可能包含批量编码的多个 PDU），
+	 * 只保留 Bind、Unbind 之外的请求
+	 */
+	private static List<SgipPduRequest<?>> decodeRequests(byte[] bytes) {
+		List<SgipPduRequest<?>> requests = new ArrayList<>(1);
+		ByteBuf                 buffer   = Unpooled.wrappedBuffer(bytes);
+		int                     index    = 0;
+		while (bytes.length - index >= SgipConstants.PDU_HEADER_LENGTH) {
+			int length = buffer.getInt(index);
+			if (length < SgipConstants.PDU_HEADER_LENGTH || length > bytes.length - index) {
+				logger.warn("Skipping {} bytes with invalid PDU length [{}]", bytes.length - index, length);
+				break;
+			}
+			SgipPdu pdu;
+			try {
+				pdu = SgipPduCodec.decode(buffer.slice(index, length));
+			} catch (RecoverablePduException | UnrecoverablePduException exception) {
+				logger.warn("Skipping undecodable PDU: {}", exception.getMessage());
+				continue;
+			} finally {
+				index += length;
+			}
+			if (!(pdu instanceof SgipPduRequest)) {
+				continue;
+			}
+			int commandId = pdu.getCommandId();
+			if (commandId == SgipConstants.CommandId.BIND || commandId == SgipConstants.CommandId.UNBIND) {
+				continue;
+			}
+			pdu.clearTimestampAndSequenceNumber();
+			requests.add((SgipPduRequest<?>)pdu);
+		}
+		return requests;
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 3) {
+			System.err.println("Usage: SgipTrafficReplayer <capture file> <host> <port> [speed]");
+			System.exit(1);
+		}
+		SgipTrafficReplayer replayer = load(Paths.get(args[0]));
+		if (args.length > 3) {
+			replayer.setSpeed(Double.parseDouble(args[3]));
+		}
+		EventLoopGroup group = new NioEventLoopGroup(1);
+		try {
+			Channel channel = new Bootstrap()
+				.group(group)
+				.channel(NioSocketChannel.class)
+				.handler(new ChannelInboundHandlerAdapter() {
+					@Override
+					public void channelRead(ChannelHandlerContext context, Object message) {
+						ReferenceCountUtil.release(message);
+					}
+				})
+				.connect(args[1], Integer.parseInt(args[2]))
+				.sync()
+				.channel();
+			long begin = System.nanoTime();
+			int  count = replayer.replay(channel);
+			System.out.printf("%d of %d frames replayed in %d ms%n", count, replayer.getFrameCount(), (System.nanoTime() - begin) / 1000000);
+			channel.close().sync();
+		} finally {
+			group.shutdownGracefully();
+		}
+	}
+
+	private static class Frame {
+
+		private final long nanos;
+
+		private final byte[] bytes;
+
+		Frame(long nanos, byte[] bytes) {
+			this.nanos = nanos;
+			this.bytes = bytes;
+		}
+	}
+}
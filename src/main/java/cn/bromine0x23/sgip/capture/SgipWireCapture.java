@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.capture;
+
+import cn.bromine0x23.sgip.util.NamingThreadFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 单个连接的报文抓包文件
+ * <p>
+ * 记录收发的原始帧与纳秒级相对时间，供 {@link SgipTrafficReplayer} 按原始节奏回放。
+ * {@link #record} 只应由连接所在的 I/O 线程调用，记录先追加到内存块，
+ * 满 {@value #CHUNK_SIZE} 字节后交给共享的后台线程写入文件，I/O 线程不做磁盘操作。
+ * <p>
+ * 文件格式：文件头为 {@link #MAGIC}（4 Byte）、{@link #VERSION}（4 Byte）与开始时间（8 Byte，毫秒），
+ * 之后每条记录为方向（1 Byte）、距上一条记录的纳秒数（变长整数）、帧长度（变长整数）、帧字节。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipWireCapture implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(SgipWireCapture.class);
+
+	public static final byte OUTBOUND = 0;
+
+	public static final byte INBOUND = 1;
+
+	public static final int MAGIC = 0x53475743; // "SGWC"
+
+	public static final int VERSION = 1;
+
+	public static final String FILE_SUFFIX = ".sgipc";
+
+	static final int CHUNK_SIZE = 64 * 1024;
+
+	private static final ExecutorService writer = Executors.newSingleThreadExecutor(new NamingThreadFactory("SgipWireCapture", true));
+
+	/**
+	 * 抓包文件
+	 */
+	@Getter
+	private final Path file;
+
+	private final FileChannel fileChannel;
+
+	private ByteBuf chunk;
+
+	private long lastNanos;
+
+	/**
+	 * 已记录的帧数
+	 */
+	@Getter
+	private long frames;
+
+	private Future<?> closeFuture;
+
+	/**
+	 * @param file 抓包文件，已存在时失败
+	 * @throws IOException 无法创建文件
+	 */
+	public SgipWireCapture(Path file) throws IOException {
+		this.file        = file;
+		this.fileChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		this.chunk       = Unpooled.buffer(CHUNK_SIZE);
+		this.lastNanos   = System.nanoTime();
+		chunk.writeInt(MAGIC);
+		chunk.writeInt(VERSION);
+		chunk.writeLong(System.currentTimeMillis());
+	}
+
+	/**
+	 * 记录一帧，不改变 {@code frame} 的读写下标
+	 *
+	 * @param direction {@link #INBOUND} 或 {@link #OUTBOUND}
+	 * @param frame     完整的 PDU 帧
+	 */
+	public void record(byte direction, ByteBuf frame) {
+		if (closeFuture != null) {
+			return;
+		}
+		long nanos = System.nanoTime();
+		int  length = frame.readableBytes();
+		chunk.writeByte(direction);
+		writeVarLong(chunk, nanos - lastNanos);
+		writeVarLong(chunk, length);
+		chunk.writeBytes(frame, frame.readerIndex(), length);
+		lastNanos = nanos;
+		++frames;
+		if (chunk.readableBytes() >= CHUNK_SIZE) {
+			submit(chunk, false);
+			chunk = Unpooled.buffer(CHUNK_SIZE);
+		}
+	}
+
+	/**
+	 * 写出剩余记录并关闭文件，不等待写入完成，可由 I/O 线程调用
+	 *
+	 * @return 写入并关闭文件完成的 Future
+	 */
+	public Future<?> closeAsync() {
+		if (closeFuture == null) {
+			closeFuture = submit(chunk, true);
+			chunk = null;
+		}
+		return closeFuture;
+	}
+
+	/**
+	 * 写出剩余记录并关闭文件，等待写入完成；I/O 线程上应使用 {@link #closeAsync()}
+	 */
+	@Override
+	public void close() {
+		try {
+			closeAsync().get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException exception) {
+			logger.warn("Unable to close wire capture {}", file, exception.getCause());
+		}
+	}
+
+	private Future<?> submit(ByteBuf data, boolean last) {
+		return writer.submit(() -> {
+			try {
+				while (data.isReadable()) {
+					data.readBytes(fileChannel, data.readableBytes());
+				}
+				if (last) {
+					fileChannel.close();
+				}
+			} catch (IOException exception) {
+				logger.error("Unable to write wire capture {}", file, exception);
+			} finally {
+				data.release();
+			}
+		});
+	}
+
+	static void writeVarLong(ByteBuf buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.writeByte((int)(value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer.writeByte((int)value);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.capture;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * 将收发的原始帧写入 {@link SgipWireCapture}，连接关闭或处理器移除时异步关闭抓包文件，不阻塞 I/O 线程
+ * <p>
+ * 位于帧解码器之后，入站方向得到完整帧，出站方向得到编码后的 PDU；
+ * 出站缓冲可能包含批量编码的多个 PDU，按 Message Length 拆分后逐条记录
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+public class SgipWireCaptureHandler extends ChannelDuplexHandler {
+
+	private final SgipWireCapture capture;
+
+	public SgipWireCaptureHandler(SgipWireCapture capture) {
+		this.capture = capture;
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext context, Object message) throws Exception {
+		if (message instanceof ByteBuf) {
+			capture.record(SgipWireCapture.INBOUND, (ByteBuf)message);
+		}
+		context.fireChannelRead(message);
+	}
+
+	@Override
+	public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) throws Exception {
+		if (message instanceof ByteBuf) {
+			ByteBuf buffer = (ByteBuf)message;
+			int     index  = buffer.readerIndex();
+			int     end    = buffer.writerIndex();
+			while (end - index >= 4) {
+				int length = buffer.getInt(index);
+				if (length < 4 || length > end - index) {
+					length = end - index;
+				}
+				capture.record(SgipWireCapture.OUTBOUND, buffer.slice(index, length));
+				index += length;
+			}
+		}
+		context.write(message, promise);
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext context) throws Exception {
+		capture.closeAsync();
+		context.fireChannelInactive();
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext context) {
+		capture.closeAsync();
+	}
+}
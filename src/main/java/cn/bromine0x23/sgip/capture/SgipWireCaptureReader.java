@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.capture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * {@link SgipWireCapture} 文件读取
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipWireCaptureReader {
+
+	/**
+	 * 帧处理器
+	 */
+	public interface FrameHandler {
+
+		/**
+		 * @param nanos     距抓包开始的纳秒数
+		 * @param direction {@link SgipWireCapture#INBOUND} 或 {@link SgipWireCapture#OUTBOUND}
+		 * @param frame     帧字节
+		 */
+		void frame(long nanos, byte direction, byte[] frame) throws IOException;
+	}
+
+	private SgipWireCaptureReader() {
+	}
+
+	/**
+	 * 读取抓包文件，末尾不完整的记录（进程异常退出时）被忽略
+	 *
+	 * @param file    抓包文件
+	 * @param handler 帧处理器
+	 * @return 抓包开始时间（毫秒）
+	 * @throws IOException 文件格式错误或读取失败
+	 */
+	public static long read(Path file, FrameHandler handler) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (input.readInt() != SgipWireCapture.MAGIC) {
+				throw new IOException("Not a wire capture file: " + file);
+			}
+			int version = input.readInt();
+			if (version != SgipWireCapture.VERSION) {
+				throw new IOException("Unsupported wire capture version " + version + ": " + file);
+			}
+			long startTime = input.readLong();
+			long nanos     = 0;
+			while (true) {
+				int direction = input.read();
+				if (direction < 0) {
+					break;
+				}
+				try {
+					nanos += readVarLong(input);
+					long length = readVarLong(input);
+					if (length < 0 || length > Integer.MAX_VALUE) {
+						throw new IOException("Corrupted wire capture record in " + file);
+					}
+					byte[] frame = new byte[(int)length];
+					input.readFully(frame);
+					handler.frame(nanos, (byte)direction, frame);
+				} catch (EOFException exception) {
+					break;
+				}
+			}
+			return startTime;
+		}
+	}
+
+	static long readVarLong(DataInputStream input) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = input.readByte();
+			value |= (long)(b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+}
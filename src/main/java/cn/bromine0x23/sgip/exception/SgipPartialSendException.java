@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.exception;
+
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import cn.bromine0x23.sgip.pdu.SgipPduResponse;
+import cn.bromine0x23.sgip.pdu.SgipSubmit;
+import cn.bromine0x23.sgip.windowing.WindowFuture;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 拆分发送异常，部分消息已发出后其余消息发送失败
+ * <p>
+ * 已发出的消息仍会收到响应，调用方应等待 {@link #getSentFutures()}，只重试 {@link #getUnsentParts()}。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipPartialSendException extends RecoverablePduException {
+
+	private static final long serialVersionUID = 4170951652262447730L;
+
+	/**
+	 * 已发出消息的窗口 Future
+	 */
+	@Getter
+	private final transient List<WindowFuture<Integer, SgipPduRequest, SgipPduResponse>> sentFutures;
+
+	/**
+	 * 未发出的消息，第一条为发送失败的消息
+	 */
+	@Getter
+	private final transient List<SgipSubmit> unsentParts;
+
+	public SgipPartialSendException(
+		List<WindowFuture<Integer, SgipPduRequest, SgipPduResponse>> sentFutures, List<SgipSubmit> unsentParts, Throwable throwable
+	) {
+		super(sentFutures.size() + " of " + (sentFutures.size() + unsentParts.size()) + " parts sent: " + throwable.getMessage(), throwable);
+		this.sentFutures = Collections.unmodifiableList(sentFutures);
+		this.unsentParts = Collections.unmodifiableList(unsentParts);
+	}
+}
@@ -16,7 +16,8 @@ import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 public class SgipFrameDecoder extends LengthFieldBasedFrameDecoder {
 
 	public SgipFrameDecoder() {
-		super(0x10_0000, 0, 4, 0, 0);
+		// Message Length 含消息头
+		super(0x10_0000, 0, 4, -4, 0);
 	}
 
 }
@@ -23,11 +23,31 @@ public class SgipPduDecoder extends ChannelInboundHandlerAdapter {
 
 	private static final Logger logger = LoggerFactory.getLogger(SgipPduDecoder.class);
 
+	private final boolean pooled;
+
+	public SgipPduDecoder() {
+		this(false);
+	}
+
+	/**
+	 * @param pooled 是否从对象池创建 PDU
+	 * @see SgipPduCodec#decode(ByteBuf, boolean)
+	 */
+	public SgipPduDecoder(boolean pooled) {
+		this.pooled = pooled;
+	}
+
 	@Override
 	public void channelRead(ChannelHandlerContext context, Object object) throws Exception {
 		logger.trace("read {}", object);
 		if (object instanceof ByteBuf) {
-			final SgipPdu pdu = SgipPduCodec.decode((ByteBuf) object);
+			ByteBuf       frame = (ByteBuf) object;
+			final SgipPdu pdu;
+			try {
+				pdu = SgipPduCodec.decode(frame, pooled);
+			} finally {
+				frame.release();
+			}
 			context.fireChannelRead(pdu);
 		}
 	}
@@ -8,19 +8,22 @@ package cn.bromine0x23.sgip.handler;
 
 import cn.bromine0x23.sgip.pdu.SgipPdu;
 import cn.bromine0x23.sgip.util.SgipPduCodec;
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
 
 /**
  * SGIP PDU编码器
+ * <p>
+ * 使用通道的分配器编码，以字节缓冲设置内容的 Submit 编码为复合缓冲，内容不复制
  *
  * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
  */
-public class SgipPduEncoder extends MessageToByteEncoder<SgipPdu> {
+public class SgipPduEncoder extends MessageToMessageEncoder<SgipPdu> {
 
 	@Override
-	protected void encode(ChannelHandlerContext context, SgipPdu message, ByteBuf out) throws Exception {
-		SgipPduCodec.encode(message, out);
+	protected void encode(ChannelHandlerContext context, SgipPdu message, List<Object> out) throws Exception {
+		out.add(SgipPduCodec.encode(message, context.alloc()));
 	}
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.impl;
+
+import cn.bromine0x23.sgip.SgipSession;
+import cn.bromine0x23.sgip.SgipSessionChannelListener;
+import cn.bromine0x23.sgip.SgipSessionConfiguration;
+import cn.bromine0x23.sgip.exception.RecoverablePduException;
+import cn.bromine0x23.sgip.exception.SgipBindException;
+import cn.bromine0x23.sgip.exception.SgipChannelException;
+import cn.bromine0x23.sgip.exception.SgipTimeoutException;
+import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.pdu.SgipBind;
+import cn.bromine0x23.sgip.pdu.SgipBindResp;
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import io.netty.channel.Channel;
+
+import java.util.List;
+
+/**
+ * 由 {@link DefaultSgipClient} 创建并绑定的会话
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see DefaultSgipSession
+ * @see EventLoopSgipSession
+ */
+public interface BindableSgipSession extends SgipSession, SgipSessionChannelListener {
+
+	SgipSessionConfiguration getConfiguration();
+
+	Channel getChannel();
+
+	SgipBindResp bind(
+		SgipBind request, long timeoutMillis
+	) throws RecoverablePduException, UnrecoverablePduException, SgipBindException, SgipTimeoutException, SgipChannelException, InterruptedException;
+
+	/**
+	 * 从发送窗口中取消并取出尚未收到响应、且调用方未同步等待的请求，按序列号升序排列
+	 * <p>
+	 * 用于连接断开后在新会话上重新发送这些请求
+	 *
+	 * @return 请求
+	 */
+	List<SgipPduRequest> takeUnacknowledgedRequests() throws InterruptedException;
+}
@@ -6,13 +6,17 @@
  */
 package cn.bromine0x23.sgip.impl;
 
+import cn.bromine0x23.sgip.capture.SgipWireCapture;
+import cn.bromine0x23.sgip.capture.SgipWireCaptureHandler;
 import cn.bromine0x23.sgip.handler.SgipFrameDecoder;
 import cn.bromine0x23.sgip.handler.SgipPduDecoder;
 import cn.bromine0x23.sgip.handler.SgipPduEncoder;
 import cn.bromine0x23.sgip.handler.SgipThreadRenamer;
 import cn.bromine0x23.sgip.handler.SgipSessionWrapper;
+import cn.bromine0x23.sgip.journal.SgipPduJournalHandler;
 import cn.bromine0x23.sgip.SgipClient;
 import cn.bromine0x23.sgip.SgipConstants;
+import cn.bromine0x23.sgip.SgipEndpoint;
 import cn.bromine0x23.sgip.SgipSession;
 import cn.bromine0x23.sgip.SgipSessionConfiguration;
 import cn.bromine0x23.sgip.SgipSessionHandler;
@@ -24,6 +28,7 @@ import cn.bromine0x23.sgip.exception.SgipChannelException;
 import cn.bromine0x23.sgip.exception.SgipTimeoutException;
 import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
 import cn.bromine0x23.sgip.pdu.SgipBind;
+import cn.bromine0x23.sgip.windowing.PriorityScheduling;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -39,10 +44,20 @@ import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * SGIP 客户端实现
@@ -52,12 +67,22 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class DefaultSgipClient implements SgipClient {
 
+	/**
+	 * 销毁时在 Unbind 超时之外等待连接关闭的时间（毫秒）
+	 */
+	private static final long DESTROY_CLOSE_MARGIN = 1000;
+
 	private final EventLoopGroup workerGroup;
 
 	private final Bootstrap bootstrap;
 
 	private ScheduledExecutorService monitorExecutor;
 
+	/**
+	 * 连接未关闭的会话
+	 */
+	private final Set<BindableSgipSession> sessions = ConcurrentHashMap.newKeySet();
+
 	public DefaultSgipClient() {
 		this(Executors.newCachedThreadPool());
 	}
@@ -80,17 +105,53 @@ public class DefaultSgipClient implements SgipClient {
 			.handler(new ChannelInitializer<SocketChannel>() {
 				@Override
 				protected void initChannel(SocketChannel channel) {
-					channel.pipeline()
-						.addLast(SgipConstants.PIPELINE_LOGGER_NAME, new LoggingHandler(LogLevel.TRACE))
-					;
+					// 流水线在创建会话时按会话配置装配
 				}
 			})
 			.option(ChannelOption.SO_KEEPALIVE, true)
 		;
 	}
 
+	@Override
+	public void shutdownGracefully(long timeoutMillis) throws InterruptedException {
+		BindableSgipSession[]  sessions = this.sessions.toArray(new BindableSgipSession[0]);
+		CompletableFuture<?>[] futures  = new CompletableFuture<?>[sessions.length];
+		for (int i = 0; i < sessions.length; ++i) {
+			futures[i] = sessions[i].drain(timeoutMillis);
+		}
+		long unbindTimeout = 0;
+		for (BindableSgipSession session : sessions) {
+			unbindTimeout = Math.max(unbindTimeout, session.getConfiguration().getUnbindTimeout());
+		}
+		try {
+			CompletableFuture.allOf(futures).get(timeoutMillis + unbindTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | TimeoutException exception) {
+			log.warn("Not all sessions were drained cleanly: {}", exception.toString());
+		}
+		destroy();
+	}
+
+	/**
+	 * 并行解除所有会话的绑定，等待全部完成或超时后释放客户端资源
+	 */
 	@Override
 	public void destroy() {
+		BindableSgipSession[]  sessions      = this.sessions.toArray(new BindableSgipSession[0]);
+		CompletableFuture<?>[] futures       = new CompletableFuture<?>[sessions.length];
+		long                   unbindTimeout = 0;
+		for (int i = 0; i < sessions.length; ++i) {
+			BindableSgipSession session = sessions[i];
+			futures[i]    = session.unbindAsync(session.getConfiguration().getUnbindTimeout()).thenRun(session::destroy);
+			unbindTimeout = Math.max(unbindTimeout, session.getConfiguration().getUnbindTimeout());
+		}
+		try {
+			// 超时的会话由 unbindAsync 自行关闭连接，此处额外等待关闭完成
+			CompletableFuture.allOf(futures).get(unbindTimeout + DESTROY_CLOSE_MARGIN, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException exception) {
+			log.warn("Not all sessions were unbound cleanly: {}", exception.toString());
+		}
 		workerGroup.shutdownGracefully();
 	}
 
@@ -99,9 +160,19 @@ public class DefaultSgipClient implements SgipClient {
 		SgipSessionConfiguration configuration,
 		SgipSessionHandler sessionHandler
 	) throws SgipTimeoutException, SgipChannelException, SgipBindException, UnrecoverablePduException, InterruptedException {
-		DefaultSgipSession session = null;
+		return bind(configuration, null, sessionHandler);
+	}
+
+	@Override
+	public SgipSession bind(
+		SgipSessionConfiguration configuration,
+		SgipEndpoint endpoint,
+		SgipSessionHandler sessionHandler
+	) throws SgipTimeoutException, SgipChannelException, SgipBindException, UnrecoverablePduException, InterruptedException {
+		checkConfiguration(configuration);
+		BindableSgipSession session = null;
 		try {
-			session = doOpen(configuration, sessionHandler);
+			session = endpoint != null ? doOpen(configuration, endpoint, sessionHandler) : doOpen(configuration, sessionHandler);
 			doBind(session, configuration);
 		} finally {
 			if (session != null && !session.isBound()) {
@@ -115,16 +186,53 @@ public class DefaultSgipClient implements SgipClient {
 		return session;
 	}
 
-	protected DefaultSgipSession doOpen(
+	/**
+	 * 连接前检查配置，优先级发送只由 {@link EventLoopSgipSession} 支持
+	 *
+	 * @throws IllegalArgumentException 配置了优先级发送但未开启 I/O 线程亲和
+	 */
+	protected void checkConfiguration(SgipSessionConfiguration configuration) {
+		if (configuration.isEventLoopAffinityEnabled()) {
+			return;
+		}
+		boolean prioritized = configuration.getPriorityLanes() > 1
+			|| configuration.getPriorityScheduling() != PriorityScheduling.STRICT
+			|| configuration.getPriorityWeights() != null
+			|| configuration.getReservedWindowSlots() > 0;
+		if (prioritized) {
+			throw new IllegalArgumentException(
+				"Session [" + configuration.getName() + "] uses priority lanes, which require eventLoopAffinityEnabled"
+			);
+		}
+	}
+
+	protected BindableSgipSession doOpen(
+		SgipSessionConfiguration configuration,
+		SgipSessionHandler sessionHandler
+	) throws SgipChannelException, InterruptedException {
+		SgipChannelException failure = null;
+		for (SgipEndpoint endpoint : configuration.listEndpoints()) {
+			try {
+				return doOpen(configuration, endpoint, sessionHandler);
+			} catch (SgipChannelException exception) {
+				log.warn("Unable to connect to endpoint [{}], trying next: {}", endpoint, exception.getMessage());
+				failure = exception;
+			}
+		}
+		throw failure;
+	}
+
+	protected BindableSgipSession doOpen(
 		SgipSessionConfiguration configuration,
+		SgipEndpoint endpoint,
 		SgipSessionHandler sessionHandler
 	) throws SgipChannelException, InterruptedException {
-		Channel channel = createConnectedChannel(configuration.getHost(), configuration.getPort(), configuration.getConnectTimeout());
+		Channel channel = createConnectedChannel(endpoint.getHost(), endpoint.getPort(), configuration.getConnectTimeout());
 		return createSession(channel, configuration, sessionHandler);
 	}
 
 	protected void doBind(
-		DefaultSgipSession session,
+		BindableSgipSession session,
 		SgipSessionConfiguration configuration
 	) throws SgipTimeoutException, SgipChannelException, SgipBindException, UnrecoverablePduException, InterruptedException {
 		SgipBind bindRequest = createBindRequest(configuration);
@@ -155,12 +263,19 @@ public class DefaultSgipClient implements SgipClient {
 		return future.channel();
 	}
 
-	protected DefaultSgipSession createSession(
+	protected BindableSgipSession createSession(
 		Channel channel,
 		SgipSessionConfiguration configuration,
 		SgipSessionHandler sessionHandler
 	) {
-		DefaultSgipSession session = new DefaultSgipSession(configuration, channel, sessionHandler, monitorExecutor);
+		BindableSgipSession session = configuration.isEventLoopAffinityEnabled()
+			? new EventLoopSgipSession(configuration, channel, sessionHandler)
+			: new DefaultSgipSession(configuration, channel, sessionHandler, monitorExecutor);
+		sessions.add(session);
+		channel.closeFuture().addListener(future -> sessions.remove(session));
+		if (configuration.isLogBytesEnabled()) {
+			channel.pipeline().addLast(SgipConstants.PIPELINE_LOGGER_NAME, new LoggingHandler(LogLevel.TRACE));
+		}
 		if (configuration.getName() != null) {
 			channel.pipeline().addLast(SgipConstants.PIPELINE_THREAD_RENAMER, new SgipThreadRenamer(configuration.getName()));
 		} else {
@@ -171,13 +286,36 @@ public class DefaultSgipClient implements SgipClient {
 			channel.pipeline().addLast(SgipConstants.PIPELINE_SESSION_WRITE_TIMEOUT_NAME, writeTimeoutHandler);
 		}
 		channel.pipeline()
-			.addLast(SgipConstants.PIPELINE_FRAME_DECODER_NAME, new SgipFrameDecoder())
-			.addLast(SgipConstants.PIPELINE_PDU_DECODER_NAME, new SgipPduDecoder())
+			.addLast(SgipConstants.PIPELINE_FRAME_DECODER_NAME, new SgipFrameDecoder());
+		if (configuration.getWireCaptureDirectory() != null) {
+			SgipWireCapture capture = createWireCapture(channel, configuration);
+			if (capture != null) {
+				channel.pipeline().addLast(SgipConstants.PIPELINE_WIRE_CAPTURE_NAME, new SgipWireCaptureHandler(capture));
+			}
+		}
+		if (configuration.getPduJournal() != null) {
+			channel.pipeline().addLast(SgipConstants.PIPELINE_PDU_JOURNAL_NAME, new SgipPduJournalHandler(configuration.getPduJournal()));
+		}
+		channel.pipeline()
+			.addLast(SgipConstants.PIPELINE_PDU_DECODER_NAME, new SgipPduDecoder(configuration.isPduRecyclingEnabled()))
 			.addLast(SgipConstants.PIPELINE_PDU_ENCODER_NAME, new SgipPduEncoder())
 			.addLast(SgipConstants.PIPELINE_SESSION_WRAPPER_NAME, new SgipSessionWrapper(session));
 		return session;
 	}
 
+	private SgipWireCapture createWireCapture(Channel channel, SgipSessionConfiguration configuration) {
+		String name = configuration.getName() != null ? configuration.getName() : "sgip";
+		String time = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		Path   file = configuration.getWireCaptureDirectory().resolve(name + "-" + time + "-" + channel.id().asShortText() + SgipWireCapture.FILE_SUFFIX);
+		try {
+			Files.createDirectories(file.getParent());
+			return new SgipWireCapture(file);
+		} catch (IOException exception) {
+			log.warn("Unable to create wire capture file {} - skipping wireCapture in pipeline", file, exception);
+			return null;
+		}
+	}
+
 	private SgipBind createBindRequest(SgipSessionConfiguration configuration) {
 		SgipBind bind = new SgipBind();
 		bind.setSourceNodeId(configuration.getSourceNodeId());
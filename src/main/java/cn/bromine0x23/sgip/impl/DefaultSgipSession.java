@@ -9,8 +9,6 @@ package cn.bromine0x23.sgip.impl;
 import cn.bromine0x23.sgip.pdu.*;
 import cn.bromine0x23.sgip.windowing.*;
 import cn.bromine0x23.sgip.SgipConstants;
-import cn.bromine0x23.sgip.SgipSession;
-import cn.bromine0x23.sgip.SgipSessionChannelListener;
 import cn.bromine0x23.sgip.SgipSessionConfiguration;
 import cn.bromine0x23.sgip.SgipSessionHandler;
 import cn.bromine0x23.sgip.SgipSessionListener;
@@ -19,15 +17,24 @@ import cn.bromine0x23.sgip.exception.SgipBindException;
 import cn.bromine0x23.sgip.exception.SgipChannelException;
 import cn.bromine0x23.sgip.exception.SgipTimeoutException;
 import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.jfr.SgipEventRecorder;
+import cn.bromine0x23.sgip.jfr.SgipEventRecorders;
+import cn.bromine0x23.sgip.metrics.SgipMetrics;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.util.concurrent.ScheduledFuture;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -37,10 +44,17 @@ import java.util.concurrent.atomic.AtomicReference;
  *
  * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
  */
-public class DefaultSgipSession implements SgipSession, SgipSessionChannelListener, WindowListener<Integer, SgipPduRequest, SgipPduResponse> {
+public class DefaultSgipSession implements BindableSgipSession, WindowListener<Integer, SgipPduRequest, SgipPduResponse> {
 
 	private static final Logger logger = LoggerFactory.getLogger(DefaultSgipSession.class);
 
+	private static final SgipEventRecorder eventRecorder = SgipEventRecorders.getDefault();
+
+	/**
+	 * 排空期间检查发送窗口的间隔（毫秒），响应到达时另行立即检查
+	 */
+	private static final long DRAIN_CHECK_INTERVAL = 100;
+
 	private final AtomicReference<State> state = new AtomicReference<>(State.OPEN);
 
 	private final AtomicLong boundTime = new AtomicLong(0);
@@ -58,6 +72,22 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 
 	private final Window<Integer, SgipPduRequest, SgipPduResponse> sendWindow;
 
+	@Getter
+	private final SgipMetrics metrics;
+
+	private CompletableFuture<Void> drainFuture;
+
+	private volatile long drainDeadline;
+
+	private ScheduledFuture<?> drainCheck;
+
+	private CompletableFuture<Void> unbindFuture;
+
+	/**
+	 * 异步解除绑定时已发出、尚未收到响应的 Unbind
+	 */
+	private volatile SgipUnbind pendingUnbind;
+
 	public DefaultSgipSession(
 		SgipSessionConfiguration configuration,
 		Channel channel,
@@ -74,6 +104,16 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		} else {
 			this.sendWindow = new Window<>(configuration.getWindowSize());
 		}
+
+		this.metrics = new SgipMetrics(configuration.getName(), channel.id().asShortText());
+		metrics.bindWindow(sendWindow);
+		if (configuration.isJmxEnabled()) {
+			try {
+				metrics.registerMBean();
+			} catch (JMException exception) {
+				logger.warn("Unable to register metrics MBean for session [{}]: {}", configuration.getName(), exception.getMessage());
+			}
+		}
 	}
 
 	@Override
@@ -91,6 +131,11 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		return state.get() == State.BOUND;
 	}
 
+	@Override
+	public boolean isDraining() {
+		return state.get() == State.DRAINING;
+	}
+
 	@Override
 	public boolean isUnbinding() {
 		return state.get() == State.UNBINDING;
@@ -101,6 +146,7 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		return state.get() == State.CLOSED;
 	}
 
+	@Override
 	public SgipBindResp bind(
 		SgipBind request,
 		long timeoutInMillis
@@ -155,6 +201,86 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		close(timeoutMillis);
 	}
 
+	@Override
+	public synchronized CompletableFuture<Void> drain(long timeoutMillis) {
+		if (drainFuture != null) {
+			return drainFuture;
+		}
+		drainFuture = new CompletableFuture<>();
+		if (!state.compareAndSet(State.BOUND, State.DRAINING)) {
+			logger.info("Session is not bound, closing without draining");
+			closeAsync().thenRun(() -> drainFuture.complete(null));
+			return drainFuture;
+		}
+		// 阻塞在 offer 上的调用方立即失败，不再进入窗口
+		try {
+			sendWindow.abortPendingOffers();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+		drainDeadline = System.currentTimeMillis() + timeoutMillis;
+		drainCheck    = channel.eventLoop().scheduleAtFixedRate(this::checkDrained, DRAIN_CHECK_INTERVAL, DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+		checkDrained();
+		return drainFuture;
+	}
+
+	private void checkDrained() {
+		int outstanding = sendWindow.getSize();
+		if (outstanding > 0 && channel.isActive() && System.currentTimeMillis() < drainDeadline) {
+			return;
+		}
+		if (!state.compareAndSet(State.DRAINING, State.UNBINDING)) {
+			return;
+		}
+		synchronized (this) {
+			if (drainCheck != null) {
+				drainCheck.cancel(false);
+			}
+		}
+		if (outstanding > 0) {
+			logger.warn("Session still has [{}] outstanding requests after draining, unbinding anyway", outstanding);
+		}
+		unbindAsync(configuration.getUnbindTimeout()).thenRun(() -> drainFuture.complete(null));
+	}
+
+	@Override
+	public synchronized CompletableFuture<Void> unbindAsync(long timeoutMillis) {
+		if (unbindFuture != null) {
+			return unbindFuture;
+		}
+		CompletableFuture<Void> future = unbindFuture = new CompletableFuture<>();
+		if (!channel.isActive()) {
+			logger.info("Session channel is already closed, not going to unbind");
+			closeAsync().thenRun(() -> future.complete(null));
+			return future;
+		}
+		state.set(State.UNBINDING);
+		SgipUnbind unbind = new SgipUnbind();
+		unbind.setSourceNodeId(configuration.getSourceNodeId());
+		unbind.setTimestamp(SgipPdu.calculateTimestamp());
+		unbind.setSequenceNumber(sequenceNumber.getAndIncrement());
+		pendingUnbind = unbind;
+		// 不经过发送窗口，响应在 pduResponseReceived 中按序列号识别
+		ScheduledFuture<?> timeout = channel.eventLoop().schedule(() -> {
+			logger.warn("Did not receive an unbind response within [{} ms], closing", timeoutMillis);
+			channel.close();
+		}, timeoutMillis, TimeUnit.MILLISECONDS);
+		channel.closeFuture().addListener(closeFuture -> {
+			timeout.cancel(false);
+			state.set(State.CLOSED);
+			future.complete(null);
+		});
+		channel.writeAndFlush(unbind).addListener(writeFuture -> {
+			if (writeFuture.isSuccess()) {
+				metrics.requestSent(unbind.getCommandId());
+			} else {
+				logger.warn("Unable to send unbind request, closing: {}", writeFuture.cause().getMessage());
+				channel.close();
+			}
+		});
+		return future;
+	}
+
 	@Override
 	public void close() {
 		close(5000);
@@ -173,19 +299,57 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		this.state.set(State.CLOSED);
 	}
 
+	@Override
+	public CompletableFuture<Void> closeAsync() {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		if (channel.isActive()) {
+			state.set(State.UNBINDING);
+		}
+		channel.close().addListener(closeFuture -> {
+			state.set(State.CLOSED);
+			future.complete(null);
+		});
+		return future;
+	}
+
+	/**
+	 * 关闭连接，调用方未同步等待的请求以 {@link ClosedChannelException} 结束并通知 {@link SgipSessionHandler#pduRequestFailed}
+	 */
 	@Override
 	public void destroy() {
 		close();
+		Throwable cause = new ClosedChannelException();
+		for (WindowFuture<Integer, SgipPduRequest, SgipPduResponse> future : sendWindow.createSortedSnapshot().values()) {
+			if (!future.isDone() && future.getCallerStateHint() == WindowFuture.CALLER_NOT_WAITING) {
+				future.fail(cause);
+				sessionHandler.pduRequestFailed(future.getRequest(), cause);
+			}
+		}
 		sendWindow.destroy();
+		metrics.unregisterMBean();
 		sessionHandler = null;
 	}
 
+	@Override
+	public List<SgipPduRequest> takeUnacknowledgedRequests() throws InterruptedException {
+		List<SgipPduRequest> requests = new ArrayList<>();
+		for (WindowFuture<Integer, SgipPduRequest, SgipPduResponse> future : sendWindow.createSortedSnapshot().values()) {
+			if (!future.isDone() && future.getCallerStateHint() == WindowFuture.CALLER_NOT_WAITING && sendWindow.cancel(future.getKey()) != null) {
+				requests.add(future.getRequest());
+			}
+		}
+		return requests;
+	}
+
 	@Override
 	public WindowFuture<Integer, SgipPduRequest, SgipPduResponse> sendRequestPdu(
 		SgipPduRequest request,
 		long timeoutMillis,
 		boolean synchronous
-	) throws UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException {
+	) throws RecoverablePduException, UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException {
+		if (isDraining()) {
+			throw new RecoverablePduException("Session is draining, request rejected");
+		}
 		if (!request.hasSourceNodeIdAssigned()) {
 			request.setSourceNodeId(configuration.getSourceNodeId());
 		}
@@ -197,11 +361,13 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		}
 
 		WindowFuture<Integer, SgipPduRequest, SgipPduResponse> windowFuture;
+		Object                                                 offerEvent = eventRecorder.beginWindowOffer();
 		try {
 			//noinspection unchecked
 			windowFuture = (WindowFuture<Integer, SgipPduRequest, SgipPduResponse>)sendWindow.offer(
 				request.getSequenceNumber(), request, timeoutMillis, configuration.getRequestExpiryTimeout(), synchronous
 			);
+			eventRecorder.endWindowOffer(offerEvent, configuration.getName(), request.getCommandId(), request.getSequenceNumber(), windowFuture.getWindowSize());
 		} catch (DuplicateKeyException exception) {
 			throw new UnrecoverablePduException(exception.getMessage(), exception);
 		} catch (OfferTimeoutException exception) {
@@ -211,6 +377,9 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		if (sessionHandler instanceof SgipSessionListener && !((SgipSessionListener)this.sessionHandler).pduDispatch(request)) {
 			logger.info("dispatched request PDU discarded: {}", request);
 			windowFuture.cancel();
+			if (!synchronous) {
+				sessionHandler.pduRequestFailed(request, new RecoverablePduException("Request discarded before dispatch"));
+			}
 			return windowFuture;
 		}
 
@@ -222,12 +391,18 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 			}
 		}
 
+		Object        sendEvent     = eventRecorder.beginSend();
 		ChannelFuture channelFuture = channel.writeAndFlush(request).await();
 
 		if (!channelFuture.isSuccess()) {
+			// 未写出的请求不会有响应，释放窗口占用
+			sendWindow.cancel(request.getSequenceNumber());
 			throw new SgipChannelException(channelFuture.cause().getMessage(), channelFuture.cause());
 		}
 
+		eventRecorder.endSend(sendEvent, configuration.getName(), request.getCommandId(), request.getSequenceNumber());
+		metrics.requestSent(request.getCommandId());
+
 		return windowFuture;
 	}
 
@@ -252,24 +427,53 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 			logger.info("send PDU: {}", response);
 		}
 
+		Object        sendEvent     = eventRecorder.beginSend();
 		ChannelFuture channelFuture = channel.writeAndFlush(response).await();
 
 		if (!channelFuture.isSuccess()) {
 			throw new SgipChannelException(channelFuture.cause().getMessage(), channelFuture.cause());
 		}
+
+		eventRecorder.endSend(sendEvent, configuration.getName(), response.getCommandId(), response.getSequenceNumber());
+		metrics.responseSent(response.getCommandId());
 	}
 
 	@Override
 	public void pduReceived(SgipPdu pdu) {
+		// doPduReceived 可能已将池化的 PDU 释放，事件字段须事先读取
+		int    commandId      = pdu.getCommandId();
+		int    sequenceNumber = pdu.getSequenceNumber();
+		Object receiveEvent   = eventRecorder.beginReceive();
+		try {
+			doPduReceived(pdu);
+		} finally {
+			eventRecorder.endReceive(receiveEvent, configuration.getName(), commandId, sequenceNumber);
+		}
+	}
+
+	private void doPduReceived(SgipPdu pdu) {
 		if (configuration.isLogPduEnabled()) {
 			logger.info("received PDU: {}", pdu);
 		}
+		if (pdu instanceof SgipPduRequest) {
+			metrics.requestReceived(pdu.getCommandId());
+		} else {
+			metrics.responseReceived(pdu.getCommandId());
+			if (pdu instanceof SgipBasePduResp) {
+				metrics.responseResult(((SgipBasePduResp)pdu).getResult());
+			}
+		}
 		if (sessionHandler instanceof SgipSessionListener && !((SgipSessionListener)this.sessionHandler).pduReceived(pdu)) {
 			logger.info("recieved PDU discarded: {}", pdu);
+			pdu.release();
 			return;
 		}
 		if (pdu instanceof SgipPduRequest) {
-			pduRequestReceived((SgipPduRequest)pdu);
+			try {
+				pduRequestReceived((SgipPduRequest)pdu);
+			} finally {
+				pdu.release();
+			}
 		} else {
 			pduResponseReceived((SgipPduResponse)pdu);
 		}
@@ -282,8 +486,8 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 		} else if (throwable instanceof RecoverablePduException) {
 			sessionHandler.recoverablePduException((RecoverablePduException)throwable);
 		} else {
-			if (isUnbinding() || isClosed()) {
-				logger.debug("Unbind/close was requested, ignoring exception thrown: {}", throwable);
+			if (isDraining() || isUnbinding() || isClosed()) {
+				logger.debug("Drain/unbind/close was requested, ignoring exception thrown: {}", throwable);
 			} else {
 				sessionHandler.unknownThrowable(throwable);
 			}
@@ -307,8 +511,8 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 				}
 			}
 		}
-		if (isUnbinding() || isClosed()) {
-			logger.debug("Unbind/close was requested, ignoring channelClosed event");
+		if (isDraining() || isUnbinding() || isClosed()) {
+			logger.debug("Drain/unbind/close was requested, ignoring channelClosed event");
 		} else {
 			sessionHandler.channelUnexpectedlyClosed();
 		}
@@ -321,16 +525,29 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 				sendResponsePdu(responsePdu);
 			} catch (Exception exception) {
 				logger.error("Unable to cleanly return response PDU: {}", exception);
+			} finally {
+				responsePdu.release();
 			}
 		}
 	}
 
 	private void pduResponseReceived(SgipPduResponse response) {
-		int receivedPduSeqNum = response.getSequenceNumber();
+		int        receivedPduSeqNum = response.getSequenceNumber();
+		SgipUnbind unbind            = pendingUnbind;
+		if (unbind != null && response instanceof SgipUnbindResp && receivedPduSeqNum == unbind.getSequenceNumber()) {
+			logger.debug("Received unbind response, closing");
+			response.release();
+			channel.close();
+			return;
+		}
 		try {
 			WindowFuture<Integer, SgipPduRequest, SgipPduResponse> future = sendWindow.complete(receivedPduSeqNum, response);
 			if (future != null) {
 				logger.trace("Found a future in the window for seqNum [{}]", receivedPduSeqNum);
+				metrics.requestCompleted(future.getOfferToAcceptTime(), future.getAcceptToDoneTime());
+				if (isDraining()) {
+					checkDrained();
+				}
 				int callerStateHint = future.getCallerStateHint();
 				if (callerStateHint == WindowFuture.CALLER_WAITING) {
 					logger.trace("Caller waiting for request: {}", future.getRequest());
@@ -339,16 +556,24 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 					sessionHandler.expectedPduResponseReceived(new DefaultSgipAsyncPduResponse(future));
 				} else {
 					logger.trace("Caller timed out waiting for request: {}", future.getRequest());
-					sessionHandler.unexpectedPduResponseReceived(response);
+					unexpectedPduResponseReceived(response);
 				}
 			} else {
-				sessionHandler.unexpectedPduResponseReceived(response);
+				unexpectedPduResponseReceived(response);
 			}
 		} catch (InterruptedException exception) {
 			logger.warn("Interrupted while attempting to process response PDU and match it to a request via requestWindow: ", exception);
 		}
 	}
 
+	private void unexpectedPduResponseReceived(SgipPduResponse response) {
+		try {
+			sessionHandler.unexpectedPduResponseReceived(response);
+		} finally {
+			response.release();
+		}
+	}
+
 	private SgipPduResponse sendRequestAndGetResponse(
 		SgipPduRequest requestPdu,
 		long timeoutInMillis
@@ -377,6 +602,14 @@ public class DefaultSgipSession implements SgipSession, SgipSessionChannelListen
 
 	@Override
 	public void expired(WindowFuture<Integer, SgipPduRequest, SgipPduResponse> windowFuture) {
+		metrics.requestExpired();
+		SgipPduRequest request = windowFuture.getRequest();
+		eventRecorder.windowExpired(
+			configuration.getName(), request.getCommandId(), request.getSequenceNumber(), System.currentTimeMillis() - windowFuture.getAcceptTimestamp()
+		);
 		sessionHandler.pduRequestExpired(windowFuture.getRequest());
+		if (isDraining()) {
+			checkDrained();
+		}
 	}
 }
@@ -81,6 +81,11 @@ public class DefaultSgipSessionHandler implements SgipSessionListener {
 		}
 	}
 
+	@Override
+	public void pduRequestFailed(SgipPduRequest request, Throwable cause) {
+		logger.warn("Default handling is to discard failed request PDU: {}", request, cause);
+	}
+
 	@Override
 	public boolean pduReceived(SgipPdu pdu) {
 		return true;
@@ -0,0 +1,755 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.impl;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import cn.bromine0x23.sgip.SgipSessionConfiguration;
+import cn.bromine0x23.sgip.SgipSessionHandler;
+import cn.bromine0x23.sgip.SgipSessionListener;
+import cn.bromine0x23.sgip.exception.RecoverablePduException;
+import cn.bromine0x23.sgip.exception.SgipBindException;
+import cn.bromine0x23.sgip.exception.SgipChannelException;
+import cn.bromine0x23.sgip.exception.SgipTimeoutException;
+import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.metrics.SgipMetrics;
+import cn.bromine0x23.sgip.pdu.SgipBasePduResp;
+import cn.bromine0x23.sgip.pdu.SgipBind;
+import cn.bromine0x23.sgip.pdu.SgipBindResp;
+import cn.bromine0x23.sgip.pdu.SgipPdu;
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import cn.bromine0x23.sgip.pdu.SgipPduResponse;
+import cn.bromine0x23.sgip.pdu.SgipSubmit;
+import cn.bromine0x23.sgip.pdu.SgipSubmitResp;
+import cn.bromine0x23.sgip.pdu.SgipUnbind;
+import cn.bromine0x23.sgip.pdu.SgipUnbindResp;
+import cn.bromine0x23.sgip.util.SgipPduCodec;
+import cn.bromine0x23.sgip.windowing.LocalWindow;
+import cn.bromine0x23.sgip.windowing.LocalWindowFuture;
+import cn.bromine0x23.sgip.windowing.OfferTimeoutException;
+import cn.bromine0x23.sgip.windowing.PriorityLanes;
+import cn.bromine0x23.sgip.windowing.WindowFuture;
+import cn.bromine0x23.sgip.windowing.WindowStatus;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 限定在 I/O 线程上的 SGIP 会话
+ * <p>
+ * 发送窗口（{@link LocalWindow}）、序列号与过期检查都只在连接所属的 {@link EventLoop} 上访问，不加锁。
+ * 其他线程提交的请求以一次 CAS 放入有界的多生产者单消费者队列（容量见 {@link SgipSessionConfiguration#getSubmissionQueueSize()}），
+ * 队列满时发送请求立即失败；I/O 线程按批取出、分配序列号、进入窗口，编码到同一缓冲后写出，每批只 flush 一次。
+ * 窗口已满时请求留在队列中，收到响应后补入；offer 超时在请求取出时检查。
+ * 配置多个优先级时提交队列按 Submit 的 {@code Priority} 分级（见 {@link PriorityLanes}），进入窗口的顺序由调度方式决定。
+ * <p>
+ * 与 {@link DefaultSgipSession} 的区别：{@link #sendRequestPdu} 提交后立即返回，不等待进入窗口与写出完成，
+ * offer 超时以 {@link cn.bromine0x23.sgip.windowing.OfferTimeoutException} 使请求失败；
+ * 会话处理器的回调都在 I/O 线程上执行，不得阻塞。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class EventLoopSgipSession implements BindableSgipSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(EventLoopSgipSession.class);
+
+	private static final AtomicIntegerFieldUpdater<EventLoopSgipSession> DRAIN_SCHEDULED_UPDATER
+		= AtomicIntegerFieldUpdater.newUpdater(EventLoopSgipSession.class, "drainScheduled");
+
+	/**
+	 * 每批从提交队列取出的最大请求数
+	 */
+	private static final int DRAIN_BATCH_SIZE = 256;
+
+	/**
+	 * 未配置窗口检查间隔时的过期检查间隔（毫秒）
+	 */
+	private static final long DEFAULT_EXPIRY_CHECK_INTERVAL = 100;
+
+	@Getter
+	private final SgipSessionConfiguration configuration;
+
+	@Getter
+	private final Channel channel;
+
+	@Getter
+	private SgipSessionHandler sessionHandler;
+
+	@Getter
+	private final SgipMetrics metrics;
+
+	private final EventLoop eventLoop;
+
+	private final LocalWindow<SgipPduRequest, SgipPduResponse> sendWindow;
+
+	private final PriorityLanes<LocalWindowFuture<SgipPduRequest, SgipPduResponse>> submissions;
+
+	/**
+	 * 本批待编码的请求，仅在 I/O 线程上访问
+	 */
+	private final List<LocalWindowFuture<SgipPduRequest, SgipPduResponse>> batch = new ArrayList<>();
+
+	private final Runnable drainTask = this::drainSubmissions;
+
+	private volatile int drainScheduled;
+
+	private volatile State state = State.OPEN;
+
+	private volatile boolean destroyed;
+
+	/**
+	 * 仅在 I/O 线程上访问
+	 */
+	private int sequenceNumber;
+
+	private final ScheduledFuture<?> expiryCheck;
+
+	private CompletableFuture<Void> drainFuture;
+
+	private long drainDeadline;
+
+	private CompletableFuture<Void> unbindFuture;
+
+	private SgipUnbind pendingUnbind;
+
+	public EventLoopSgipSession(SgipSessionConfiguration configuration, Channel channel, SgipSessionHandler sessionHandler) {
+		this.configuration  = configuration;
+		this.channel        = channel;
+		this.sessionHandler = sessionHandler;
+		this.eventLoop      = channel.eventLoop();
+		this.sendWindow     = new LocalWindow<>(eventLoop, configuration.getWindowSize());
+		this.submissions    = new PriorityLanes<>(
+			configuration.getPriorityLanes(), configuration.getSubmissionQueueSize(),
+			configuration.getPriorityScheduling(), configuration.getPriorityWeights(), configuration.getReservedWindowSlots()
+		);
+		this.metrics        = new SgipMetrics(configuration.getName(), channel.id().asShortText());
+		metrics.bindWindow(new WindowStatus() {
+			@Override
+			public int getSize() {
+				return sendWindow.getSize();
+			}
+
+			@Override
+			public int getMaxSize() {
+				return sendWindow.getMaxSize();
+			}
+
+			@Override
+			public int getPendingOfferCount() {
+				return sendWindow.getPendingOfferCount() + submissions.size();
+			}
+		});
+		if (configuration.isJmxEnabled()) {
+			try {
+				metrics.registerMBean();
+			} catch (JMException exception) {
+				logger.warn("Unable to register metrics MBean for session [{}]: {}", configuration.getName(), exception.getMessage());
+			}
+		}
+		long interval = configuration.getWindowMonitorInterval() > 0 ? configuration.getWindowMonitorInterval() : DEFAULT_EXPIRY_CHECK_INTERVAL;
+		this.expiryCheck = eventLoop.scheduleAtFixedRate(this::checkExpired, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public boolean isOpen() {
+		return state == State.OPEN;
+	}
+
+	@Override
+	public boolean isBinding() {
+		return state == State.BINDING;
+	}
+
+	@Override
+	public boolean isBound() {
+		return state == State.BOUND;
+	}
+
+	@Override
+	public boolean isDraining() {
+		return state == State.DRAINING;
+	}
+
+	@Override
+	public boolean isUnbinding() {
+		return state == State.UNBINDING;
+	}
+
+	@Override
+	public boolean isClosed() {
+		return state == State.CLOSED;
+	}
+
+	@Override
+	public SgipBindResp bind(
+		SgipBind request, long timeoutMillis
+	) throws RecoverablePduException, UnrecoverablePduException, SgipBindException, SgipTimeoutException, SgipChannelException, InterruptedException {
+		boolean bound = false;
+		try {
+			state = State.BINDING;
+			SgipBindResp response = (SgipBindResp)sendRequestAndGetResponse(request, timeoutMillis);
+			if (response == null || response.getResult() != SgipConstants.ErrorCode.OK) {
+				throw new SgipBindException(response);
+			}
+			bound = true;
+			return response;
+		} finally {
+			if (bound) {
+				state = State.BOUND;
+			} else {
+				close();
+			}
+		}
+	}
+
+	@Override
+	public SgipSubmitResp submit(
+		SgipSubmit request, long timeoutMillis
+	) throws RecoverablePduException, UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException {
+		return (SgipSubmitResp)sendRequestAndGetResponse(request, timeoutMillis);
+	}
+
+	/**
+	 * 提交请求后立即返回，由 I/O 线程分配序列号、进入窗口并写出
+	 */
+	@Override
+	public WindowFuture<Integer, SgipPduRequest, SgipPduResponse> sendRequestPdu(
+		SgipPduRequest request, long timeoutMillis, boolean synchronous
+	) throws RecoverablePduException, SgipChannelException {
+		State state = this.state;
+		if (state == State.DRAINING) {
+			throw new RecoverablePduException("Session is draining, request rejected");
+		}
+		if (state == State.UNBINDING || state == State.CLOSED) {
+			throw new SgipChannelException("Session is closed");
+		}
+		LocalWindowFuture<SgipPduRequest, SgipPduResponse> future = new LocalWindowFuture<>(
+			sendWindow, request, synchronous ? WindowFuture.CALLER_WAITING : WindowFuture.CALLER_NOT_WAITING,
+			timeoutMillis, configuration.getRequestExpiryTimeout(), System.currentTimeMillis()
+		);
+		int lane = request instanceof SgipSubmit ? submissions.laneOf(((SgipSubmit)request).getPriority()) : submissions.highestLane();
+		if (!submissions.offer(lane, future)) {
+			throw new RecoverablePduException("Submission queue is full");
+		}
+		if (drainScheduled == 0 && DRAIN_SCHEDULED_UPDATER.compareAndSet(this, 0, 1)) {
+			eventLoop.execute(drainTask);
+		}
+		return future;
+	}
+
+	@Override
+	public void sendResponsePdu(SgipPduResponse response) {
+		if (eventLoop.inEventLoop()) {
+			writeResponse(response);
+		} else {
+			eventLoop.execute(() -> writeResponse(response));
+		}
+	}
+
+	@Override
+	public List<SgipPduRequest> takeUnacknowledgedRequests() throws InterruptedException {
+		if (eventLoop.inEventLoop()) {
+			return doTakeUnacknowledgedRequests();
+		}
+		try {
+			return eventLoop.submit(this::doTakeUnacknowledgedRequests).get();
+		} catch (ExecutionException exception) {
+			throw new IllegalStateException(exception.getCause());
+		}
+	}
+
+	@Override
+	public void unbind(long timeoutMillis) {
+		awaitQuietly(unbindAsync(timeoutMillis), timeoutMillis);
+	}
+
+	@Override
+	public synchronized CompletableFuture<Void> drain(long timeoutMillis) {
+		if (drainFuture != null) {
+			return drainFuture;
+		}
+		CompletableFuture<Void> future = drainFuture = new CompletableFuture<>();
+		if (state != State.BOUND) {
+			logger.info("Session is not bound, closing without draining");
+			closeAsync().thenRun(() -> future.complete(null));
+			return future;
+		}
+		state = State.DRAINING;
+		eventLoop.execute(() -> {
+			drainDeadline = System.currentTimeMillis() + timeoutMillis;
+			checkDrained();
+		});
+		return future;
+	}
+
+	@Override
+	public synchronized CompletableFuture<Void> unbindAsync(long timeoutMillis) {
+		if (unbindFuture != null) {
+			return unbindFuture;
+		}
+		CompletableFuture<Void> future = unbindFuture = new CompletableFuture<>();
+		if (!channel.isActive()) {
+			logger.info("Session channel is already closed, not going to unbind");
+			closeAsync().thenRun(() -> future.complete(null));
+			return future;
+		}
+		state = State.UNBINDING;
+		channel.closeFuture().addListener(closeFuture -> {
+			state = State.CLOSED;
+			future.complete(null);
+		});
+		eventLoop.execute(() -> {
+			SgipUnbind unbind = new SgipUnbind();
+			unbind.setSourceNodeId(configuration.getSourceNodeId());
+			unbind.setTimestamp(SgipPdu.calculateTimestamp());
+			unbind.setSequenceNumber(sequenceNumber++);
+			pendingUnbind = unbind;
+			ScheduledFuture<?> timeout = eventLoop.schedule(() -> {
+				logger.warn("Did not receive an unbind response within [{} ms], closing", timeoutMillis);
+				channel.close();
+			}, timeoutMillis, TimeUnit.MILLISECONDS);
+			channel.closeFuture().addListener(closeFuture -> timeout.cancel(false));
+			channel.writeAndFlush(unbind, channel.voidPromise());
+			metrics.requestSent(unbind.getCommandId());
+		});
+		return future;
+	}
+
+	@Override
+	public void close() {
+		close(5000);
+	}
+
+	@Override
+	public void close(long timeoutMillis) {
+		awaitQuietly(closeAsync(), timeoutMillis);
+	}
+
+	@Override
+	public CompletableFuture<Void> closeAsync() {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		if (channel.isActive()) {
+			state = State.UNBINDING;
+		}
+		channel.close().addListener(closeFuture -> {
+			state = State.CLOSED;
+			future.complete(null);
+		});
+		return future;
+	}
+
+	/**
+	 * 关闭连接，并以 {@link ClosedChannelException} 结束仍在窗口与提交队列中的请求
+	 */
+	@Override
+	public void destroy() {
+		destroyed = true;
+		close();
+		if (eventLoop.inEventLoop()) {
+			failOutstanding();
+		} else {
+			try {
+				eventLoop.submit(this::failOutstanding).awaitUninterruptibly();
+			} catch (RejectedExecutionException exception) {
+				// I/O 线程已终止，不会再有并发访问
+				failOutstanding();
+			}
+		}
+		metrics.unregisterMBean();
+		sessionHandler = null;
+	}
+
+	@Override
+	public void pduReceived(SgipPdu pdu) {
+		if (configuration.isLogPduEnabled()) {
+			logger.info("received PDU: {}", pdu);
+		}
+		if (pdu instanceof SgipPduRequest) {
+			metrics.requestReceived(pdu.getCommandId());
+		} else {
+			metrics.responseReceived(pdu.getCommandId());
+			if (pdu instanceof SgipBasePduResp) {
+				metrics.responseResult(((SgipBasePduResp)pdu).getResult());
+			}
+		}
+		if (sessionHandler instanceof SgipSessionListener && !((SgipSessionListener)sessionHandler).pduReceived(pdu)) {
+			logger.info("recieved PDU discarded: {}", pdu);
+			pdu.release();
+			return;
+		}
+		if (pdu instanceof SgipPduRequest) {
+			try {
+				SgipPduResponse response = sessionHandler.pduRequestReceived((SgipPduRequest)pdu);
+				if (response != null) {
+					writeResponse(response);
+				}
+			} finally {
+				pdu.release();
+			}
+		} else {
+			pduResponseReceived((SgipPduResponse)pdu);
+		}
+	}
+
+	@Override
+	public void exceptionCaught(Throwable throwable) {
+		if (throwable instanceof UnrecoverablePduException) {
+			sessionHandler.unrecoverablePduException((UnrecoverablePduException)throwable);
+		} else if (throwable instanceof RecoverablePduException) {
+			sessionHandler.recoverablePduException((RecoverablePduException)throwable);
+		} else if (isDraining() || isUnbinding() || isClosed()) {
+			logger.debug("Drain/unbind/close was requested, ignoring exception thrown: {}", throwable);
+		} else {
+			sessionHandler.unknownThrowable(throwable);
+		}
+	}
+
+	@Override
+	public void channelInactive() {
+		moveSubmissions();
+		// 同步等待的调用方立即失败，其余请求留在窗口中，可由 takeUnacknowledgedRequests 取出重发，
+		// 过期检查继续运行，未被取出的请求按超时结束，直至 destroy
+		List<LocalWindowFuture<SgipPduRequest, SgipPduResponse>> futures = sendWindow.removeAll();
+		Throwable                                                cause   = new ClosedChannelException();
+		long                                                     now     = System.currentTimeMillis();
+		for (LocalWindowFuture<SgipPduRequest, SgipPduResponse> future : futures) {
+			if (future.isCallerWaiting()) {
+				future.fail(cause, now);
+			} else if (future.getAcceptTimestamp() > 0) {
+				sendWindow.accept(future.getKey(), future, future.getAcceptTimestamp());
+			} else {
+				sendWindow.queue(future);
+			}
+		}
+		if (isDraining()) {
+			checkDrained();
+		}
+		if (isDraining() || isUnbinding() || isClosed()) {
+			logger.debug("Drain/unbind/close was requested, ignoring channelClosed event");
+		} else {
+			sessionHandler.channelUnexpectedlyClosed();
+		}
+	}
+
+	private void drainSubmissions() {
+		drainScheduled = 0;
+		// 窗口已满时请求留在提交队列中，收到响应或过期检查时再补入
+		admitPending(System.currentTimeMillis());
+	}
+
+	/**
+	 * 窗口有空位时依次补入窗口内排队的请求与提交队列中的请求，编码到同一缓冲后写出并 flush 一次；
+	 * 达到批量上限时让出 I/O 线程，稍后继续
+	 */
+	private void admitPending(long now) {
+		if (!channel.isActive()) {
+			// 连接断开后提交的请求不会被 channelInactive 处理
+			if (destroyed) {
+				failOutstanding();
+				return;
+			}
+			LocalWindowFuture<SgipPduRequest, SgipPduResponse> future;
+			while ((future = submissions.pollAny()) != null) {
+				if (future.isCallerWaiting()) {
+					future.fail(new ClosedChannelException(), now);
+				} else if (!future.isDone()) {
+					sendWindow.queue(future);
+				}
+			}
+			return;
+		}
+		while (batch.size() < DRAIN_BATCH_SIZE && !sendWindow.isFull()) {
+			LocalWindowFuture<SgipPduRequest, SgipPduResponse> future = sendWindow.pollPending();
+			if (future == null) {
+				future = submissions.poll(sendWindow.getMaxSize() - sendWindow.getSize());
+				if (future == null) {
+					break;
+				}
+			}
+			if (future.isDone()) {
+				continue;
+			}
+			if (future.isOfferExpired(now)) {
+				fail(future, new OfferTimeoutException("Unable to accept offer within [" + future.getOfferTimeoutMillis() + " ms] (window full)"), now);
+				continue;
+			}
+			if (prepare(future, now)) {
+				batch.add(future);
+			}
+		}
+		boolean limited = batch.size() >= DRAIN_BATCH_SIZE;
+		writeBatch(now);
+		if (limited && !submissions.isEmpty() && DRAIN_SCHEDULED_UPDATER.compareAndSet(this, 0, 1)) {
+			eventLoop.execute(drainTask);
+		}
+	}
+
+	/**
+	 * 分配序列号并进入窗口
+	 *
+	 * @return 是否需要写出
+	 */
+	private boolean prepare(LocalWindowFuture<SgipPduRequest, SgipPduResponse> future, long now) {
+		SgipPduRequest request = future.getRequest();
+		if (!request.hasSourceNodeIdAssigned()) {
+			request.setSourceNodeId(configuration.getSourceNodeId());
+		}
+		if (!request.hasTimestampAssigned()) {
+			request.setTimestamp(SgipPdu.calculateTimestamp());
+		}
+		if (!request.hasSequenceNumberAssigned()) {
+			request.setSequenceNumber(sequenceNumber++);
+		}
+		if (!sendWindow.accept(request.getSequenceNumber(), future, now)) {
+			fail(future, new UnrecoverablePduException("Duplicate sequence number [" + request.getSequenceNumber() + "] in window"), now);
+			return false;
+		}
+		if (sessionHandler instanceof SgipSessionListener && !((SgipSessionListener)sessionHandler).pduDispatch(request)) {
+			logger.info("dispatched request PDU discarded: {}", request);
+			sendWindow.cancel(request.getSequenceNumber(), now);
+			if (!future.isCallerWaiting()) {
+				sessionHandler.pduRequestFailed(request, new RecoverablePduException("Request discarded before dispatch"));
+			}
+			return false;
+		}
+		if (configuration.isLogPduEnabled()) {
+			logger.info("send PDU: {}", request);
+		}
+		if (!request.hasCommandLengthCalculated()) {
+			request.calculateAndSetCommandLength();
+		}
+		return true;
+	}
+
+	/**
+	 * 将本批请求编码到同一缓冲并写出，编码失败的请求以异常结束
+	 */
+	private void writeBatch(long now) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		int length = 0;
+		for (LocalWindowFuture<SgipPduRequest, SgipPduResponse> future : batch) {
+			length += future.getRequest().getCommandLength();
+		}
+		ByteBuf buffer = channel.alloc().ioBuffer(length);
+		for (LocalWindowFuture<SgipPduRequest, SgipPduResponse> future : batch) {
+			SgipPduRequest request = future.getRequest();
+			int            mark    = buffer.writerIndex();
+			try {
+				SgipPduCodec.encode(request, buffer);
+				metrics.requestSent(request.getCommandId());
+			} catch (UnrecoverablePduException | RecoverablePduException | RuntimeException exception) {
+				logger.warn("Unable to encode request PDU: {}", request, exception);
+				buffer.writerIndex(mark);
+				fail(future, exception, now);
+			}
+		}
+		batch.clear();
+		if (buffer.isReadable()) {
+			channel.writeAndFlush(buffer, channel.voidPromise());
+		} else {
+			buffer.release();
+		}
+	}
+
+	/**
+	 * 将提交队列中的请求全部移入窗口的排队队列
+	 */
+	private void moveSubmissions() {
+		LocalWindowFuture<SgipPduRequest, SgipPduResponse> future;
+		while ((future = submissions.pollAny()) != null) {
+			if (!future.isDone()) {
+				sendWindow.queue(future);
+			}
+		}
+	}
+
+	private void writeResponse(SgipPduResponse response) {
+		try {
+			if (!response.hasSourceNodeIdAssigned()) {
+				response.setSourceNodeId(configuration.getSourceNodeId());
+			}
+			if (!response.hasTimestampAssigned()) {
+				response.setTimestamp(SgipPdu.calculateTimestamp());
+			}
+			if (!response.hasSequenceNumberAssigned()) {
+				response.setSequenceNumber(sequenceNumber++);
+			}
+			if (sessionHandler instanceof SgipSessionListener && !((SgipSessionListener)sessionHandler).pduDispatch(response)) {
+				logger.info("dispatched response PDU discarded: {}", response);
+				return;
+			}
+			if (configuration.isLogPduEnabled()) {
+				logger.info("send PDU: {}", response);
+			}
+			// 在 I/O 线程上写出时编码同步完成，之后即可释放
+			channel.writeAndFlush(response, channel.voidPromise());
+			metrics.responseSent(response.getCommandId());
+		} finally {
+			response.release();
+		}
+	}
+
+	private void pduResponseReceived(SgipPduResponse response) {
+		int        sequenceNumber = response.getSequenceNumber();
+		SgipUnbind unbind         = pendingUnbind;
+		if (unbind != null && response instanceof SgipUnbindResp && sequenceNumber == unbind.getSequenceNumber()) {
+			logger.debug("Received unbind response, closing");
+			response.release();
+			channel.close();
+			return;
+		}
+		long                                               now    = System.currentTimeMillis();
+		LocalWindowFuture<SgipPduRequest, SgipPduResponse> future = sendWindow.complete(sequenceNumber, response, now);
+		if (future == null) {
+			unexpectedPduResponseReceived(response);
+			return;
+		}
+		metrics.requestCompleted(future.getOfferToAcceptTime(), future.getAcceptToDoneTime());
+		admitPending(now);
+		int callerStateHint = future.getCallerStateHint();
+		if (callerStateHint == WindowFuture.CALLER_NOT_WAITING) {
+			sessionHandler.expectedPduResponseReceived(new DefaultSgipAsyncPduResponse(future));
+		} else if (callerStateHint == WindowFuture.CALLER_WAITING_TIMEOUT) {
+			unexpectedPduResponseReceived(response);
+		}
+		if (isDraining()) {
+			checkDrained();
+		}
+	}
+
+	private void unexpectedPduResponseReceived(SgipPduResponse response) {
+		try {
+			sessionHandler.unexpectedPduResponseReceived(response);
+		} finally {
+			response.release();
+		}
+	}
+
+	private void checkExpired() {
+		long now = System.currentTimeMillis();
+		sendWindow.expire(now, future -> {
+			metrics.requestExpired();
+			sessionHandler.pduRequestExpired(future.getRequest());
+		}, future -> {
+			if (!future.isCallerWaiting()) {
+				sessionHandler.pduRequestFailed(future.getRequest(), future.getCause());
+			}
+		});
+		admitPending(now);
+		if (isDraining()) {
+			checkDrained();
+		}
+	}
+
+	private void checkDrained() {
+		int outstanding = sendWindow.getSize() + sendWindow.getPendingOfferCount() + submissions.size();
+		if (outstanding > 0 && channel.isActive() && System.currentTimeMillis() < drainDeadline) {
+			return;
+		}
+		if (state != State.DRAINING) {
+			return;
+		}
+		state = State.UNBINDING;
+		if (outstanding > 0) {
+			logger.warn("Session still has [{}] outstanding requests after draining, unbinding anyway", outstanding);
+		}
+		CompletableFuture<Void> future = drainFuture;
+		unbindAsync(configuration.getUnbindTimeout()).thenRun(() -> future.complete(null));
+	}
+
+	/**
+	 * 停止过期检查，以 {@link ClosedChannelException} 结束窗口与提交队列中的全部请求
+	 */
+	private void failOutstanding() {
+		expiryCheck.cancel(false);
+		moveSubmissions();
+		Throwable cause = new ClosedChannelException();
+		long      now   = System.currentTimeMillis();
+		for (LocalWindowFuture<SgipPduRequest, SgipPduResponse> future : sendWindow.removeAll()) {
+			if (!future.isDone()) {
+				fail(future, cause, now);
+			}
+		}
+	}
+
+	/**
+	 * 以异常结束请求，调用方未同步等待时通知 {@link SgipSessionHandler#pduRequestFailed}
+	 */
+	private void fail(LocalWindowFuture<SgipPduRequest, SgipPduResponse> future, Throwable cause, long now) {
+		future.fail(cause, now);
+		SgipSessionHandler sessionHandler = this.sessionHandler;
+		if (!future.isCallerWaiting() && sessionHandler != null) {
+			sessionHandler.pduRequestFailed(future.getRequest(), cause);
+		}
+	}
+
+	private List<SgipPduRequest> doTakeUnacknowledgedRequests() {
+		moveSubmissions();
+		List<SgipPduRequest> requests = new ArrayList<>();
+		long                 now      = System.currentTimeMillis();
+		for (LocalWindowFuture<SgipPduRequest, SgipPduResponse> future : sendWindow.removeAll()) {
+			if (!future.isDone() && !future.isCallerWaiting()) {
+				future.cancel(now);
+				requests.add(future.getRequest());
+			}
+		}
+		return requests;
+	}
+
+	private SgipPduResponse sendRequestAndGetResponse(
+		SgipPduRequest request, long timeoutMillis
+	) throws RecoverablePduException, UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException {
+		if (eventLoop.inEventLoop()) {
+			throw new IllegalStateException("Synchronous request must not be sent from the I/O thread");
+		}
+		WindowFuture<Integer, SgipPduRequest, SgipPduResponse> future = sendRequestPdu(request, timeoutMillis, true);
+		if (!future.await(timeoutMillis)) {
+			future.cancel();
+			throw new SgipTimeoutException("Unable to get response within [" + timeoutMillis + " ms]");
+		}
+		if (future.isSuccess()) {
+			return future.getResponse();
+		}
+		Throwable cause = future.getCause();
+		if (cause instanceof ClosedChannelException) {
+			throw new SgipChannelException("Channel was closed after sending request, but before receiving response", cause);
+		} else if (cause instanceof OfferTimeoutException) {
+			throw new SgipTimeoutException(cause.getMessage(), cause);
+		} else if (cause != null) {
+			throw new UnrecoverablePduException(cause.getMessage(), cause);
+		} else {
+			throw new RecoverablePduException("Request was cancelled");
+		}
+	}
+
+	private static void awaitQuietly(CompletableFuture<Void> future, long timeoutMillis) {
+		try {
+			future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException exception) {
+			logger.warn("Unable to cleanly close channel: {}", exception.toString());
+		}
+	}
+}
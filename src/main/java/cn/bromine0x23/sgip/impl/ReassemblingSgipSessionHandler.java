@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.impl;
+
+import cn.bromine0x23.sgip.SgipAsyncPduResponse;
+import cn.bromine0x23.sgip.SgipSessionHandler;
+import cn.bromine0x23.sgip.SgipSessionListener;
+import cn.bromine0x23.sgip.exception.RecoverablePduException;
+import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.pdu.SgipDeliver;
+import cn.bromine0x23.sgip.pdu.SgipDeliverResp;
+import cn.bromine0x23.sgip.pdu.SgipPdu;
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import cn.bromine0x23.sgip.pdu.SgipPduResponse;
+import cn.bromine0x23.sgip.util.ConcatenatedDeliverReassembler;
+import lombok.Getter;
+
+/**
+ * 重组级联 Deliver 的会话处理器
+ * <p>
+ * 包装另一个会话处理器，级联 Deliver 的分段由本处理器直接应答，收齐后以合并后的一条 Deliver 交给被包装的处理器，
+ * 其返回的应答作为最后到达分段的应答。
+ * <p>
+ * 分段已被应答，未收齐即被淘汰的组不能再由 SMG 重发，默认将收到的各段原样交给被包装的处理器，其返回的应答被忽略。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see ConcatenatedDeliverReassembler
+ */
+@SuppressWarnings("unused")
+public class ReassemblingSgipSessionHandler implements SgipSessionListener {
+
+	private final SgipSessionHandler delegate;
+
+	@Getter
+	private final ConcatenatedDeliverReassembler reassembler;
+
+	public ReassemblingSgipSessionHandler(SgipSessionHandler delegate) {
+		this.delegate    = delegate;
+		this.reassembler = new ConcatenatedDeliverReassembler(
+			ConcatenatedDeliverReassembler.DEFAULT_TIMEOUT,
+			ConcatenatedDeliverReassembler.DEFAULT_MAX_GROUPS,
+			ConcatenatedDeliverReassembler.DEFAULT_MAX_BUFFERED_BYTES,
+			this::deliverEvicted
+		);
+	}
+
+	/**
+	 * @param delegate    被包装的处理器
+	 * @param reassembler 重组器，淘汰的分段交给其 {@link ConcatenatedDeliverReassembler.EvictionListener}
+	 */
+	public ReassemblingSgipSessionHandler(SgipSessionHandler delegate, ConcatenatedDeliverReassembler reassembler) {
+		this.delegate    = delegate;
+		this.reassembler = reassembler;
+	}
+
+	@Override
+	public void channelUnexpectedlyClosed() {
+		delegate.channelUnexpectedlyClosed();
+	}
+
+	@Override
+	public SgipPduResponse pduRequestReceived(SgipPduRequest request) {
+		if (request instanceof SgipDeliver) {
+			SgipDeliver deliver = reassembler.offer((SgipDeliver)request);
+			if (deliver == null) {
+				SgipDeliverResp response = ((SgipDeliver)request).createResponse();
+				response.setSourceNodeId(request.getSourceNodeId());
+				response.setTimestamp(request.getTimestamp());
+				response.setSequenceNumber(request.getSequenceNumber());
+				return response;
+			}
+			return delegate.pduRequestReceived(deliver);
+		}
+		return delegate.pduRequestReceived(request);
+	}
+
+	/**
+	 * 将被淘汰组中已收到的分段原样交给被包装的处理器
+	 *
+	 * @param fragments 按序号排列的分段，未收到的位置为 {@code null}
+	 */
+	public void deliverEvicted(SgipDeliver[] fragments) {
+		for (SgipDeliver fragment : fragments) {
+			if (fragment != null) {
+				delegate.pduRequestReceived(fragment);
+			}
+		}
+	}
+
+	@Override
+	public void pduRequestExpired(SgipPduRequest request) {
+		delegate.pduRequestExpired(request);
+	}
+
+	@Override
+	public void expectedPduResponseReceived(SgipAsyncPduResponse response) {
+		delegate.expectedPduResponseReceived(response);
+	}
+
+	@Override
+	public void unexpectedPduResponseReceived(SgipPduResponse response) {
+		delegate.unexpectedPduResponseReceived(response);
+	}
+
+	@Override
+	public void unrecoverablePduException(UnrecoverablePduException exception) {
+		delegate.unrecoverablePduException(exception);
+	}
+
+	@Override
+	public void recoverablePduException(RecoverablePduException exception) {
+		delegate.recoverablePduException(exception);
+	}
+
+	@Override
+	public void unknownThrowable(Throwable throwable) {
+		delegate.unknownThrowable(throwable);
+	}
+
+	@Override
+	public void pduRequestFailed(SgipPduRequest request, Throwable cause) {
+		delegate.pduRequestFailed(request, cause);
+	}
+
+	@Override
+	public void pduRequestResent(SgipPduRequest request) {
+		delegate.pduRequestResent(request);
+	}
+
+	@Override
+	public boolean pduReceived(SgipPdu pdu) {
+		return !(delegate instanceof SgipSessionListener) || ((SgipSessionListener)delegate).pduReceived(pdu);
+	}
+
+	@Override
+	public boolean pduDispatch(SgipPdu pdu) {
+		return !(delegate instanceof SgipSessionListener) || ((SgipSessionListener)delegate).pduDispatch(pdu);
+	}
+}
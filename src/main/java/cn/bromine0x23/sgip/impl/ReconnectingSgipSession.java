@@ -0,0 +1,482 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.impl;
+
+import cn.bromine0x23.sgip.SgipAsyncPduResponse;
+import cn.bromine0x23.sgip.SgipClient;
+import cn.bromine0x23.sgip.SgipSession;
+import cn.bromine0x23.sgip.SgipSessionConfiguration;
+import cn.bromine0x23.sgip.SgipSessionHandler;
+import cn.bromine0x23.sgip.SgipSessionListener;
+import cn.bromine0x23.sgip.exception.RecoverablePduException;
+import cn.bromine0x23.sgip.exception.SgipBindException;
+import cn.bromine0x23.sgip.exception.SgipChannelException;
+import cn.bromine0x23.sgip.exception.SgipTimeoutException;
+import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.metrics.SgipMetrics;
+import cn.bromine0x23.sgip.pdu.SgipPdu;
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import cn.bromine0x23.sgip.pdu.SgipPduResponse;
+import cn.bromine0x23.sgip.pdu.SgipSubmit;
+import cn.bromine0x23.sgip.pdu.SgipSubmitResp;
+import cn.bromine0x23.sgip.windowing.WindowFuture;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自动重连的会话
+ * <p>
+ * 包装由 {@link SgipClient} 建立的会话。连接意外断开时不通知会话处理器，而是按指数退避重新连接并绑定，
+ * 绑定成功后把旧会话中已发送、未收到响应且调用方未同步等待的请求清除序列号后在新会话上重新发送，
+ * 每个重新发送的请求通知 {@link SgipSessionHandler#pduRequestResent}，
+ * 其响应仍通过 {@link SgipSessionHandler#expectedPduResponseReceived} 交给会话处理器；重新发送失败的请求交给
+ * {@link SgipSessionHandler#pduRequestExpired}。同步等待的请求照常以异常结束。
+ * <p>
+ * 重连期间发送请求会等待重连完成，最长等待请求的超时时间。
+ * {@link #getMetrics()} 返回当前连接的会话指标，重连后重新计数。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class ReconnectingSgipSession implements SgipSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReconnectingSgipSession.class);
+
+	private final SgipClient client;
+
+	@Getter
+	private final SgipSessionConfiguration configuration;
+
+	@Getter
+	private final SgipSessionHandler sessionHandler;
+
+	private final ScheduledExecutorService executor;
+
+	private final Listener listener = new Listener();
+
+	private final Object lock = new Object();
+
+	/**
+	 * 等待在重连后重新发送的请求
+	 */
+	private final List<SgipPduRequest> pending = new ArrayList<>();
+
+	/**
+	 * 首次重连延迟（毫秒）
+	 */
+	@Getter
+	@Setter
+	private long reconnectDelay = 1000;
+
+	/**
+	 * 最长重连延迟（毫秒）
+	 */
+	@Getter
+	@Setter
+	private long maxReconnectDelay = 30000;
+
+	/**
+	 * 重新发送请求的窗口等待时间（毫秒）
+	 */
+	@Getter
+	@Setter
+	private long resendTimeout = 5000;
+
+	/**
+	 * 重连成功次数
+	 */
+	@Getter
+	private volatile int reconnects;
+
+	private volatile SgipSession session;
+
+	private volatile boolean closed;
+
+	private ScheduledFuture<?> reconnectFuture;
+
+	private long nextReconnectDelay;
+
+	/**
+	 * @param client         客户端
+	 * @param configuration  会话配置
+	 * @param sessionHandler 会话处理器
+	 * @param executor       执行重连的执行器，不可为 I/O 线程
+	 */
+	public ReconnectingSgipSession(
+		SgipClient client, SgipSessionConfiguration configuration, SgipSessionHandler sessionHandler, ScheduledExecutorService executor
+	) {
+		this.client         = client;
+		this.configuration  = configuration;
+		this.sessionHandler = sessionHandler;
+		this.executor       = executor;
+	}
+
+	/**
+	 * 首次连接并绑定，失败时直接抛出异常，不重试
+	 */
+	public void bind() throws SgipTimeoutException, SgipChannelException, SgipBindException, UnrecoverablePduException, InterruptedException {
+		SgipSession session = client.bind(configuration, listener);
+		synchronized (lock) {
+			this.session = session;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * @return 当前连接的会话，尚未绑定时为 {@code null}
+	 */
+	public SgipSession getSession() {
+		return session;
+	}
+
+	@Override
+	public boolean isOpen() {
+		SgipSession session = this.session;
+		return session != null && session.isOpen();
+	}
+
+	@Override
+	public boolean isBinding() {
+		SgipSession session = this.session;
+		return session != null && session.isBinding();
+	}
+
+	@Override
+	public boolean isBound() {
+		SgipSession session = this.session;
+		return session != null && session.isBound();
+	}
+
+	@Override
+	public boolean isDraining() {
+		SgipSession session = this.session;
+		return session != null && session.isDraining();
+	}
+
+	@Override
+	public boolean isUnbinding() {
+		SgipSession session = this.session;
+		return session != null && session.isUnbinding();
+	}
+
+	/**
+	 * @return 是否已被关闭，重连期间为 {@code false}
+	 */
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public SgipMetrics getMetrics() {
+		SgipSession session = this.session;
+		return session != null ? session.getMetrics() : null;
+	}
+
+	@Override
+	public SgipSubmitResp submit(
+		SgipSubmit request, long timeoutMillis
+	) throws RecoverablePduException, UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException {
+		return awaitBound(System.currentTimeMillis() + timeoutMillis, null).submit(request, timeoutMillis);
+	}
+
+	@Override
+	public void unbind(long timeoutMillis) {
+		SgipSession session = shutdown();
+		if (session != null) {
+			session.unbind(timeoutMillis);
+		}
+	}
+
+	/**
+	 * 停止重连后排空当前会话
+	 */
+	@Override
+	public CompletableFuture<Void> drain(long timeoutMillis) {
+		SgipSession session = shutdown();
+		return session != null ? session.drain(timeoutMillis) : CompletableFuture.completedFuture(null);
+	}
+
+	@Override
+	public CompletableFuture<Void> unbindAsync(long timeoutMillis) {
+		SgipSession session = shutdown();
+		return session != null ? session.unbindAsync(timeoutMillis) : CompletableFuture.completedFuture(null);
+	}
+
+	@Override
+	public CompletableFuture<Void> closeAsync() {
+		SgipSession session = shutdown();
+		return session != null ? session.closeAsync() : CompletableFuture.completedFuture(null);
+	}
+
+	@Override
+	public void close() {
+		SgipSession session = shutdown();
+		if (session != null) {
+			session.close();
+		}
+	}
+
+	@Override
+	public void close(long timeoutMillis) {
+		SgipSession session = shutdown();
+		if (session != null) {
+			session.close(timeoutMillis);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		SgipSession session = shutdown();
+		if (session != null) {
+			session.destroy();
+		}
+	}
+
+	@Override
+	public WindowFuture<Integer, SgipPduRequest, SgipPduResponse> sendRequestPdu(
+		SgipPduRequest request, long timeoutMillis, boolean synchronous
+	) throws RecoverablePduException, UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException {
+		long        deadline = System.currentTimeMillis() + timeoutMillis;
+		SgipSession failed   = null;
+		while (true) {
+			SgipSession session = awaitBound(deadline, failed);
+			try {
+				return session.sendRequestPdu(request, timeoutMillis, synchronous);
+			} catch (SgipChannelException exception) {
+				// 连接已断开但尚未触发重连，等待新会话后重试
+				if (closed || System.currentTimeMillis() >= deadline) {
+					throw exception;
+				}
+				request.clearTimestampAndSequenceNumber();
+				failed = session;
+			}
+		}
+	}
+
+	@Override
+	public void sendResponsePdu(
+		SgipPduResponse response
+	) throws RecoverablePduException, UnrecoverablePduException, SgipChannelException, InterruptedException {
+		SgipSession session = this.session;
+		if (session == null) {
+			throw new SgipChannelException("Session is not bound");
+		}
+		session.sendResponsePdu(response);
+	}
+
+	/**
+	 * 等待可用的已绑定会话
+	 *
+	 * @param deadline 截止时间（毫秒）
+	 * @param failed   已知不可用的会话，可为 {@code null}
+	 */
+	private SgipSession awaitBound(long deadline, SgipSession failed) throws SgipChannelException, InterruptedException {
+		SgipSession session = this.session;
+		if (session != null && session != failed && session.isBound()) {
+			return session;
+		}
+		synchronized (lock) {
+			while (!closed) {
+				session = this.session;
+				if (session != null && session != failed && session.isBound()) {
+					return session;
+				}
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new SgipChannelException("Session was not reconnected in time");
+				}
+				lock.wait(remaining);
+			}
+		}
+		throw new SgipChannelException("Session is closed");
+	}
+
+	private SgipSession shutdown() {
+		List<SgipPduRequest> requests;
+		SgipSession          session;
+		synchronized (lock) {
+			closed = true;
+			if (reconnectFuture != null) {
+				reconnectFuture.cancel(false);
+				reconnectFuture = null;
+			}
+			requests = new ArrayList<>(pending);
+			pending.clear();
+			session = this.session;
+			lock.notifyAll();
+		}
+		for (SgipPduRequest request : requests) {
+			sessionHandler.pduRequestExpired(request);
+		}
+		return session;
+	}
+
+	private void scheduleReconnect(long delay) {
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+			logger.info("Session [{}] reconnecting in {} ms", configuration.getName(), delay);
+			nextReconnectDelay = Math.min(delay * 2, maxReconnectDelay);
+			reconnectFuture    = executor.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void reconnect() {
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+		}
+		SgipSession previous = this.session;
+		if (previous instanceof BindableSgipSession) {
+			List<SgipPduRequest> requests;
+			try {
+				requests = ((BindableSgipSession)previous).takeUnacknowledgedRequests();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			boolean expired;
+			synchronized (lock) {
+				expired = closed;
+				if (!expired) {
+					pending.addAll(requests);
+				}
+			}
+			if (expired) {
+				// 取出期间会话已关闭，shutdown 不会再看到这些请求
+				for (SgipPduRequest request : requests) {
+					sessionHandler.pduRequestExpired(request);
+				}
+				return;
+			}
+		}
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+		}
+		SgipSession session;
+		try {
+			session = client.bind(configuration, listener);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (Exception exception) {
+			logger.warn("Session [{}] unable to reconnect: {}", configuration.getName(), exception.getMessage());
+			scheduleReconnect(nextReconnectDelay);
+			return;
+		}
+		List<SgipPduRequest> requests;
+		synchronized (lock) {
+			if (closed) {
+				session.close();
+				return;
+			}
+			this.session = session;
+			requests     = new ArrayList<>(pending);
+			pending.clear();
+			++reconnects;
+			lock.notifyAll();
+		}
+		if (previous != null) {
+			previous.destroy();
+		}
+		logger.info("Session [{}] reconnected, resending {} unacknowledged requests", configuration.getName(), requests.size());
+		for (SgipPduRequest request : requests) {
+			request.clearTimestampAndSequenceNumber();
+			try {
+				session.sendRequestPdu(request, resendTimeout, false);
+				sessionHandler.pduRequestResent(request);
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception exception) {
+				logger.warn("Session [{}] unable to resend request: {}", configuration.getName(), exception.getMessage());
+				sessionHandler.pduRequestExpired(request);
+			}
+		}
+	}
+
+	/**
+	 * 拦截连接断开事件，其余事件交给会话处理器
+	 */
+	private class Listener implements SgipSessionListener {
+
+		@Override
+		public void channelUnexpectedlyClosed() {
+			nextReconnectDelay = reconnectDelay;
+			scheduleReconnect(0);
+		}
+
+		@Override
+		public SgipPduResponse pduRequestReceived(SgipPduRequest request) {
+			return sessionHandler.pduRequestReceived(request);
+		}
+
+		@Override
+		public void pduRequestExpired(SgipPduRequest request) {
+			sessionHandler.pduRequestExpired(request);
+		}
+
+		@Override
+		public void expectedPduResponseReceived(SgipAsyncPduResponse response) {
+			sessionHandler.expectedPduResponseReceived(response);
+		}
+
+		@Override
+		public void unexpectedPduResponseReceived(SgipPduResponse response) {
+			sessionHandler.unexpectedPduResponseReceived(response);
+		}
+
+		@Override
+		public void unrecoverablePduException(UnrecoverablePduException exception) {
+			sessionHandler.unrecoverablePduException(exception);
+		}
+
+		@Override
+		public void recoverablePduException(RecoverablePduException exception) {
+			sessionHandler.recoverablePduException(exception);
+		}
+
+		@Override
+		public void unknownThrowable(Throwable throwable) {
+			sessionHandler.unknownThrowable(throwable);
+		}
+
+		@Override
+		public void pduRequestFailed(SgipPduRequest request, Throwable cause) {
+			sessionHandler.pduRequestFailed(request, cause);
+		}
+
+		@Override
+		public void pduRequestResent(SgipPduRequest request) {
+			sessionHandler.pduRequestResent(request);
+		}
+
+		@Override
+		public boolean pduReceived(SgipPdu pdu) {
+			return !(sessionHandler instanceof SgipSessionListener) || ((SgipSessionListener)sessionHandler).pduReceived(pdu);
+		}
+
+		@Override
+		public boolean pduDispatch(SgipPdu pdu) {
+			return !(sessionHandler instanceof SgipSessionListener) || ((SgipSessionListener)sessionHandler).pduDispatch(pdu);
+		}
+	}
+}
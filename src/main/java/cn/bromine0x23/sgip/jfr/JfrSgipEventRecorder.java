@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * 基于 Java Flight Recorder 的事件记录器
+ * <p>
+ * 事件未启用时不创建事件对象
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+class JfrSgipEventRecorder implements SgipEventRecorder {
+
+	private final EventType sendType = EventType.getEventType(SgipSendEvent.class);
+
+	private final EventType receiveType = EventType.getEventType(SgipReceiveEvent.class);
+
+	private final EventType windowOfferType = EventType.getEventType(SgipWindowOfferEvent.class);
+
+	private final EventType windowExpiredType = EventType.getEventType(SgipWindowExpiredEvent.class);
+
+	@Override
+	public Object beginSend() {
+		if (!sendType.isEnabled()) {
+			return null;
+		}
+		SgipSendEvent event = new SgipSendEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endSend(Object event, String session, int commandId, int sequenceNumber) {
+		if (event == null) {
+			return;
+		}
+		SgipSendEvent sendEvent = (SgipSendEvent)event;
+		sendEvent.end();
+		if (sendEvent.shouldCommit()) {
+			sendEvent.session        = session;
+			sendEvent.commandId      = commandId;
+			sendEvent.sequenceNumber = sequenceNumber;
+			sendEvent.commit();
+		}
+	}
+
+	@Override
+	public Object beginReceive() {
+		if (!receiveType.isEnabled()) {
+			return null;
+		}
+		SgipReceiveEvent event = new SgipReceiveEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endReceive(Object event, String session, int commandId, int sequenceNumber) {
+		if (event == null) {
+			return;
+		}
+		SgipReceiveEvent receiveEvent = (SgipReceiveEvent)event;
+		receiveEvent.end();
+		if (receiveEvent.shouldCommit()) {
+			receiveEvent.session        = session;
+			receiveEvent.commandId      = commandId;
+			receiveEvent.sequenceNumber = sequenceNumber;
+			receiveEvent.commit();
+		}
+	}
+
+	@Override
+	public Object beginWindowOffer() {
+		if (!windowOfferType.isEnabled()) {
+			return null;
+		}
+		SgipWindowOfferEvent event = new SgipWindowOfferEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endWindowOffer(Object event, String session, int commandId, int sequenceNumber, int windowSize) {
+		if (event == null) {
+			return;
+		}
+		SgipWindowOfferEvent offerEvent = (SgipWindowOfferEvent)event;
+		offerEvent.end();
+		if (offerEvent.shouldCommit()) {
+			offerEvent.session        = session;
+			offerEvent.commandId      = commandId;
+			offerEvent.sequenceNumber = sequenceNumber;
+			offerEvent.windowSize     = windowSize;
+			offerEvent.commit();
+		}
+	}
+
+	@Override
+	public void windowExpired(String session, int commandId, int sequenceNumber, long age) {
+		if (!windowExpiredType.isEnabled()) {
+			return;
+		}
+		SgipWindowExpiredEvent event = new SgipWindowExpiredEvent();
+		if (event.shouldCommit()) {
+			event.session        = session;
+			event.commandId      = commandId;
+			event.sequenceNumber = sequenceNumber;
+			event.age            = age;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.jfr;
+
+/**
+ * SGIP 事件记录器
+ * <p>
+ * {@code begin*} 方法在事件未启用时返回 {@code null}，对应的 {@code end*} 方法此时不做任何事
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see SgipEventRecorders#getDefault()
+ */
+public interface SgipEventRecorder {
+
+	Object beginSend();
+
+	void endSend(Object event, String session, int commandId, int sequenceNumber);
+
+	Object beginReceive();
+
+	void endReceive(Object event, String session, int commandId, int sequenceNumber);
+
+	Object beginWindowOffer();
+
+	void endWindowOffer(Object event, String session, int commandId, int sequenceNumber, int windowSize);
+
+	void windowExpired(String session, int commandId, int sequenceNumber, long age);
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SGIP 事件记录器工厂
+ * <p>
+ * 运行时存在 {@code jdk.jfr} 时使用 Java Flight Recorder 记录事件，否则（如旧版 JDK 8）使用空实现
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+public class SgipEventRecorders {
+
+	private static final Logger logger = LoggerFactory.getLogger(SgipEventRecorders.class);
+
+	private static final SgipEventRecorder NOOP = new NoopSgipEventRecorder();
+
+	private static final SgipEventRecorder DEFAULT = create();
+
+	private SgipEventRecorders() {
+	}
+
+	/**
+	 * @return 可用时为 JFR 记录器，否则为空实现
+	 */
+	public static SgipEventRecorder getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @return 空实现
+	 */
+	public static SgipEventRecorder noop() {
+		return NOOP;
+	}
+
+	private static SgipEventRecorder create() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			// 经由反射加载，避免在没有 jdk.jfr 的运行时解析事件类
+			return (SgipEventRecorder)Class.forName("cn.bromine0x23.sgip.jfr.JfrSgipEventRecorder").newInstance();
+		} catch (Throwable throwable) {
+			logger.debug("Java Flight Recorder not available, SGIP events disabled: {}", throwable.toString());
+			return NOOP;
+		}
+	}
+
+	private static class NoopSgipEventRecorder implements SgipEventRecorder {
+
+		@Override
+		public Object beginSend() {
+			return null;
+		}
+
+		@Override
+		public void endSend(Object event, String session, int commandId, int sequenceNumber) {
+		}
+
+		@Override
+		public Object beginReceive() {
+			return null;
+		}
+
+		@Override
+		public void endReceive(Object event, String session, int commandId, int sequenceNumber) {
+		}
+
+		@Override
+		public Object beginWindowOffer() {
+			return null;
+		}
+
+		@Override
+		public void endWindowOffer(Object event, String session, int commandId, int sequenceNumber, int windowSize) {
+		}
+
+		@Override
+		public void windowExpired(String session, int commandId, int sequenceNumber, long age) {
+		}
+	}
+}
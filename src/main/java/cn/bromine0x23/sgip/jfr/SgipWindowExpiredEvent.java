@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR 事件：发送窗口过期
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@Name("cn.bromine0x23.sgip.WindowExpired")
+@Label("SGIP Window Expired")
+@Category("SGIP")
+@Description("Request expired in the send window")
+public class SgipWindowExpiredEvent extends Event {
+
+	@Label("Session")
+	String session;
+
+	@Label("Command Id")
+	int commandId;
+
+	@Label("Sequence Number")
+	int sequenceNumber;
+
+	@Label("Age")
+	@Description("Time since the request was accepted into the window")
+	@Timespan(Timespan.MILLISECONDS)
+	long age;
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR 事件：发送窗口等待
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@Name("cn.bromine0x23.sgip.WindowOffer")
+@Label("SGIP Window Offer")
+@Category("SGIP")
+@Description("Wait for a slot in the send window")
+public class SgipWindowOfferEvent extends Event {
+
+	@Label("Session")
+	String session;
+
+	@Label("Command Id")
+	int commandId;
+
+	@Label("Sequence Number")
+	int sequenceNumber;
+
+	@Label("Window Size")
+	int windowSize;
+}
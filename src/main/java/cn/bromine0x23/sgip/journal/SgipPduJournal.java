@@ -0,0 +1,337 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.journal;
+
+import io.netty.buffer.ByteBuf;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * PDU 二进制审计日志
+ * <p>
+ * 发送与接收线程只把编码后的 PDU 字节复制进无锁环形缓冲（多生产者、单消费者），不构造字符串，也不阻塞；
+ * 缓冲已满时丢弃该条记录并计数。后台线程将记录追加到按大小滚动的内存映射文件，
+ * 文件可用 {@link SgipPduJournalReader} 离线解码。
+ * <p>
+ * 文件格式：文件头为 {@link #MAGIC}（4 Byte）与 {@link #VERSION}（4 Byte），
+ * 之后每条记录为长度（4 Byte，含时间戳与方向）、时间戳（8 Byte，毫秒）、方向（1 Byte）、PDU 字节，长度为 0 表示文件结束。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipPduJournal implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(SgipPduJournal.class);
+
+	public static final byte OUTBOUND = 0;
+
+	public static final byte INBOUND = 1;
+
+	public static final int MAGIC = 0x53474A4C; // "SGJL"
+
+	public static final int VERSION = 1;
+
+	public static final String FILE_SUFFIX = ".sgipj";
+
+	public static final int DEFAULT_BUFFER_CAPACITY = 4 * 1024 * 1024;
+
+	public static final long DEFAULT_FILE_SIZE = 64 * 1024 * 1024;
+
+	static final int FILE_HEADER_LENGTH = 8;
+
+	/**
+	 * 时间戳（8 Byte）与方向（1 Byte）
+	 */
+	static final int RECORD_META_LENGTH = 9;
+
+	private static final int ALIGNMENT = 8;
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final Path directory;
+
+	private final String name;
+
+	private final long fileSize;
+
+	private final byte[] buffer;
+
+	/**
+	 * 每 {@value #ALIGNMENT} 字节一个记录头：正数为已发布记录的长度，负数为回绕填充的长度，0 为空闲或尚未发布
+	 */
+	private final AtomicIntegerArray headers;
+
+	private final int mask;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private volatile long head;
+
+	/**
+	 * 因缓冲已满而丢弃的记录数
+	 */
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * 已写入文件的记录数
+	 */
+	@Getter
+	private volatile long written;
+
+	private final Thread writerThread;
+
+	private volatile boolean running = true;
+
+	private int fileIndex;
+
+	private FileChannel fileChannel;
+
+	private MappedByteBuffer mapped;
+
+	/**
+	 * @param directory 日志目录
+	 * @param name      日志名称，文件名为 {@code <name>-<序号>.sgipj}
+	 * @throws IOException 无法创建日志文件
+	 */
+	public SgipPduJournal(Path directory, String name) throws IOException {
+		this(directory, name, DEFAULT_BUFFER_CAPACITY, DEFAULT_FILE_SIZE);
+	}
+
+	/**
+	 * @param directory      日志目录
+	 * @param name           日志名称，文件名为 {@code <name>-<序号>.sgipj}
+	 * @param bufferCapacity 环形缓冲容量（字节），向上取整为 2 的幂
+	 * @param fileSize       单个文件大小（字节）
+	 * @throws IOException 无法创建日志文件
+	 */
+	public SgipPduJournal(Path directory, String name, int bufferCapacity, long fileSize) throws IOException {
+		if (bufferCapacity < 4096 || bufferCapacity > (1 << 30)) {
+			throw new IllegalArgumentException("bufferCapacity must between 4096 and 2^30");
+		}
+		if (fileSize < 64 * 1024 || fileSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("fileSize must between 64KiB and 2GiB");
+		}
+		int capacity = Integer.highestOneBit(bufferCapacity);
+		if (capacity < bufferCapacity) {
+			capacity <<= 1;
+		}
+		this.directory = directory;
+		this.name      = name;
+		this.fileSize  = fileSize;
+		this.buffer    = new byte[capacity];
+		this.headers   = new AtomicIntegerArray(capacity / ALIGNMENT);
+		this.mask      = capacity - 1;
+		Files.createDirectories(directory);
+		this.fileIndex = lastFileIndex();
+		roll();
+		this.writerThread = new Thread(this::writeLoop, "SgipPduJournal-" + name);
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * 记录一条 PDU，不改变 {@code pdu} 的读写下标；缓冲已满时丢弃
+	 *
+	 * @param direction {@link #INBOUND} 或 {@link #OUTBOUND}
+	 * @param pdu       编码后的 PDU
+	 * @return 是否成功写入缓冲
+	 */
+	public boolean append(byte direction, ByteBuf pdu) {
+		int length = pdu.readableBytes();
+		int index  = claim(RECORD_META_LENGTH + length);
+		if (index < 0) {
+			dropped.incrementAndGet();
+			return false;
+		}
+		long timestamp = System.currentTimeMillis();
+		for (int i = 0; i < 8; ++i) {
+			buffer[index + i] = (byte)(timestamp >>> (56 - i * 8));
+		}
+		buffer[index + 8] = direction;
+		pdu.getBytes(pdu.readerIndex(), buffer, index + RECORD_META_LENGTH, length);
+		headers.lazySet(index / ALIGNMENT, RECORD_META_LENGTH + length);
+		return true;
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * 停止后台线程，写出缓冲中的剩余记录并关闭文件
+	 */
+	@Override
+	public void close() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(writerThread);
+		try {
+			writerThread.join();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 申请缓冲空间，放不下时在缓冲末尾留下填充并回绕到开头
+	 *
+	 * @return 记录起始下标，缓冲已满时返回 -1
+	 */
+	private int claim(int length) {
+		int span = align(length);
+		if (span > buffer.length / 2) {
+			return -1;
+		}
+		long position;
+		int  index;
+		int  padding;
+		do {
+			position = tail.get();
+			index    = (int)(position & mask);
+			padding  = buffer.length - index < span ? buffer.length - index : 0;
+			if (position + padding + span - head > buffer.length) {
+				return -1;
+			}
+		} while (!tail.compareAndSet(position, position + padding + span));
+		if (padding > 0) {
+			headers.lazySet(index / ALIGNMENT, -padding);
+			index = 0;
+		}
+		return index;
+	}
+
+	private void writeLoop() {
+		while (true) {
+			boolean stopping = !running;
+			int     drained  = drain();
+			if (drained == 0) {
+				if (stopping) {
+					break;
+				}
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+		}
+		closeFile();
+	}
+
+	private int drain() {
+		int  count    = 0;
+		long position = head;
+		while (true) {
+			int index  = (int)(position & mask);
+			int header = headers.get(index / ALIGNMENT);
+			if (header == 0) {
+				break;
+			}
+			headers.lazySet(index / ALIGNMENT, 0);
+			if (header < 0) {
+				position += -header;
+			} else {
+				writeRecord(index, header);
+				position += align(header);
+				++count;
+			}
+			head = position;
+		}
+		if (count > 0) {
+			written += count;
+		}
+		return count;
+	}
+
+	private void writeRecord(int index, int length) {
+		try {
+			if (mapped.remaining() < 4 + length + 4) {
+				if (FILE_HEADER_LENGTH + 4 + length + 4 > fileSize) {
+					logger.warn("PDU of {} bytes is too large for journal file, dropped", length - RECORD_META_LENGTH);
+					dropped.incrementAndGet();
+					return;
+				}
+				roll();
+			}
+			mapped.putInt(length);
+			mapped.put(buffer, index, length);
+		} catch (IOException exception) {
+			logger.error("Unable to write PDU journal, record dropped", exception);
+			dropped.incrementAndGet();
+		}
+	}
+
+	private void roll() throws IOException {
+		closeFile();
+		++fileIndex;
+		Path file = directory.resolve(fileName(name, fileIndex));
+		fileChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		mapped = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+		mapped.putInt(MAGIC);
+		mapped.putInt(VERSION);
+	}
+
+	private void closeFile() {
+		if (fileChannel == null) {
+			return;
+		}
+		try {
+			int end = mapped.position();
+			if (mapped.remaining() >= 4) {
+				mapped.putInt(0);
+			}
+			mapped.force();
+			mapped = null;
+			// 映射在回收前仍有效，截断失败时保留结束标记即可
+			try {
+				fileChannel.truncate(end + 4L);
+			} catch (IOException ignored) {
+				// ignored
+			}
+			fileChannel.close();
+		} catch (IOException exception) {
+			logger.warn("Unable to cleanly close PDU journal file", exception);
+		}
+		fileChannel = null;
+	}
+
+	private int lastFileIndex() throws IOException {
+		int last = 0;
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, name + "-*" + FILE_SUFFIX)) {
+			for (Path path : stream) {
+				String fileName = path.getFileName().toString();
+				String index    = fileName.substring(name.length() + 1, fileName.length() - FILE_SUFFIX.length());
+				try {
+					last = Math.max(last, Integer.parseInt(index));
+				} catch (NumberFormatException ignored) {
+					// ignored
+				}
+			}
+		}
+		return last;
+	}
+
+	static String fileName(String name, int index) {
+		return String.format("%s-%06d%s", name, index, FILE_SUFFIX);
+	}
+
+	private static int align(int length) {
+		return (length + ALIGNMENT - 1) & -ALIGNMENT;
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.journal;
+
+import cn.bromine0x23.sgip.pdu.SgipPdu;
+import cn.bromine0x23.sgip.util.SgipPduCodec;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.BufferedInputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link SgipPduJournal} 文件离线解码工具
+ * <p>
+ * 命令行用法：{@code java cn.bromine0x23.sgip.journal.SgipPduJournalReader <文件或目录>...}，
+ * 目录按文件名顺序读取其中所有日志文件
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipPduJournalReader {
+
+	/**
+	 * 记录处理器
+	 */
+	public interface RecordHandler {
+
+		/**
+		 * @param timestamp 时间戳（毫秒）
+		 * @param direction {@link SgipPduJournal#INBOUND} 或 {@link SgipPduJournal#OUTBOUND}
+		 * @param pdu       编码后的 PDU
+		 */
+		void record(long timestamp, byte direction, byte[] pdu) throws IOException;
+	}
+
+	private SgipPduJournalReader() {
+	}
+
+	/**
+	 * 读取一个日志文件
+	 *
+	 * @param file    日志文件
+	 * @param handler 记录处理器
+	 * @return 记录数
+	 * @throws IOException 文件格式错误或读取失败
+	 */
+	public static long read(Path file, RecordHandler handler) throws IOException {
+		long count = 0;
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (input.readInt() != SgipPduJournal.MAGIC) {
+				throw new IOException("Not a PDU journal file: " + file);
+			}
+			int version = input.readInt();
+			if (version != SgipPduJournal.VERSION) {
+				throw new IOException("Unsupported PDU journal version " + version + ": " + file);
+			}
+			while (true) {
+				int length;
+				try {
+					length = input.readInt();
+				} catch (EOFException exception) {
+					break;
+				}
+				if (length == 0) {
+					break;
+				}
+				if (length < SgipPduJournal.RECORD_META_LENGTH) {
+					throw new IOException("Corrupted PDU journal record in " + file);
+				}
+				long   timestamp = input.readLong();
+				byte   direction = input.readByte();
+				byte[] pdu       = new byte[length - SgipPduJournal.RECORD_META_LENGTH];
+				input.readFully(pdu);
+				handler.record(timestamp, direction, pdu);
+				++count;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 列出目录中的日志文件，按文件名排序
+	 *
+	 * @param directory 目录
+	 * @return 日志文件
+	 * @throws IOException 读取目录失败
+	 */
+	public static List<Path> list(Path directory) throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SgipPduJournal.FILE_SUFFIX)) {
+			for (Path path : stream) {
+				files.add(path);
+			}
+		}
+		Collections.sort(files);
+		return files;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: SgipPduJournalReader <file or directory>...");
+			System.exit(1);
+		}
+		final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+		RecordHandler handler = (timestamp, direction, pdu) -> {
+			StringBuilder builder = new StringBuilder();
+			builder.append(format.format(new Date(timestamp)));
+			builder.append(direction == SgipPduJournal.INBOUND ? " <= " : " => ");
+			try {
+				SgipPdu decoded = SgipPduCodec.decode(Unpooled.wrappedBuffer(pdu));
+				builder.append(decoded);
+			} catch (Exception exception) {
+				builder.append("undecodable PDU (").append(exception.getMessage()).append("): ");
+				builder.append(ByteBufUtil.hexDump(pdu));
+			}
+			System.out.println(builder);
+		};
+		for (String arg : args) {
+			Path path = Paths.get(arg);
+			if (Files.isDirectory(path)) {
+				for (Path file : list(path)) {
+					read(file, handler);
+				}
+			} else {
+				read(path, handler);
+			}
+		}
+	}
+}
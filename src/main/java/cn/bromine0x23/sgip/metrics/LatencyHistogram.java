@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图
+ * <p>
+ * 与 HdrHistogram 相同的对数-线性分桶：小于 {@value #SUB_BUCKET_COUNT} 的值各占一桶，
+ * 其余每个 2 的幂区间再均分为 {@value #SUB_BUCKET_COUNT} 桶，相对误差不超过 1/{@value #SUB_BUCKET_COUNT}。
+ * 记录只做数次原子加法，不分配对象；快照不加锁，与并发记录之间仅保证各桶自身一致。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+
+	public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong sum = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * 记录一个值，负值按 0 记录
+	 *
+	 * @param value 值
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts.incrementAndGet(indexOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getSum() {
+		return sum.get();
+	}
+
+	/**
+	 * @return 快照
+	 */
+	public Snapshot snapshot() {
+		long[] snapshot = new long[BUCKET_COUNT];
+		long   total    = 0;
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		return new Snapshot(snapshot, total, sum.get(), max.get());
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int)value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift    = exponent - SUB_BUCKET_BITS;
+		return SUB_BUCKET_COUNT + (shift << SUB_BUCKET_BITS) + (int)((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+	}
+
+	/**
+	 * @return 第 {@code index} 个桶的上界（含）
+	 */
+	static long highestValueOf(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int  shift  = (index - SUB_BUCKET_COUNT) >>> SUB_BUCKET_BITS;
+		long lowest = (1L << (shift + SUB_BUCKET_BITS)) | ((long)(index & (SUB_BUCKET_COUNT - 1)) << shift);
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * 直方图快照
+	 */
+	public static class Snapshot {
+
+		private final long[] counts;
+
+		/**
+		 * 记录次数
+		 */
+		@Getter
+		private final long count;
+
+		/**
+		 * 记录值之和
+		 */
+		@Getter
+		private final long sum;
+
+		/**
+		 * 最大值
+		 */
+		@Getter
+		private final long max;
+
+		Snapshot(long[] counts, long count, long sum, long max) {
+			this.counts = counts;
+			this.count  = count;
+			this.sum    = sum;
+			this.max    = max;
+		}
+
+		public double getMean() {
+			return count == 0 ? 0 : (double)sum / count;
+		}
+
+		/**
+		 * 计算分位数
+		 *
+		 * @param quantile 分位，取值 0 至 1
+		 * @return 分位值（所在桶的上界，不超过最大值）
+		 */
+		public long getValueAtQuantile(double quantile) {
+			if (count == 0) {
+				return 0;
+			}
+			long rank       = Math.max(1, (long)Math.ceil(quantile * count));
+			long cumulative = 0;
+			for (int i = 0; i < counts.length; ++i) {
+				cumulative += counts[i];
+				if (cumulative >= rank) {
+					return Math.min(highestValueOf(i), max);
+				}
+			}
+			return max;
+		}
+
+		/**
+		 * 统计不超过指定值的记录次数
+		 *
+		 * @param value 值
+		 * @return 记录次数（按桶上界统计）
+		 */
+		public long getCountAtOrBelow(long value) {
+			long cumulative = 0;
+			for (int i = 0; i < counts.length && highestValueOf(i) <= value; ++i) {
+				cumulative += counts[i];
+			}
+			return cumulative;
+		}
+	}
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.metrics;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import cn.bromine0x23.sgip.util.HexUtil;
+import cn.bromine0x23.sgip.windowing.WindowStatus;
+import lombok.Getter;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SGIP 会话指标
+ * <p>
+ * 按命令 ID 计数（去掉响应标志位后 0x00-0xFF 各占一项，Trace 0x1000 单独一项，见 {@link #indexOf}），按错误码计数响应结果，
+ * 以 {@link LatencyHistogram} 记录发送窗口等待时间（offer 至 accept）与响应时间（accept 至完成）。
+ * 记录方法只做原子加法，不加锁、不分配对象；读取通过 {@link #snapshot()} 或 JMX。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipMetrics implements SgipMetricsMXBean {
+
+	public static final String JMX_DOMAIN = "cn.bromine0x23.sgip";
+
+	/**
+	 * 错误码计数数组长度
+	 */
+	private static final int COUNTERS_SIZE = 0x100;
+
+	/**
+	 * Trace 在命令计数数组中的下标
+	 */
+	private static final int TRACE_INDEX = 0x100;
+
+	/**
+	 * 命令计数数组长度
+	 */
+	static final int COMMAND_COUNTERS_SIZE = TRACE_INDEX + 1;
+
+	/**
+	 * 会话名称
+	 */
+	@Getter
+	private final String name;
+
+	/**
+	 * 会话实例标识，区分同名的多个会话（如连接池成员、重连前后的会话）
+	 */
+	@Getter
+	private final String instance;
+
+	private final AtomicLongArray requestsSent = new AtomicLongArray(COMMAND_COUNTERS_SIZE);
+
+	private final AtomicLongArray requestsReceived = new AtomicLongArray(COMMAND_COUNTERS_SIZE);
+
+	private final AtomicLongArray responsesSent = new AtomicLongArray(COMMAND_COUNTERS_SIZE);
+
+	private final AtomicLongArray responsesReceived = new AtomicLongArray(COMMAND_COUNTERS_SIZE);
+
+	private final AtomicLongArray responseResults = new AtomicLongArray(COUNTERS_SIZE);
+
+	private final AtomicLong requestsExpired = new AtomicLong();
+
+	@Getter
+	private final LatencyHistogram windowWaitTime = new LatencyHistogram();
+
+	@Getter
+	private final LatencyHistogram responseTime = new LatencyHistogram();
+
+	private volatile WindowStatus window;
+
+	private ObjectName objectName;
+
+	/**
+	 * @param name 会话名称，实例标识取对象标识哈希
+	 */
+	public SgipMetrics(String name) {
+		this.name     = name;
+		this.instance = Integer.toHexString(System.identityHashCode(this));
+	}
+
+	/**
+	 * @param name     会话名称
+	 * @param instance 会话实例标识，如 Channel ID
+	 */
+	public SgipMetrics(String name, String instance) {
+		this.name     = name;
+		this.instance = instance;
+	}
+
+	/**
+	 * 关联发送窗口，用于读取窗口占用与等待中的 offer 数
+	 *
+	 * @param window 发送窗口
+	 */
+	public void bindWindow(WindowStatus window) {
+		this.window = window;
+	}
+
+	/**
+	 * 命令 ID 对应的计数下标，请求与响应相同
+	 *
+	 * @param commandId 命令 ID
+	 * @return 下标，不是 SGIP 定义的命令时为 -1
+	 */
+	public static int indexOf(int commandId) {
+		int id = commandId & ~SgipConstants.PDU_CMD_ID_RESP_MASK;
+		if (id < 0x100) {
+			return id;
+		}
+		return id == SgipConstants.CommandId.TRACE ? TRACE_INDEX : -1;
+	}
+
+	/**
+	 * @param index 计数下标
+	 * @return 下标对应的请求命令 ID
+	 * @see #indexOf(int)
+	 */
+	public static int commandIdOf(int index) {
+		return index == TRACE_INDEX ? SgipConstants.CommandId.TRACE : index;
+	}
+
+	public void requestSent(int commandId) {
+		increment(requestsSent, commandId);
+	}
+
+	public void requestReceived(int commandId) {
+		increment(requestsReceived, commandId);
+	}
+
+	public void responseSent(int commandId) {
+		increment(responsesSent, commandId);
+	}
+
+	public void responseReceived(int commandId) {
+		increment(responsesReceived, commandId);
+	}
+
+	public void responseResult(byte result) {
+		responseResults.incrementAndGet(result & 0xFF);
+	}
+
+	public void requestExpired() {
+		requestsExpired.incrementAndGet();
+	}
+
+	/**
+	 * 记录一次请求的窗口等待时间与响应时间
+	 *
+	 * @param windowWaitTime offer 至 accept 的时间（毫秒）
+	 * @param responseTime   accept 至完成的时间（毫秒）
+	 */
+	public void requestCompleted(long windowWaitTime, long responseTime) {
+		this.windowWaitTime.record(windowWaitTime);
+		this.responseTime.record(responseTime);
+	}
+
+	/**
+	 * @return 指标快照
+	 */
+	public SgipMetricsSnapshot snapshot() {
+		return new SgipMetricsSnapshot(
+			name,
+			instance,
+			System.currentTimeMillis(),
+			copy(requestsSent),
+			copy(requestsReceived),
+			copy(responsesSent),
+			copy(responsesReceived),
+			copy(responseResults),
+			requestsExpired.get(),
+			getWindowSize(),
+			getWindowMaxSize(),
+			getWindowPendingOffers(),
+			windowWaitTime.snapshot(),
+			responseTime.snapshot()
+		);
+	}
+
+	/**
+	 * 注册到平台 MBeanServer，名称为 {@code cn.bromine0x23.sgip:type=SgipSession,name=<会话名称>,instance=<实例标识>}
+	 *
+	 * @throws JMException 注册失败，如同名 MBean 已存在
+	 */
+	public synchronized void registerMBean() throws JMException {
+		if (objectName != null) {
+			return;
+		}
+		ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=SgipSession,name=" + ObjectName.quote(String.valueOf(name))
+			+ ",instance=" + ObjectName.quote(String.valueOf(instance)));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		this.objectName = objectName;
+	}
+
+	/**
+	 * 从平台 MBeanServer 注销
+	 */
+	public synchronized void unregisterMBean() {
+		if (objectName == null) {
+			return;
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+		} catch (JMException ignored) {
+			// ignored
+		}
+		objectName = null;
+	}
+
+	@Override
+	public Map<String, Long> getRequestsSent() {
+		return toCommandMap(requestsSent, false);
+	}
+
+	@Override
+	public Map<String, Long> getRequestsReceived() {
+		return toCommandMap(requestsReceived, false);
+	}
+
+	@Override
+	public Map<String, Long> getResponsesSent() {
+		return toCommandMap(responsesSent, true);
+	}
+
+	@Override
+	public Map<String, Long> getResponsesReceived() {
+		return toCommandMap(responsesReceived, true);
+	}
+
+	@Override
+	public Map<String, Long> getResponseResults() {
+		Map<String, Long> map = new LinkedHashMap<>();
+		for (int i = 0; i < COUNTERS_SIZE; ++i) {
+			long value = responseResults.get(i);
+			if (value != 0) {
+				map.put("0x" + HexUtil.toHexString((byte)i), value);
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * @return 结果非 0 的响应数
+	 */
+	public long getResponseErrorCount() {
+		long count = 0;
+		for (int i = 1; i < COUNTERS_SIZE; ++i) {
+			count += responseResults.get(i);
+		}
+		return count;
+	}
+
+	@Override
+	public long getRequestsExpired() {
+		return requestsExpired.get();
+	}
+
+	@Override
+	public int getWindowSize() {
+		WindowStatus window = this.window;
+		return window != null ? window.getSize() : 0;
+	}
+
+	@Override
+	public int getWindowMaxSize() {
+		WindowStatus window = this.window;
+		return window != null ? window.getMaxSize() : 0;
+	}
+
+	@Override
+	public int getWindowPendingOffers() {
+		WindowStatus window = this.window;
+		return window != null ? window.getPendingOfferCount() : 0;
+	}
+
+	@Override
+	public long getWindowWaitTimeCount() {
+		return windowWaitTime.getCount();
+	}
+
+	@Override
+	public double getWindowWaitTimeMean() {
+		return windowWaitTime.snapshot().getMean();
+	}
+
+	@Override
+	public long getWindowWaitTimeP50() {
+		return windowWaitTime.snapshot().getValueAtQuantile(0.5);
+	}
+
+	@Override
+	public long getWindowWaitTimeP99() {
+		return windowWaitTime.snapshot().getValueAtQuantile(0.99);
+	}
+
+	@Override
+	public long getWindowWaitTimeMax() {
+		return windowWaitTime.snapshot().getMax();
+	}
+
+	@Override
+	public long getResponseTimeCount() {
+		return responseTime.getCount();
+	}
+
+	@Override
+	public double getResponseTimeMean() {
+		return responseTime.snapshot().getMean();
+	}
+
+	@Override
+	public long getResponseTimeP50() {
+		return responseTime.snapshot().getValueAtQuantile(0.5);
+	}
+
+	@Override
+	public long getResponseTimeP99() {
+		return responseTime.snapshot().getValueAtQuantile(0.99);
+	}
+
+	@Override
+	public long getResponseTimeMax() {
+		return responseTime.snapshot().getMax();
+	}
+
+	private static void increment(AtomicLongArray counters, int commandId) {
+		int index = indexOf(commandId);
+		if (index >= 0) {
+			counters.incrementAndGet(index);
+		}
+	}
+
+	private static long[] copy(AtomicLongArray array) {
+		long[] copy = new long[array.length()];
+		for (int i = 0; i < copy.length; ++i) {
+			copy[i] = array.get(i);
+		}
+		return copy;
+	}
+
+	private static Map<String, Long> toCommandMap(AtomicLongArray counters, boolean response) {
+		Map<String, Long> map = new LinkedHashMap<>();
+		for (int i = 0; i < COMMAND_COUNTERS_SIZE; ++i) {
+			long value = counters.get(i);
+			if (value != 0) {
+				int commandId = commandIdOf(i);
+				map.put("0x" + HexUtil.toHexString(response ? commandId | SgipConstants.PDU_CMD_ID_RESP_MASK : commandId), value);
+			}
+		}
+		return map;
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.metrics;
+
+import java.util.Map;
+
+/**
+ * SGIP 会话指标 JMX 接口
+ * <p>
+ * 计数按命令 ID（16 进制）或错误码（16 进制）为键，延迟单位为毫秒
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings("unused")
+public interface SgipMetricsMXBean {
+
+	Map<String, Long> getRequestsSent();
+
+	Map<String, Long> getRequestsReceived();
+
+	Map<String, Long> getResponsesSent();
+
+	Map<String, Long> getResponsesReceived();
+
+	Map<String, Long> getResponseResults();
+
+	long getRequestsExpired();
+
+	int getWindowSize();
+
+	int getWindowMaxSize();
+
+	int getWindowPendingOffers();
+
+	long getWindowWaitTimeCount();
+
+	double getWindowWaitTimeMean();
+
+	long getWindowWaitTimeP50();
+
+	long getWindowWaitTimeP99();
+
+	long getWindowWaitTimeMax();
+
+	long getResponseTimeCount();
+
+	double getResponseTimeMean();
+
+	long getResponseTimeP50();
+
+	long getResponseTimeP99();
+
+	long getResponseTimeMax();
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.metrics;
+
+import lombok.Getter;
+
+/**
+ * SGIP 会话指标快照
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see SgipMetrics#snapshot()
+ */
+@SuppressWarnings("unused")
+public class SgipMetricsSnapshot {
+
+	/**
+	 * 会话名称
+	 */
+	@Getter
+	private final String name;
+
+	/**
+	 * 会话实例标识
+	 */
+	@Getter
+	private final String instance;
+
+	/**
+	 * 快照时间
+	 */
+	@Getter
+	private final long timestamp;
+
+	private final long[] requestsSent;
+
+	private final long[] requestsReceived;
+
+	private final long[] responsesSent;
+
+	private final long[] responsesReceived;
+
+	private final long[] responseResults;
+
+	/**
+	 * 过期的请求数
+	 */
+	@Getter
+	private final long requestsExpired;
+
+	/**
+	 * 发送窗口占用
+	 */
+	@Getter
+	private final int windowSize;
+
+	/**
+	 * 发送窗口大小
+	 */
+	@Getter
+	private final int windowMaxSize;
+
+	/**
+	 * 等待进入发送窗口的请求数
+	 */
+	@Getter
+	private final int windowPendingOffers;
+
+	/**
+	 * 发送窗口等待时间（毫秒）
+	 */
+	@Getter
+	private final LatencyHistogram.Snapshot windowWaitTime;
+
+	/**
+	 * 响应时间（毫秒）
+	 */
+	@Getter
+	private final LatencyHistogram.Snapshot responseTime;
+
+	SgipMetricsSnapshot(
+		String name, String instance, long timestamp,
+		long[] requestsSent, long[] requestsReceived, long[] responsesSent, long[] responsesReceived, long[] responseResults,
+		long requestsExpired, int windowSize, int windowMaxSize, int windowPendingOffers,
+		LatencyHistogram.Snapshot windowWaitTime, LatencyHistogram.Snapshot responseTime
+	) {
+		this.name                = name;
+		this.instance            = instance;
+		this.timestamp           = timestamp;
+		this.requestsSent        = requestsSent;
+		this.requestsReceived    = requestsReceived;
+		this.responsesSent       = responsesSent;
+		this.responsesReceived   = responsesReceived;
+		this.responseResults     = responseResults;
+		this.requestsExpired     = requestsExpired;
+		this.windowSize          = windowSize;
+		this.windowMaxSize       = windowMaxSize;
+		this.windowPendingOffers = windowPendingOffers;
+		this.windowWaitTime      = windowWaitTime;
+		this.responseTime        = responseTime;
+	}
+
+	/**
+	 * 以下按命令 ID 读取的计数，请求与响应命令 ID 均可，下标映射见 {@link SgipMetrics#indexOf(int)}
+	 */
+	public long getRequestsSent(int commandId) {
+		return count(requestsSent, commandId);
+	}
+
+	public long getRequestsReceived(int commandId) {
+		return count(requestsReceived, commandId);
+	}
+
+	public long getResponsesSent(int commandId) {
+		return count(responsesSent, commandId);
+	}
+
+	public long getResponsesReceived(int commandId) {
+		return count(responsesReceived, commandId);
+	}
+
+	public long getResponseResults(byte result) {
+		return responseResults[result & 0xFF];
+	}
+
+	private static long count(long[] counters, int commandId) {
+		int index = SgipMetrics.indexOf(commandId);
+		return index >= 0 ? counters[index] : 0;
+	}
+}
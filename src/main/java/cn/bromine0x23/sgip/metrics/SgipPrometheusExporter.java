@@ -0,0 +1,252 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.metrics;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import cn.bromine0x23.sgip.util.HexUtil;
+import cn.bromine0x23.sgip.util.NamingThreadFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prometheus 文本格式指标导出
+ * <p>
+ * 内嵌 JDK {@link HttpServer}，在独立的守护线程上渲染，只读取 {@link SgipMetrics#snapshot()}，不占用 I/O 线程。
+ * 延迟直方图以 summary 形式导出，单位为毫秒。
+ * 每个序列带 {@code session}（会话名称）与 {@code instance}（会话实例标识）标签，同名会话不会相互覆盖。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipPrometheusExporter {
+
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	public static final String DEFAULT_PATH = "/metrics";
+
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+	private final List<SgipMetrics> sources = new CopyOnWriteArrayList<>();
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	public void register(SgipMetrics metrics) {
+		sources.add(metrics);
+	}
+
+	public void unregister(SgipMetrics metrics) {
+		sources.remove(metrics);
+	}
+
+	/**
+	 * 在指定地址启动 HTTP 服务，路径为 {@value #DEFAULT_PATH}
+	 *
+	 * @param address 监听地址
+	 * @throws IOException 无法监听
+	 */
+	public synchronized void start(InetSocketAddress address) throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("Exporter already started");
+		}
+		HttpServer server = HttpServer.create(address, 0);
+		server.createContext(DEFAULT_PATH, this::handle);
+		this.executor = Executors.newSingleThreadExecutor(new NamingThreadFactory("SgipPrometheusExporter", true));
+		server.setExecutor(executor);
+		server.start();
+		this.server = server;
+	}
+
+	public synchronized void stop() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdown();
+			server = null;
+			executor = null;
+		}
+	}
+
+	/**
+	 * @return 所有已注册会话的 Prometheus 文本格式指标
+	 */
+	public String render() {
+		StringBuilder builder = new StringBuilder(4096);
+		render(builder);
+		return builder.toString();
+	}
+
+	/**
+	 * 以 Prometheus 文本格式渲染所有已注册会话的指标
+	 *
+	 * @param builder 输出
+	 */
+	public void render(StringBuilder builder) {
+		List<SgipMetricsSnapshot> list = new ArrayList<>();
+		for (SgipMetrics source : sources) {
+			list.add(source.snapshot());
+		}
+		SgipMetricsSnapshot[] snapshots = list.toArray(new SgipMetricsSnapshot[0]);
+		int                   count     = snapshots.length;
+
+		header(builder, "sgip_requests_sent_total", "counter", "Request PDUs sent");
+		for (int i = 0; i < count; ++i) {
+			for (int index = 0; index < SgipMetrics.COMMAND_COUNTERS_SIZE; ++index) {
+				int id = SgipMetrics.commandIdOf(index);
+				command(builder, "sgip_requests_sent_total", snapshots[i], id, snapshots[i].getRequestsSent(id));
+			}
+		}
+		header(builder, "sgip_requests_received_total", "counter", "Request PDUs received");
+		for (int i = 0; i < count; ++i) {
+			for (int index = 0; index < SgipMetrics.COMMAND_COUNTERS_SIZE; ++index) {
+				int id = SgipMetrics.commandIdOf(index);
+				command(builder, "sgip_requests_received_total", snapshots[i], id, snapshots[i].getRequestsReceived(id));
+			}
+		}
+		header(builder, "sgip_responses_sent_total", "counter", "Response PDUs sent");
+		for (int i = 0; i < count; ++i) {
+			for (int index = 0; index < SgipMetrics.COMMAND_COUNTERS_SIZE; ++index) {
+				int id = SgipMetrics.commandIdOf(index);
+				command(builder, "sgip_responses_sent_total", snapshots[i], id | SgipConstants.PDU_CMD_ID_RESP_MASK, snapshots[i].getResponsesSent(id));
+			}
+		}
+		header(builder, "sgip_responses_received_total", "counter", "Response PDUs received");
+		for (int i = 0; i < count; ++i) {
+			for (int index = 0; index < SgipMetrics.COMMAND_COUNTERS_SIZE; ++index) {
+				int id = SgipMetrics.commandIdOf(index);
+				command(builder, "sgip_responses_received_total", snapshots[i], id | SgipConstants.PDU_CMD_ID_RESP_MASK, snapshots[i].getResponsesReceived(id));
+			}
+		}
+		header(builder, "sgip_response_results_total", "counter", "Received responses by result code");
+		for (int i = 0; i < count; ++i) {
+			for (int result = 0; result < 0x100; ++result) {
+				long value = snapshots[i].getResponseResults((byte)result);
+				if (value != 0) {
+					labels(builder, "sgip_response_results_total", snapshots[i]);
+					builder.append(",result=\"0x");
+					HexUtil.appendHexString(builder, (byte)result);
+					builder.append("\"} ").append(value).append('\n');
+				}
+			}
+		}
+		header(builder, "sgip_requests_expired_total", "counter", "Requests expired in the send window");
+		for (int i = 0; i < count; ++i) {
+			gauge(builder, "sgip_requests_expired_total", snapshots[i], snapshots[i].getRequestsExpired());
+		}
+		header(builder, "sgip_window_size", "gauge", "Requests outstanding in the send window");
+		for (int i = 0; i < count; ++i) {
+			gauge(builder, "sgip_window_size", snapshots[i], snapshots[i].getWindowSize());
+		}
+		header(builder, "sgip_window_max_size", "gauge", "Send window capacity");
+		for (int i = 0; i < count; ++i) {
+			gauge(builder, "sgip_window_max_size", snapshots[i], snapshots[i].getWindowMaxSize());
+		}
+		header(builder, "sgip_window_pending_offers", "gauge", "Requests waiting to enter the send window");
+		for (int i = 0; i < count; ++i) {
+			gauge(builder, "sgip_window_pending_offers", snapshots[i], snapshots[i].getWindowPendingOffers());
+		}
+		header(builder, "sgip_window_wait_milliseconds", "summary", "Time from window offer to accept");
+		for (int i = 0; i < count; ++i) {
+			summary(builder, "sgip_window_wait_milliseconds", snapshots[i], snapshots[i].getWindowWaitTime());
+		}
+		header(builder, "sgip_response_time_milliseconds", "summary", "Time from window accept to response");
+		for (int i = 0; i < count; ++i) {
+			summary(builder, "sgip_response_time_milliseconds", snapshots[i], snapshots[i].getResponseTime());
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			byte[] body = render().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			if ("HEAD".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(200, -1);
+			} else {
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream output = exchange.getResponseBody()) {
+					output.write(body);
+				}
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static void header(StringBuilder builder, String name, String type, String help) {
+		builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void command(StringBuilder builder, String name, SgipMetricsSnapshot snapshot, int commandId, long value) {
+		if (value == 0) {
+			return;
+		}
+		labels(builder, name, snapshot);
+		builder.append(",command_id=\"0x");
+		HexUtil.appendHexString(builder, commandId);
+		builder.append("\"} ").append(value).append('\n');
+	}
+
+	private static void gauge(StringBuilder builder, String name, SgipMetricsSnapshot snapshot, long value) {
+		labels(builder, name, snapshot);
+		builder.append("} ").append(value).append('\n');
+	}
+
+	private static void summary(StringBuilder builder, String name, SgipMetricsSnapshot snapshot, LatencyHistogram.Snapshot histogram) {
+		for (double quantile : QUANTILES) {
+			labels(builder, name, snapshot);
+			builder.append(",quantile=\"").append(quantile).append("\"} ").append(histogram.getValueAtQuantile(quantile)).append('\n');
+		}
+		labels(builder, name + "_sum", snapshot);
+		builder.append("} ").append(histogram.getSum()).append('\n');
+		labels(builder, name + "_count", snapshot);
+		builder.append("} ").append(histogram.getCount()).append('\n');
+	}
+
+	/**
+	 * 写入指标名与会话标签，不含右花括号
+	 */
+	private static void labels(StringBuilder builder, String name, SgipMetricsSnapshot snapshot) {
+		builder.append(name).append("{session=\"");
+		escape(builder, snapshot.getName());
+		builder.append("\",instance=\"");
+		escape(builder, snapshot.getInstance());
+		builder.append('"');
+	}
+
+	private static void escape(StringBuilder builder, String value) {
+		if (value == null) {
+			return;
+		}
+		for (int i = 0; i < value.length(); ++i) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				default:
+					builder.append(c);
+			}
+		}
+	}
+}
@@ -11,12 +11,15 @@ import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
 import cn.bromine0x23.sgip.util.ByteBufUtil;
 import cn.bromine0x23.sgip.util.HexUtil;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.internal.ObjectPool;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
  * 通用 Resp 命令
+ * <p>
+ * 解码时只读取错误码与保留字段的 8 字节原值，保留字段在访问时才构造字符串，响应匹配路径上不分配
  *
  * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
  */
@@ -32,16 +35,47 @@ public abstract class SgipBasePduResp extends SgipPduResponse {
 	private byte result;
 
 	/**
-	 * 保留，扩展用（8 Byte）
+	 * 保留，扩展用（8 Byte），收到的消息在首次访问时解码
 	 */
-	@Getter
-	@Setter
 	private String reserve = "";
 
+	/**
+	 * 收到的保留字段原始字节，{@link #reserve} 为 {@code null} 时有效
+	 */
+	@EqualsAndHashCode.Exclude
+	private long rawReserve;
+
 	SgipBasePduResp(int commandId, String name) {
 		super(commandId, name);
 	}
 
+	SgipBasePduResp(int commandId, String name, ObjectPool.Handle<? extends SgipBasePduResp> recyclerHandle) {
+		super(commandId, name, recyclerHandle);
+	}
+
+	public String getReserve() {
+		if (reserve == null) {
+			byte[] bytes = new byte[8];
+			for (int i = 0; i < 8; ++i) {
+				bytes[i] = (byte)(rawReserve >>> (56 - i * 8));
+			}
+			reserve = new String(bytes).trim();
+		}
+		return reserve;
+	}
+
+	public void setReserve(String reserve) {
+		this.reserve = reserve;
+		this.rawReserve = 0;
+	}
+
+	@Override
+	protected void resetBody() {
+		this.result = 0;
+		this.reserve = "";
+		this.rawReserve = 0;
+	}
+
 	@Override
 	protected int calculateByteSizeOfBody() {
 		return 9;
@@ -50,13 +84,18 @@ public abstract class SgipBasePduResp extends SgipPduResponse {
 	@Override
 	public void readBody(ByteBuf buffer) throws UnrecoverablePduException, RecoverablePduException {
 		this.result = buffer.readByte();
-		this.reserve = ByteBufUtil.readFixedString(buffer, 8);
+		this.rawReserve = buffer.readLong();
+		this.reserve = null;
 	}
 
 	@Override
 	public void writeBody(ByteBuf buffer) throws UnrecoverablePduException, RecoverablePduException {
 		buffer.writeByte(result);
-		ByteBufUtil.writeFixedString(buffer, reserve, 8);
+		if (reserve == null) {
+			buffer.writeLong(rawReserve);
+		} else {
+			ByteBufUtil.writeFixedString(buffer, reserve, 8);
+		}
 	}
 
 	@Override
@@ -11,7 +11,9 @@ import cn.bromine0x23.sgip.exception.RecoverablePduException;
 import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
 import cn.bromine0x23.sgip.util.ByteBufUtil;
 import cn.bromine0x23.sgip.util.HexUtil;
+import cn.bromine0x23.sgip.util.ShortMessageUtil;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.internal.ObjectPool;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -33,6 +35,8 @@ import lombok.Setter;
 @EqualsAndHashCode(callSuper = true)
 public class SgipDeliver extends SgipPduRequest<SgipDeliverResp> {
 
+	private static final ObjectPool<SgipDeliver> RECYCLER = ObjectPool.newPool(SgipDeliver::new);
+
 	/**
 	 * 发送短消息的用户手机号，手机号码前加“86”国别标志（21 Byte）
 	 */
@@ -70,7 +74,6 @@ public class SgipDeliver extends SgipPduRequest<SgipDeliverResp> {
 	 * @see SgipConstants.TpUdhi
 	 */
 	@Getter
-	@Setter
 	private byte tpUdhi;
 
 	/**
@@ -88,7 +91,6 @@ public class SgipDeliver extends SgipPduRequest<SgipDeliverResp> {
 	 * @see SgipConstants.DataCoding
 	 */
 	@Getter
-	@Setter
 	private byte messageCoding;
 
 	/**
@@ -111,12 +113,17 @@ public class SgipDeliver extends SgipPduRequest<SgipDeliverResp> {
 	private int messageLength;
 
 	/**
-	 * 短消息内容（{@link #messageLength} Byte）
+	 * 短消息内容（{@link #messageLength} Byte），收到的消息在首次访问时按 {@link #messageCoding} 解码
 	 */
-	@Getter
-	@Setter
+	@EqualsAndHashCode.Exclude
 	private String messageContent;
 
+	/**
+	 * 未经解码的短消息内容，含 UDH 时以 UDH 开头
+	 */
+	@Getter
+	private byte[] rawMessageContent;
+
 	/**
 	 * 保留，扩展用（8 Byte）
 	 */
@@ -128,9 +135,88 @@ public class SgipDeliver extends SgipPduRequest<SgipDeliverResp> {
 		super(SgipConstants.CommandId.DELIVER, "Deliver");
 	}
 
+	private SgipDeliver(ObjectPool.Handle<SgipDeliver> recyclerHandle) {
+		super(SgipConstants.CommandId.DELIVER, "Deliver", recyclerHandle);
+	}
+
+	/**
+	 * @return 由对象池创建的实例，用毕须 {@link #release()}
+	 */
+	public static SgipDeliver newPooled() {
+		return acquire(RECYCLER);
+	}
+
+	public void setTpUdhi(byte tpUdhi) {
+		this.tpUdhi = tpUdhi;
+		invalidateMessageContent();
+	}
+
+	public void setMessageCoding(byte messageCoding) {
+		this.messageCoding = messageCoding;
+		invalidateMessageContent();
+	}
+
+	/**
+	 * 获取短消息内容
+	 * <p>
+	 * 按 {@link #messageCoding} 解码 {@link #rawMessageContent}，含 UDH 时跳过 UDH；解码结果会被缓存
+	 *
+	 * @return 短消息内容
+	 * @see ShortMessageUtil#decode(byte[], int, int, byte)
+	 */
+	public String getMessageContent() {
+		if (messageContent == null && rawMessageContent != null) {
+			int offset = 0;
+			if (tpUdhi != SgipConstants.TpUdhi.NORMAL && rawMessageContent.length > 0) {
+				offset = Math.min((rawMessageContent[0] & 0xFF) + 1, rawMessageContent.length);
+			}
+			messageContent = ShortMessageUtil.decode(rawMessageContent, offset, rawMessageContent.length - offset, messageCoding);
+		}
+		return messageContent;
+	}
+
+	/**
+	 * 设置短消息内容，编码时按 {@link #messageCoding} 编码
+	 *
+	 * @param messageContent 短消息内容
+	 */
+	public void setMessageContent(String messageContent) {
+		this.messageContent    = messageContent;
+		this.rawMessageContent = null;
+	}
+
+	public void setRawMessageContent(byte[] rawMessageContent) {
+		this.messageLength     = rawMessageContent.length;
+		this.messageContent    = null;
+		this.rawMessageContent = rawMessageContent;
+	}
+
+	private void invalidateMessageContent() {
+		if (rawMessageContent != null) {
+			this.messageContent = null;
+		}
+	}
+
+	/**
+	 * @return 响应 PDU，本实例由对象池创建时响应也由对象池创建
+	 */
 	@Override
 	public SgipDeliverResp createResponse() {
-		return new SgipDeliverResp();
+		return isPooled() ? SgipDeliverResp.newPooled() : new SgipDeliverResp();
+	}
+
+	@Override
+	protected void resetBody() {
+		this.userNumber = null;
+		this.spNumber = null;
+		this.tpPid = SgipConstants.TpPid.NORMAL;
+		this.tpUdhi = 0;
+		this.messageCoding = 0;
+		this.messageType = SgipConstants.MessageType.SMS;
+		this.messageLength = 0;
+		this.messageContent = null;
+		this.rawMessageContent = null;
+		this.reserve = "";
 	}
 
 	@Override
@@ -152,8 +238,9 @@ public class SgipDeliver extends SgipPduRequest<SgipDeliverResp> {
 		this.messageCoding  = buffer.readByte();
 		this.messageType    = buffer.readByte();
 		this.messageLength  = buffer.readInt();
-		this.messageContent = ByteBufUtil.readFixedString(buffer, messageLength);
-		this.reserve        = ByteBufUtil.readFixedString(buffer, 8);
+		this.rawMessageContent = ByteBufUtil.readBytes(buffer, messageLength);
+		this.messageContent    = null;
+		this.reserve           = ByteBufUtil.readFixedString(buffer, 8);
 	}
 
 	@Override
@@ -165,7 +252,11 @@ public class SgipDeliver extends SgipPduRequest<SgipDeliverResp> {
 		buffer.writeByte(messageCoding);
 		buffer.writeByte(messageType);
 		buffer.writeInt(messageLength);
-		buffer.writeBytes(messageContent.getBytes());
+		if (rawMessageContent != null) {
+			buffer.writeBytes(rawMessageContent);
+		} else {
+			buffer.writeBytes(messageContent.getBytes(ShortMessageUtil.charsetOf(messageCoding)));
+		}
 		ByteBufUtil.writeFixedString(buffer, reserve, 8);
 	}
 
@@ -7,6 +7,7 @@
 package cn.bromine0x23.sgip.pdu;
 
 import cn.bromine0x23.sgip.SgipConstants;
+import io.netty.util.internal.ObjectPool;
 import lombok.EqualsAndHashCode;
 
 /**
@@ -18,7 +19,20 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class SgipDeliverResp extends SgipBasePduResp {
 
+	private static final ObjectPool<SgipDeliverResp> RECYCLER = ObjectPool.newPool(SgipDeliverResp::new);
+
 	public SgipDeliverResp() {
 		super(SgipConstants.CommandId.DELIVER_RESP, "Deliver_Resp");
 	}
+
+	private SgipDeliverResp(ObjectPool.Handle<SgipDeliverResp> recyclerHandle) {
+		super(SgipConstants.CommandId.DELIVER_RESP, "Deliver_Resp", recyclerHandle);
+	}
+
+	/**
+	 * @return 由对象池创建的实例，用毕须 {@link #release()}
+	 */
+	public static SgipDeliverResp newPooled() {
+		return acquire(RECYCLER);
+	}
 }
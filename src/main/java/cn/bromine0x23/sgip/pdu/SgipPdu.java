@@ -11,22 +11,40 @@ import cn.bromine0x23.sgip.exception.RecoverablePduException;
 import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
 import cn.bromine0x23.sgip.util.HexUtil;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.internal.ObjectPool;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.Calendar;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * PDU基类
+ * <p>
+ * 由对象池创建的 PDU（见各类的 {@code newPooled()}）带有引用计数，初始为 1，
+ * {@link #release()} 至 0 时清空并归还对象池，之后不得再访问；需要跨越回调保留时先 {@link #retain()}。
+ * 普通方式创建的 PDU 上这两个方法不做任何事。
  *
  * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
  */
 @EqualsAndHashCode
 public abstract class SgipPdu {
 
-	private static AtomicInteger sequenceNumberCounter = new AtomicInteger();
+	private static final int COMMAND_LENGTH_ASSIGNED = 1;
+
+	private static final int SOURCE_NODE_ID_ASSIGNED = 1 << 1;
+
+	private static final int TIMESTAMP_ASSIGNED = 1 << 2;
+
+	private static final int SEQUENCE_NUMBER_ASSIGNED = 1 << 3;
+
+	private static final AtomicIntegerFieldUpdater<SgipPdu> REFERENCE_COUNT_UPDATER = AtomicIntegerFieldUpdater.newUpdater(SgipPdu.class, "referenceCount");
+
+	@EqualsAndHashCode.Exclude
+	private final ObjectPool.Handle<SgipPdu> recyclerHandle;
+
+	@EqualsAndHashCode.Exclude
+	private volatile int referenceCount;
 
 	private final boolean request;
 
@@ -36,11 +54,15 @@ public abstract class SgipPdu {
 	@Getter
 	private String name;
 
+	/**
+	 * 已赋值的消息头字段
+	 */
+	private int assigned;
+
 	/**
 	 * 命令消息的总长度（4 字节）
 	 */
-	@Setter
-	private Integer commandLength;
+	private int commandLength;
 
 	/**
 	 * 命令ID（4 字节）
@@ -51,25 +73,88 @@ public abstract class SgipPdu {
 	/**
 	 * 命令源节点编号（4 字节）
 	 */
-	@Setter
-	private Integer sourceNodeId;
+	private int sourceNodeId;
 
 	/**
 	 * 命令产生的日期和时间（4 字节）
 	 */
-	@Setter
-	private Integer timestamp;
+	private int timestamp;
 
 	/**
-	 * 流水号（4 字节）
+	 * 流水号（4 字节），由会话分配
 	 */
-	@Setter
-	private Integer sequenceNumber;
+	private int sequenceNumber;
 
 	public SgipPdu(int commandId, String name, boolean request) {
+		this(commandId, name, request, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected SgipPdu(int commandId, String name, boolean request, ObjectPool.Handle<? extends SgipPdu> recyclerHandle) {
 		this.name = name;
 		this.commandId = commandId;
 		this.request = request;
+		this.recyclerHandle = (ObjectPool.Handle<SgipPdu>)recyclerHandle;
+	}
+
+	/**
+	 * 从对象池取出实例，引用计数置为 1
+	 */
+	protected static <T extends SgipPdu> T acquire(ObjectPool<T> pool) {
+		T pdu = pool.get();
+		REFERENCE_COUNT_UPDATER.set(pdu, 1);
+		return pdu;
+	}
+
+	/**
+	 * @return 是否由对象池创建
+	 */
+	public boolean isPooled() {
+		return recyclerHandle != null;
+	}
+
+	/**
+	 * 增加引用计数
+	 *
+	 * @return this
+	 */
+	public SgipPdu retain() {
+		if (recyclerHandle != null) {
+			REFERENCE_COUNT_UPDATER.incrementAndGet(this);
+		}
+		return this;
+	}
+
+	/**
+	 * 减少引用计数，至 0 时清空并归还对象池
+	 *
+	 * @return 是否已归还对象池
+	 */
+	public boolean release() {
+		if (recyclerHandle == null) {
+			return false;
+		}
+		int count = REFERENCE_COUNT_UPDATER.decrementAndGet(this);
+		if (count > 0) {
+			return false;
+		}
+		if (count < 0) {
+			throw new IllegalStateException(name + " released more times than retained");
+		}
+		assigned = 0;
+		commandLength = 0;
+		sourceNodeId = 0;
+		timestamp = 0;
+		sequenceNumber = 0;
+		resetBody();
+		recyclerHandle.recycle(this);
+		return true;
+	}
+
+	/**
+	 * 归还对象池前恢复消息体字段的初始值，可回收的子类需覆盖
+	 */
+	protected void resetBody() {
 	}
 
 	public boolean isRequest() {
@@ -81,49 +166,70 @@ public abstract class SgipPdu {
 	}
 
 	public int getCommandLength() {
-		if (commandLength == null) {
-			return 0;
-		} else {
-			return commandLength;
-		}
+		return commandLength;
+	}
+
+	public void setCommandLength(int commandLength) {
+		this.commandLength = commandLength;
+		this.assigned |= COMMAND_LENGTH_ASSIGNED;
 	}
 
 	public int getSourceNodeId() {
-		if (sourceNodeId == null) {
-			return 0;
-		} else {
-			return sourceNodeId;
-		}
+		return sourceNodeId;
+	}
+
+	public void setSourceNodeId(int sourceNodeId) {
+		this.sourceNodeId = sourceNodeId;
+		this.assigned |= SOURCE_NODE_ID_ASSIGNED;
 	}
 
 	public int getTimestamp() {
-		if (timestamp == null) {
-			this.timestamp = calculateTimestamp();
+		if ((assigned & TIMESTAMP_ASSIGNED) == 0) {
+			setTimestamp(calculateTimestamp());
 		}
 		return timestamp;
 	}
 
+	public void setTimestamp(int timestamp) {
+		this.timestamp = timestamp;
+		this.assigned |= TIMESTAMP_ASSIGNED;
+	}
+
+	/**
+	 * @return 流水号，未分配时为 0
+	 */
 	public int getSequenceNumber() {
-		if (sequenceNumber == null) {
-			this.sequenceNumber = sequenceNumberCounter.incrementAndGet();
-		}
 		return sequenceNumber;
 	}
 
+	public void setSequenceNumber(int sequenceNumber) {
+		this.sequenceNumber = sequenceNumber;
+		this.assigned |= SEQUENCE_NUMBER_ASSIGNED;
+	}
+
 	public boolean hasCommandLengthCalculated() {
-		return commandLength != null;
+		return (assigned & COMMAND_LENGTH_ASSIGNED) != 0;
 	}
 
 	public boolean hasSourceNodeIdAssigned() {
-		return sourceNodeId != null;
+		return (assigned & SOURCE_NODE_ID_ASSIGNED) != 0;
 	}
 
 	public boolean hasTimestampAssigned() {
-		return timestamp != null;
+		return (assigned & TIMESTAMP_ASSIGNED) != 0;
 	}
 
 	public boolean hasSequenceNumberAssigned() {
-		return sequenceNumber != null;
+		return (assigned & SEQUENCE_NUMBER_ASSIGNED) != 0;
+	}
+
+	/**
+	 * 清除时间戳与流水号，重新发送时由会话重新分配
+	 */
+	public void clearTimestampAndSequenceNumber() {
+		this.timestamp = 0;
+		this.sequenceNumber = 0;
+		this.assigned &= ~(TIMESTAMP_ASSIGNED | SEQUENCE_NUMBER_ASSIGNED);
 	}
 
 	public void calculateAndSetCommandLength() {
@@ -168,7 +274,7 @@ public abstract class SgipPdu {
 		return builder.toString();
 	}
 
-	public static Integer calculateTimestamp() {
+	public static int calculateTimestamp() {
 		Calendar calendar = Calendar.getInstance();
 		int      month    = calendar.get(Calendar.MONTH) + 1;
 		int      day      = calendar.get(Calendar.DAY_OF_MONTH);
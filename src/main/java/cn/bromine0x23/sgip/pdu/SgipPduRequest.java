@@ -6,6 +6,8 @@
  */
 package cn.bromine0x23.sgip.pdu;
 
+import io.netty.util.internal.ObjectPool;
+
 /**
  * 通用请求PDU
  *
@@ -18,6 +20,10 @@ public abstract class SgipPduRequest<TResponse extends SgipPduResponse> extends
 		super(commandId, name, true);
 	}
 
+	protected SgipPduRequest(int commandId, String name, ObjectPool.Handle<? extends SgipPduRequest<TResponse>> recyclerHandle) {
+		super(commandId, name, true, recyclerHandle);
+	}
+
 	/**
 	 * @return 请求对应的响应 PDU
 	 */
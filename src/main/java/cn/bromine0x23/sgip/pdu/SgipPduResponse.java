@@ -6,6 +6,8 @@
  */
 package cn.bromine0x23.sgip.pdu;
 
+import io.netty.util.internal.ObjectPool;
+
 /**
  * 通用响应PDU
  *
@@ -16,4 +18,8 @@ public abstract class SgipPduResponse extends SgipPdu {
 	public SgipPduResponse(int commandId, String name) {
 		super(commandId, name, false);
 	}
+
+	protected SgipPduResponse(int commandId, String name, ObjectPool.Handle<? extends SgipPduResponse> recyclerHandle) {
+		super(commandId, name, false, recyclerHandle);
+	}
 }
@@ -12,6 +12,7 @@ import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
 import cn.bromine0x23.sgip.util.ByteBufUtil;
 import cn.bromine0x23.sgip.util.HexUtil;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.internal.ObjectPool;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -30,6 +31,8 @@ import lombok.Setter;
 @EqualsAndHashCode(callSuper = true)
 public class SgipReport extends SgipPduRequest<SgipReportResp> {
 
+	private static final ObjectPool<SgipReport> RECYCLER = ObjectPool.newPool(SgipReport::new);
+
 	/**
 	 * 该命令所涉及的Submit或Deliver命令的源节点编号（4 字节）
 	 */
@@ -105,9 +108,35 @@ public class SgipReport extends SgipPduRequest<SgipReportResp> {
 		super(SgipConstants.CommandId.REPORT, "Report");
 	}
 
+	private SgipReport(ObjectPool.Handle<SgipReport> recyclerHandle) {
+		super(SgipConstants.CommandId.REPORT, "Report", recyclerHandle);
+	}
+
+	/**
+	 * @return 由对象池创建的实例，用毕须 {@link #release()}
+	 */
+	public static SgipReport newPooled() {
+		return acquire(RECYCLER);
+	}
+
+	/**
+	 * @return 响应 PDU，本实例由对象池创建时响应也由对象池创建
+	 */
 	@Override
 	public SgipReportResp createResponse() {
-		return new SgipReportResp();
+		return isPooled() ? SgipReportResp.newPooled() : new SgipReportResp();
+	}
+
+	@Override
+	protected void resetBody() {
+		this.submitSourceNodeId = 0;
+		this.submitTimestamp = 0;
+		this.submitSequenceNumber = 0;
+		this.reportType = 0;
+		this.userNumber = null;
+		this.state = 0;
+		this.errorCode = 0;
+		this.reserve = null;
 	}
 
 	@Override
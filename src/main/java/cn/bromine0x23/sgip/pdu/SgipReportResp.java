@@ -7,6 +7,7 @@
 package cn.bromine0x23.sgip.pdu;
 
 import cn.bromine0x23.sgip.SgipConstants;
+import io.netty.util.internal.ObjectPool;
 import lombok.EqualsAndHashCode;
 
 /**
@@ -18,7 +19,20 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class SgipReportResp extends SgipBasePduResp {
 
+	private static final ObjectPool<SgipReportResp> RECYCLER = ObjectPool.newPool(SgipReportResp::new);
+
 	public SgipReportResp() {
 		super(SgipConstants.CommandId.REPORT_RESP, "Report_Resp");
 	}
+
+	private SgipReportResp(ObjectPool.Handle<SgipReportResp> recyclerHandle) {
+		super(SgipConstants.CommandId.REPORT_RESP, "Report_Resp", recyclerHandle);
+	}
+
+	/**
+	 * @return 由对象池创建的实例，用毕须 {@link #release()}
+	 */
+	public static SgipReportResp newPooled() {
+		return acquire(RECYCLER);
+	}
 }
@@ -11,7 +11,9 @@ import cn.bromine0x23.sgip.exception.RecoverablePduException;
 import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
 import cn.bromine0x23.sgip.util.ByteBufUtil;
 import cn.bromine0x23.sgip.util.HexUtil;
+import cn.bromine0x23.sgip.util.MsisdnList;
 import io.netty.buffer.ByteBuf;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -69,9 +71,15 @@ public class SgipSubmit extends SgipPduRequest<SgipSubmitResp> {
 	 * 该字段重复UserCount指定的次数，手机号码前加“86”国别标志
 	 * </blockquote>
 	 */
-	@Getter
 	private String[] userNumbers;
 
+	/**
+	 * 紧凑形式的接收号码，与 {@link #userNumbers} 二者取一
+	 */
+	@Getter
+	@EqualsAndHashCode.Exclude
+	private MsisdnList userNumberList;
+
 	/**
 	 * 企业代码（5 Byte）
 	 */
@@ -260,9 +268,17 @@ public class SgipSubmit extends SgipPduRequest<SgipSubmitResp> {
 	/**
 	 * 短消息内容（{@link #messageLength} Byte）
 	 */
-	@Getter
 	private byte[] messageContent;
 
+	/**
+	 * 以字节缓冲形式提供的短消息内容，与 {@link #messageContent} 二者取一
+	 * <p>
+	 * 不持有引用，由调用方在 PDU 写出完成后释放
+	 */
+	@Getter
+	@EqualsAndHashCode.Exclude
+	private ByteBuf messageContentBuffer;
+
 	/**
 	 * 保留，扩展用（8 Byte）
 	 */
@@ -270,21 +286,57 @@ public class SgipSubmit extends SgipPduRequest<SgipSubmitResp> {
 	@Setter
 	private String reserve;
 
+	/**
+	 * 预编码的模板，编码时模板字段整块写入
+	 *
+	 * @see SgipSubmitTemplate
+	 */
+	@Getter
+	@Setter(AccessLevel.PACKAGE)
+	@EqualsAndHashCode.Exclude
+	private SgipSubmitTemplate template;
+
 	public SgipSubmit() {
 		super(SgipConstants.CommandId.SUBMIT, "Submit");
 	}
 
 	public void setUserNumber(String userNumber) {
-		this.userCount   = 1;
-		this.userNumbers = new String[]{userNumber};
+		this.userCount      = 1;
+		this.userNumbers    = new String[]{userNumber};
+		this.userNumberList = null;
+	}
+
+	/**
+	 * @return 接收号码；以 {@link MsisdnList} 设置时每次调用都生成新数组
+	 */
+	public String[] getUserNumbers() {
+		if (userNumberList != null) {
+			return userNumberList.toArray();
+		}
+		return userNumbers;
 	}
 
 	public void setUserNumbers(String[] userNumbers) {
 		if (userNumbers.length > 100) {
 			throw new IllegalArgumentException("Too many user numbers.");
 		}
-		this.userCount   = userNumbers.length;
-		this.userNumbers = userNumbers;
+		this.userCount      = userNumbers.length;
+		this.userNumbers    = userNumbers;
+		this.userNumberList = null;
+	}
+
+	/**
+	 * 以紧凑形式设置接收号码，编码时直接写入号码字段，不经过字符串
+	 *
+	 * @param userNumbers 接收号码，不复制
+	 */
+	public void setUserNumbers(MsisdnList userNumbers) {
+		if (userNumbers.size() > 100) {
+			throw new IllegalArgumentException("Too many user numbers.");
+		}
+		this.userCount      = userNumbers.size();
+		this.userNumbers    = null;
+		this.userNumberList = userNumbers;
 	}
 
 	public void setFeeType(int feeType) {
@@ -312,9 +364,90 @@ public class SgipSubmit extends SgipPduRequest<SgipSubmitResp> {
 		this.priority = (byte) priority;
 	}
 
+	public byte[] getMessageContent() {
+		if (messageContentBuffer != null) {
+			return io.netty.buffer.ByteBufUtil.getBytes(messageContentBuffer, messageContentBuffer.readerIndex(), messageLength);
+		}
+		return messageContent;
+	}
+
 	public void setMessageContent(byte[] messageContent) {
-		this.messageLength  = messageContent.length;
-		this.messageContent = messageContent;
+		this.messageLength        = messageContent.length;
+		this.messageContent       = messageContent;
+		this.messageContentBuffer = null;
+	}
+
+	/**
+	 * 以字节缓冲设置短消息内容，编码时直接引用该缓冲的可读部分，不复制
+	 * <p>
+	 * 不改变缓冲的读写下标与引用计数，调用方需保证在 PDU 写出完成前不释放该缓冲
+	 *
+	 * @param messageContent 短消息内容
+	 * @see cn.bromine0x23.sgip.util.SegmentedShortMessage
+	 * @see cn.bromine0x23.sgip.util.MessageContentCache
+	 */
+	public void setMessageContent(ByteBuf messageContent) {
+		this.messageLength        = messageContent.readableBytes();
+		this.messageContent       = null;
+		this.messageContentBuffer = messageContent;
+	}
+
+	public boolean hasMessageContentBuffer() {
+		return messageContentBuffer != null;
+	}
+
+	/**
+	 * 复制本消息并替换接收号码，短消息内容与模板共享不复制；不复制时间戳与流水号
+	 *
+	 * @param userNumbers 接收号码
+	 * @return 新消息
+	 */
+	public SgipSubmit withUserNumbers(String[] userNumbers) {
+		SgipSubmit submit = copyWithoutUserNumbers();
+		submit.setUserNumbers(userNumbers);
+		return submit;
+	}
+
+	/**
+	 * 复制本消息并替换接收号码，短消息内容与模板共享不复制；不复制时间戳与流水号
+	 *
+	 * @param userNumbers 接收号码
+	 * @return 新消息
+	 */
+	public SgipSubmit withUserNumbers(MsisdnList userNumbers) {
+		SgipSubmit submit = copyWithoutUserNumbers();
+		submit.setUserNumbers(userNumbers);
+		return submit;
+	}
+
+	private SgipSubmit copyWithoutUserNumbers() {
+		SgipSubmit submit = new SgipSubmit();
+		if (hasSourceNodeIdAssigned()) {
+			submit.setSourceNodeId(getSourceNodeId());
+		}
+		submit.spNumber             = spNumber;
+		submit.chargeNumber         = chargeNumber;
+		submit.corporationId        = corporationId;
+		submit.serviceType          = serviceType;
+		submit.feeType              = feeType;
+		submit.feeValue             = feeValue;
+		submit.givenValue           = givenValue;
+		submit.billFlag             = billFlag;
+		submit.moToMtFlag           = moToMtFlag;
+		submit.priority             = priority;
+		submit.expireTime           = expireTime;
+		submit.scheduleTime         = scheduleTime;
+		submit.reportFlag           = reportFlag;
+		submit.tpPid                = tpPid;
+		submit.tpUdhi               = tpUdhi;
+		submit.messageCoding        = messageCoding;
+		submit.messageType          = messageType;
+		submit.messageLength        = messageLength;
+		submit.messageContent       = messageContent;
+		submit.messageContentBuffer = messageContentBuffer;
+		submit.reserve              = reserve;
+		submit.template             = template;
+		return submit;
 	}
 
 	@Override
@@ -337,9 +470,13 @@ public class SgipSubmit extends SgipPduRequest<SgipSubmitResp> {
 		this.spNumber     = ByteBufUtil.readFixedString(buffer, 21);
 		this.chargeNumber = ByteBufUtil.readFixedString(buffer, 21);
 		this.userCount    = buffer.readByte();
-		this.userNumbers  = new String[userCount];
-		for (int i = 0; i < userCount; ++i) {
-			userNumbers[i] = ByteBufUtil.readFixedString(buffer, 21);
+		this.userNumberList = MsisdnList.read(buffer, userCount, 21);
+		this.userNumbers    = null;
+		if (userNumberList == null) {
+			this.userNumbers = new String[userCount];
+			for (int i = 0; i < userCount; ++i) {
+				userNumbers[i] = ByteBufUtil.readFixedString(buffer, 21);
+			}
 		}
 		this.corporationId  = ByteBufUtil.readFixedString(buffer, 5);
 		this.serviceType    = ByteBufUtil.readFixedString(buffer, 10);
@@ -363,12 +500,51 @@ public class SgipSubmit extends SgipPduRequest<SgipSubmitResp> {
 
 	@Override
 	public void writeBody(ByteBuf buffer) throws UnrecoverablePduException, RecoverablePduException {
+		SgipSubmitTemplate template = usableTemplate();
+		if (template != null) {
+			template.writeBodyBeforeContent(this, buffer);
+		} else {
+			writeFieldsBeforeContent(buffer);
+		}
+		if (messageContentBuffer != null) {
+			buffer.writeBytes(messageContentBuffer, messageContentBuffer.readerIndex(), messageLength);
+		} else {
+			buffer.writeBytes(messageContent);
+		}
+		if (template != null) {
+			template.writeBodyAfterContent(buffer);
+		} else {
+			ByteBufUtil.writeFixedString(buffer, reserve, 8);
+		}
+	}
+
+	/**
+	 * @return 模板字段未被修改时返回模板，否则返回 {@code null}
+	 */
+	private SgipSubmitTemplate usableTemplate() {
+		SgipSubmitTemplate template = this.template;
+		return template != null && template.matches(this) ? template : null;
+	}
+
+	/**
+	 * 写入短消息内容之前的字段
+	 *
+	 * @param buffer 字节缓冲
+	 */
+	public void writeBodyBeforeContent(ByteBuf buffer) {
+		SgipSubmitTemplate template = usableTemplate();
+		if (template != null) {
+			template.writeBodyBeforeContent(this, buffer);
+			return;
+		}
+		writeFieldsBeforeContent(buffer);
+	}
+
+	private void writeFieldsBeforeContent(ByteBuf buffer) {
 		ByteBufUtil.writeFixedString(buffer, getSpNumber(), 21);
 		ByteBufUtil.writeFixedString(buffer, getChargeNumber(), 21);
 		buffer.writeByte(userCount);
-		for (String userNumber : getUserNumbers()) {
-			ByteBufUtil.writeFixedString(buffer, userNumber, 21);
-		}
+		writeUserNumbers(buffer);
 		ByteBufUtil.writeFixedString(buffer, getCorporationId(), 5);
 		ByteBufUtil.writeFixedString(buffer, getServiceType(), 10);
 		buffer.writeByte(getFeeType());
@@ -385,7 +561,36 @@ public class SgipSubmit extends SgipPduRequest<SgipSubmitResp> {
 		buffer.writeByte(getMessageCoding());
 		buffer.writeByte(getMessageType());
 		buffer.writeInt(getMessageLength());
-		buffer.writeBytes(getMessageContent());
+	}
+
+	/**
+	 * 写入接收号码字段
+	 *
+	 * @param buffer 字节缓冲
+	 */
+	void writeUserNumbers(ByteBuf buffer) {
+		if (userNumberList != null) {
+			for (int i = 0; i < userCount; ++i) {
+				userNumberList.write(i, buffer, 21);
+			}
+		} else {
+			for (String userNumber : userNumbers) {
+				ByteBufUtil.writeFixedString(buffer, userNumber, 21);
+			}
+		}
+	}
+
+	/**
+	 * 写入短消息内容之后的字段
+	 *
+	 * @param buffer 字节缓冲
+	 */
+	public void writeBodyAfterContent(ByteBuf buffer) {
+		SgipSubmitTemplate template = usableTemplate();
+		if (template != null) {
+			template.writeBodyAfterContent(buffer);
+			return;
+		}
 		ByteBufUtil.writeFixedString(buffer, reserve, 8);
 	}
 
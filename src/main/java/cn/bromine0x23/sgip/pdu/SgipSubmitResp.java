@@ -7,6 +7,7 @@
 package cn.bromine0x23.sgip.pdu;
 
 import cn.bromine0x23.sgip.SgipConstants;
+import io.netty.util.internal.ObjectPool;
 import lombok.EqualsAndHashCode;
 
 /**
@@ -18,7 +19,20 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class SgipSubmitResp extends SgipBasePduResp {
 
+	private static final ObjectPool<SgipSubmitResp> RECYCLER = ObjectPool.newPool(SgipSubmitResp::new);
+
 	public SgipSubmitResp() {
 		super(SgipConstants.CommandId.SUBMIT_RESP, "Submit_Resp");
 	}
+
+	private SgipSubmitResp(ObjectPool.Handle<SgipSubmitResp> recyclerHandle) {
+		super(SgipConstants.CommandId.SUBMIT_RESP, "Submit_Resp", recyclerHandle);
+	}
+
+	/**
+	 * @return 由对象池创建的实例，用毕须 {@link #release()}
+	 */
+	public static SgipSubmitResp newPooled() {
+		return acquire(RECYCLER);
+	}
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.pdu;
+
+import cn.bromine0x23.sgip.util.ByteBufUtil;
+import cn.bromine0x23.sgip.util.MsisdnList;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.Objects;
+
+/**
+ * Submit 模板
+ * <p>
+ * 批量发送时 SP 接入号、付费号码、企业代码、业务代码、计费、标志等字段对每条消息都相同，
+ * 模板在创建时将这些字段预先编码，由模板创建的 {@link SgipSubmit} 编码时整块写入，
+ * 每条消息只写消息头、接收号码、TP_udhi 与短消息内容；接收号码以 {@link MsisdnList} 设置时也不经过字符串。
+ * <p>
+ * 由模板创建的 Submit 编码前会核对模板字段，若已被修改（如另行设置消息编码或优先级）则回退为逐字段编码。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipSubmitTemplate {
+
+	private final SgipSubmit prototype;
+
+	/**
+	 * SpNumber、ChargeNumber
+	 */
+	private final byte[] head;
+
+	/**
+	 * CorporationId 至 TP_pid
+	 */
+	private final byte[] middle;
+
+	/**
+	 * MessageCoding、MessageType
+	 */
+	private final byte[] coding;
+
+	/**
+	 * Reserve
+	 */
+	private final byte[] tail;
+
+	/**
+	 * @param prototype 模板字段取自该 Submit，其接收号码、TP_udhi 与短消息内容被忽略
+	 */
+	public SgipSubmitTemplate(SgipSubmit prototype) {
+		this.prototype = new SgipSubmit();
+		copyTemplateFields(prototype, this.prototype);
+		ByteBuf buffer = Unpooled.buffer(42);
+		ByteBufUtil.writeFixedString(buffer, prototype.getSpNumber(), 21);
+		ByteBufUtil.writeFixedString(buffer, prototype.getChargeNumber(), 21);
+		this.head = ByteBufUtil.readBytes(buffer, buffer.readableBytes());
+		buffer.clear();
+		ByteBufUtil.writeFixedString(buffer, prototype.getCorporationId(), 5);
+		ByteBufUtil.writeFixedString(buffer, prototype.getServiceType(), 10);
+		buffer.writeByte(prototype.getFeeType());
+		ByteBufUtil.writeFixedString(buffer, Integer.toString(prototype.getFeeValue()), 6);
+		ByteBufUtil.writeFixedString(buffer, Integer.toString(prototype.getGivenValue()), 6);
+		buffer.writeByte(prototype.getBillFlag());
+		buffer.writeByte(prototype.getMoToMtFlag());
+		buffer.writeByte(prototype.getPriority());
+		ByteBufUtil.writeFixedString(buffer, prototype.getExpireTime(), 16);
+		ByteBufUtil.writeFixedString(buffer, prototype.getScheduleTime(), 16);
+		buffer.writeByte(prototype.getReportFlag());
+		buffer.writeByte(prototype.getTpPid());
+		this.middle = ByteBufUtil.readBytes(buffer, buffer.readableBytes());
+		this.coding = new byte[]{prototype.getMessageCoding(), prototype.getMessageType()};
+		buffer.clear();
+		ByteBufUtil.writeFixedString(buffer, prototype.getReserve(), 8);
+		this.tail = ByteBufUtil.readBytes(buffer, buffer.readableBytes());
+	}
+
+	/**
+	 * 创建 Submit
+	 *
+	 * @param userNumbers    接收号码
+	 * @param messageContent 短消息内容，不复制
+	 * @return 以本模板编码的 Submit
+	 */
+	public SgipSubmit newSubmit(String[] userNumbers, byte[] messageContent) {
+		SgipSubmit submit = newSubmit(userNumbers);
+		submit.setMessageContent(messageContent);
+		return submit;
+	}
+
+	/**
+	 * 创建 Submit
+	 *
+	 * @param userNumbers    接收号码
+	 * @param messageContent 短消息内容，不持有引用，见 {@link SgipSubmit#setMessageContent(ByteBuf)}
+	 * @return 以本模板编码的 Submit
+	 */
+	public SgipSubmit newSubmit(String[] userNumbers, ByteBuf messageContent) {
+		SgipSubmit submit = newSubmit(userNumbers);
+		submit.setMessageContent(messageContent);
+		return submit;
+	}
+
+	/**
+	 * 创建 Submit，短消息内容由调用方另行设置
+	 *
+	 * @param userNumbers 接收号码
+	 * @return 以本模板编码的 Submit
+	 */
+	public SgipSubmit newSubmit(String... userNumbers) {
+		SgipSubmit submit = new SgipSubmit();
+		copyTemplateFields(prototype, submit);
+		submit.setUserNumbers(userNumbers);
+		submit.setTemplate(this);
+		return submit;
+	}
+
+	/**
+	 * 创建 Submit，短消息内容由调用方另行设置
+	 *
+	 * @param userNumbers 紧凑形式的接收号码，不复制
+	 * @return 以本模板编码的 Submit
+	 */
+	public SgipSubmit newSubmit(MsisdnList userNumbers) {
+		SgipSubmit submit = new SgipSubmit();
+		copyTemplateFields(prototype, submit);
+		submit.setUserNumbers(userNumbers);
+		submit.setTemplate(this);
+		return submit;
+	}
+
+	/**
+	 * @param submit Submit
+	 * @return 该 Submit 的模板字段与本模板一致，可整块写入预编码字段
+	 */
+	boolean matches(SgipSubmit submit) {
+		return Objects.equals(submit.getSpNumber(), prototype.getSpNumber())
+			&& Objects.equals(submit.getChargeNumber(), prototype.getChargeNumber())
+			&& Objects.equals(submit.getCorporationId(), prototype.getCorporationId())
+			&& Objects.equals(submit.getServiceType(), prototype.getServiceType())
+			&& submit.getFeeType() == prototype.getFeeType()
+			&& submit.getFeeValue() == prototype.getFeeValue()
+			&& submit.getGivenValue() == prototype.getGivenValue()
+			&& submit.getBillFlag() == prototype.getBillFlag()
+			&& submit.getMoToMtFlag() == prototype.getMoToMtFlag()
+			&& submit.getPriority() == prototype.getPriority()
+			&& Objects.equals(submit.getExpireTime(), prototype.getExpireTime())
+			&& Objects.equals(submit.getScheduleTime(), prototype.getScheduleTime())
+			&& submit.getReportFlag() == prototype.getReportFlag()
+			&& submit.getTpPid() == prototype.getTpPid()
+			&& submit.getMessageCoding() == prototype.getMessageCoding()
+			&& submit.getMessageType() == prototype.getMessageType()
+			&& Objects.equals(submit.getReserve(), prototype.getReserve());
+	}
+
+	void writeBodyBeforeContent(SgipSubmit submit, ByteBuf buffer) {
+		buffer.writeBytes(head);
+		buffer.writeByte(submit.getUserCount());
+		submit.writeUserNumbers(buffer);
+		buffer.writeBytes(middle);
+		buffer.writeByte(submit.getTpUdhi());
+		buffer.writeBytes(coding);
+		buffer.writeInt(submit.getMessageLength());
+	}
+
+	void writeBodyAfterContent(ByteBuf buffer) {
+		buffer.writeBytes(tail);
+	}
+
+	private static void copyTemplateFields(SgipSubmit from, SgipSubmit to) {
+		to.setSpNumber(from.getSpNumber());
+		to.setChargeNumber(from.getChargeNumber());
+		to.setCorporationId(from.getCorporationId());
+		to.setServiceType(from.getServiceType());
+		to.setFeeType(from.getFeeType());
+		to.setFeeValue(from.getFeeValue());
+		to.setGivenValue(from.getGivenValue());
+		to.setBillFlag(from.getBillFlag());
+		to.setMoToMtFlag(from.getMoToMtFlag());
+		to.setPriority(from.getPriority());
+		to.setExpireTime(from.getExpireTime());
+		to.setScheduleTime(from.getScheduleTime());
+		to.setReportFlag(from.getReportFlag());
+		to.setTpPid(from.getTpPid());
+		to.setMessageCoding(from.getMessageCoding());
+		to.setMessageType(from.getMessageType());
+		to.setReserve(from.getReserve());
+		if (from.hasSourceNodeIdAssigned()) {
+			to.setSourceNodeId(from.getSourceNodeId());
+		}
+	}
+}
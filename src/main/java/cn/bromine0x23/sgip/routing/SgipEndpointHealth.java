@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.routing;
+
+import cn.bromine0x23.sgip.SgipEndpoint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 网关端点健康评分
+ * <p>
+ * 以指数加权移动平均（EWMA）跟踪响应时间与错误率（结果非 0 的响应与超时的请求），
+ * 评分为 {@code (1 - 错误率)² × 目标延迟 / (目标延迟 + 平均延迟)}，取值 0 至 1。
+ * 连接失败或错误率达到阈值时熔断，熔断时长按连续熔断次数指数退避；熔断结束后评分从
+ * {@link #minProbeWeight} 起在 {@link #rampMillis} 内线性恢复，流量逐步回切。
+ * <p>
+ * 评分只在采样时计算，读取 {@link #getScore()} 不加锁。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipEndpointHealth {
+
+	/**
+	 * 端点
+	 */
+	@Getter
+	private final SgipEndpoint endpoint;
+
+	/**
+	 * EWMA 平滑系数，越大对最近采样越敏感
+	 */
+	@Getter
+	@Setter
+	private double alpha = 0.3;
+
+	/**
+	 * 目标延迟（毫秒），平均延迟达到该值时评分减半
+	 */
+	@Getter
+	@Setter
+	private long latencyTargetMillis = 200;
+
+	/**
+	 * 触发熔断的错误率
+	 */
+	@Getter
+	@Setter
+	private double tripErrorRate = 0.5;
+
+	/**
+	 * 按错误率熔断所需的最少单次采样请求数
+	 */
+	@Getter
+	@Setter
+	private int tripMinRequests = 5;
+
+	/**
+	 * 首次熔断时长（毫秒）
+	 */
+	@Getter
+	@Setter
+	private long backoffMillis = 1000;
+
+	/**
+	 * 最长熔断时长（毫秒）
+	 */
+	@Getter
+	@Setter
+	private long maxBackoffMillis = 60000;
+
+	/**
+	 * 熔断结束后评分恢复到正常所需的时间（毫秒）
+	 */
+	@Getter
+	@Setter
+	private long rampMillis = 30000;
+
+	/**
+	 * 熔断刚结束时的评分比例
+	 */
+	@Getter
+	@Setter
+	private double minProbeWeight = 0.05;
+
+	private double latency = Double.NaN;
+
+	private double errorRate;
+
+	private int trips;
+
+	private long openUntil;
+
+	private long recoveryStart = Long.MIN_VALUE;
+
+	private volatile double score = 1;
+
+	public SgipEndpointHealth(SgipEndpoint endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * 记录一个采样周期内的请求结果并更新评分
+	 *
+	 * @param now        当前时间（毫秒）
+	 * @param responses  收到的响应数
+	 * @param latencySum 响应时间之和（毫秒）
+	 * @param errors     结果非 0 的响应数
+	 * @param expired    超时的请求数
+	 */
+	public synchronized void recordSample(long now, long responses, long latencySum, long errors, long expired) {
+		long requests = responses + expired;
+		if (requests > 0) {
+			if (responses > 0) {
+				double sample = (double)latencySum / responses;
+				latency = Double.isNaN(latency) ? sample : latency + alpha * (sample - latency);
+			}
+			errorRate += alpha * ((double)(errors + expired) / requests - errorRate);
+			if (errorRate >= tripErrorRate && requests >= tripMinRequests && now >= openUntil) {
+				trip(now);
+			}
+		}
+		update(now);
+	}
+
+	/**
+	 * 记录一次连接失败或连接意外断开，立即熔断
+	 *
+	 * @param now 当前时间（毫秒）
+	 */
+	public synchronized void recordConnectFailure(long now) {
+		if (now >= openUntil) {
+			trip(now);
+		}
+		update(now);
+	}
+
+	/**
+	 * 记录一次连接成功
+	 *
+	 * @param now 当前时间（毫秒）
+	 */
+	public synchronized void recordConnectSuccess(long now) {
+		update(now);
+	}
+
+	/**
+	 * @param now 当前时间（毫秒）
+	 * @return 是否处于熔断中
+	 */
+	public synchronized boolean isOpen(long now) {
+		return now < openUntil;
+	}
+
+	/**
+	 * 按当前时间重新计算评分
+	 *
+	 * @param now 当前时间（毫秒）
+	 */
+	public synchronized void update(long now) {
+		if (now < openUntil) {
+			score = 0;
+			return;
+		}
+		double health = (1 - errorRate) * (1 - errorRate);
+		if (!Double.isNaN(latency)) {
+			health *= latencyTargetMillis / (latencyTargetMillis + latency);
+		}
+		if (recoveryStart != Long.MIN_VALUE) {
+			long elapsed = now - recoveryStart;
+			if (elapsed >= rampMillis) {
+				recoveryStart = Long.MIN_VALUE;
+				trips = 0;
+			} else {
+				health *= minProbeWeight + (1 - minProbeWeight) * elapsed / rampMillis;
+			}
+		}
+		score = health;
+	}
+
+	/**
+	 * @return 评分，0 表示熔断中
+	 */
+	public double getScore() {
+		return score;
+	}
+
+	/**
+	 * @return 平均响应时间（毫秒），尚无采样时为 {@code NaN}
+	 */
+	public synchronized double getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @return 错误率
+	 */
+	public synchronized double getErrorRate() {
+		return errorRate;
+	}
+
+	private void trip(long now) {
+		long backoff = backoffMillis << Math.min(trips++, 20);
+		openUntil     = now + Math.min(backoff, maxBackoffMillis);
+		recoveryStart = openUntil;
+		// 回切后仍然异常时能再次快速熔断
+		errorRate = Math.min(errorRate, tripErrorRate / 2);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("SgipEndpointHealth(%s, score=%.3f, latency=%.1fms, errorRate=%.3f)", endpoint, score, latency, errorRate);
+	}
+}
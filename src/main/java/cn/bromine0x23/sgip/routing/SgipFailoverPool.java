@@ -0,0 +1,375 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.routing;
+
+import cn.bromine0x23.sgip.SgipClient;
+import cn.bromine0x23.sgip.SgipEndpoint;
+import cn.bromine0x23.sgip.SgipSession;
+import cn.bromine0x23.sgip.SgipSessionConfiguration;
+import cn.bromine0x23.sgip.SgipSessionHandler;
+import cn.bromine0x23.sgip.impl.BindableSgipSession;
+import cn.bromine0x23.sgip.metrics.SgipMetrics;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按健康评分在多个网关端点间分配流量的会话池
+ * <p>
+ * 每个端点有独立的会话池与 {@link SgipEndpointHealth}，选择会话时按评分加权随机选择端点，
+ * 选择过程不加锁。后台周期性读取各会话 {@link SgipMetrics} 的增量更新评分，
+ * 移除已断开的会话，并在端点熔断结束后补足连接。
+ * <p>
+ * 可作为 {@link SgipRouter} 路由表的目标。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipFailoverPool implements SgipSessionSelector {
+
+	private static final Logger logger = LoggerFactory.getLogger(SgipFailoverPool.class);
+
+	public static final long DEFAULT_SAMPLE_INTERVAL = 500;
+
+	/**
+	 * 名称
+	 */
+	@Getter
+	private final String name;
+
+	private final Member[] members;
+
+	/**
+	 * 以下由 {@link #connect} 设置，后台补足连接时读取
+	 */
+	private volatile SgipClient client;
+
+	private volatile SgipSessionConfiguration configuration;
+
+	private volatile SgipSessionHandler sessionHandler;
+
+	private volatile int sessionsPerEndpoint;
+
+	private ScheduledExecutorService executor;
+
+	private ScheduledFuture<?> sampleFuture;
+
+	/**
+	 * @param name      名称
+	 * @param endpoints 端点
+	 */
+	public SgipFailoverPool(String name, List<SgipEndpoint> endpoints) {
+		if (endpoints.isEmpty()) {
+			throw new IllegalArgumentException("endpoints must not be empty");
+		}
+		this.name    = name;
+		this.members = new Member[endpoints.size()];
+		for (int i = 0; i < members.length; ++i) {
+			members[i] = new Member(endpoints.get(i), name);
+		}
+	}
+
+	/**
+	 * @param configuration 会话配置，使用其中的端点列表
+	 */
+	public SgipFailoverPool(SgipSessionConfiguration configuration) {
+		this(configuration.getName(), configuration.listEndpoints());
+	}
+
+	public List<Member> getMembers() {
+		return Collections.unmodifiableList(Arrays.asList(members));
+	}
+
+	/**
+	 * @param endpoint 端点
+	 * @return 端点对应的成员，不存在时为 {@code null}
+	 */
+	public Member getMember(SgipEndpoint endpoint) {
+		for (Member member : members) {
+			if (member.endpoint.equals(endpoint)) {
+				return member;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param endpoint 会话连接的端点
+	 * @param session  会话
+	 */
+	public void add(SgipEndpoint endpoint, SgipSession session) {
+		Member member = getMember(endpoint);
+		if (member == null) {
+			throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+		}
+		member.pool.add(session);
+	}
+
+	public void remove(SgipSession session) {
+		for (Member member : members) {
+			member.pool.remove(session);
+		}
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Member member : members) {
+			size += member.pool.size();
+		}
+		return size;
+	}
+
+	/**
+	 * 按评分加权随机选择端点，再在端点内轮询选择已绑定的会话；
+	 * 所有端点评分为 0 时退而选择评分最高且有已绑定会话的端点
+	 *
+	 * @return 会话，没有已绑定的会话时为 {@code null}
+	 */
+	@Override
+	public SgipSession select() {
+		double total = 0;
+		for (Member member : members) {
+			total += member.health.getScore();
+		}
+		if (total > 0) {
+			double point = ThreadLocalRandom.current().nextDouble(total);
+			for (Member member : members) {
+				double score = member.health.getScore();
+				if (score > 0 && (point -= score) < 0) {
+					SgipSession session = member.pool.select();
+					if (session != null) {
+						return session;
+					}
+					break;
+				}
+			}
+		}
+		SgipSession selected = null;
+		double      best     = -1;
+		for (Member member : members) {
+			double score = member.health.getScore();
+			if (score > best) {
+				SgipSession session = member.pool.select();
+				if (session != null) {
+					selected = session;
+					best     = score;
+				}
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * 为每个端点建立会话，连接失败的端点进入熔断，由后台在熔断结束后重试
+	 *
+	 * @param client              客户端
+	 * @param configuration       会话配置
+	 * @param sessionHandler      会话处理器
+	 * @param sessionsPerEndpoint 每个端点的会话数
+	 * @return 建立的会话数
+	 * @throws InterruptedException 被中断
+	 */
+	public synchronized int connect(
+		SgipClient client, SgipSessionConfiguration configuration, SgipSessionHandler sessionHandler, int sessionsPerEndpoint
+	) throws InterruptedException {
+		this.client              = client;
+		this.configuration       = configuration;
+		this.sessionHandler      = sessionHandler;
+		this.sessionsPerEndpoint = sessionsPerEndpoint;
+		int count = 0;
+		for (Member member : members) {
+			count += fill(member);
+		}
+		return count;
+	}
+
+	/**
+	 * 启动后台采样
+	 *
+	 * @param executor       执行器，也用于补足连接
+	 * @param intervalMillis 采样间隔（毫秒）
+	 */
+	public synchronized void start(ScheduledExecutorService executor, long intervalMillis) {
+		if (sampleFuture != null) {
+			throw new IllegalStateException("Failover pool already started");
+		}
+		this.executor     = executor;
+		this.sampleFuture = executor.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 停止后台采样，不关闭会话
+	 */
+	public synchronized void stop() {
+		if (sampleFuture != null) {
+			sampleFuture.cancel(false);
+			sampleFuture = null;
+			executor     = null;
+		}
+	}
+
+	/**
+	 * 采样各端点会话的指标增量并更新评分，移除已断开的会话
+	 */
+	public void sample() {
+		long now = System.currentTimeMillis();
+		for (Member member : members) {
+			member.sample(now);
+			if (member.pool.size() < sessionsPerEndpoint && !member.health.isOpen(now)) {
+				scheduleFill(member);
+			}
+		}
+	}
+
+	private synchronized void scheduleFill(Member member) {
+		if (executor == null || client == null || !member.connecting.compareAndSet(false, true)) {
+			return;
+		}
+		executor.execute(() -> {
+			try {
+				fill(member);
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			} finally {
+				member.connecting.set(false);
+			}
+		});
+	}
+
+	private int fill(Member member) throws InterruptedException {
+		int count = 0;
+		while (member.pool.size() < sessionsPerEndpoint) {
+			SgipSession session;
+			try {
+				session = client.bind(configuration, member.endpoint, sessionHandler);
+			} catch (InterruptedException exception) {
+				throw exception;
+			} catch (Exception exception) {
+				logger.warn("Unable to bind to endpoint [{}]: {}", member.endpoint, exception.getMessage());
+				member.health.recordConnectFailure(System.currentTimeMillis());
+				break;
+			}
+			member.health.recordConnectSuccess(System.currentTimeMillis());
+			member.pool.add(session);
+			++count;
+		}
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return "SgipFailoverPool(" + name + ")";
+	}
+
+	/**
+	 * 端点及其会话池与健康评分
+	 */
+	public static class Member {
+
+		/**
+		 * 端点
+		 */
+		@Getter
+		private final SgipEndpoint endpoint;
+
+		/**
+		 * 端点的会话池
+		 */
+		@Getter
+		private final SgipSessionPool pool;
+
+		/**
+		 * 端点健康评分
+		 */
+		@Getter
+		private final SgipEndpointHealth health;
+
+		private final AtomicBoolean connecting = new AtomicBoolean();
+
+		/**
+		 * 各会话上次采样时的累计值：响应数、响应时间之和、错误响应数、超时请求数
+		 */
+		private Map<SgipSession, long[]> baselines = new IdentityHashMap<>();
+
+		Member(SgipEndpoint endpoint, String name) {
+			this.endpoint = endpoint;
+			this.pool     = new SgipSessionPool(name + "@" + endpoint);
+			this.health   = new SgipEndpointHealth(endpoint);
+		}
+
+		synchronized void sample(long now) {
+			long                     responses  = 0;
+			long                     latencySum = 0;
+			long                     errors     = 0;
+			long                     expired    = 0;
+			Map<SgipSession, long[]> current    = new IdentityHashMap<>();
+			for (SgipSession session : pool.sessions()) {
+				if (session.isClosed()) {
+					// 主动关闭（含排空、Unbind 完成），不计为连接失败
+					pool.remove(session);
+					logger.info("Session on endpoint [{}] is closed, removed from pool", endpoint);
+					session.destroy();
+					continue;
+				}
+				if (isDisconnected(session)) {
+					pool.remove(session);
+					health.recordConnectFailure(now);
+					logger.warn("Session on endpoint [{}] is disconnected, removed from pool", endpoint);
+					session.destroy();
+					continue;
+				}
+				long[] baseline = baselines.get(session);
+				if (!session.isBound()) {
+					// 排空、Unbind 或重连中，不移除也不计入评分
+					if (baseline != null) {
+						current.put(session, baseline);
+					}
+					continue;
+				}
+				SgipMetrics metrics  = session.getMetrics();
+				long[]      totals   = {
+					metrics.getResponseTime().getCount(),
+					metrics.getResponseTime().getSum(),
+					metrics.getResponseErrorCount(),
+					metrics.getRequestsExpired(),
+				};
+				// 计数回退说明指标已重置，此时只记录新的基线
+				if (baseline != null && totals[0] >= baseline[0]) {
+					responses  += totals[0] - baseline[0];
+					latencySum += totals[1] - baseline[1];
+					errors     += totals[2] - baseline[2];
+					expired    += totals[3] - baseline[3];
+				}
+				current.put(session, totals);
+			}
+			baselines = current;
+			health.recordSample(now, responses, latencySum, errors, expired);
+		}
+
+		/**
+		 * @return 连接意外断开且未在排空或 Unbind 中（自动重连的会话由其自身处理）
+		 */
+		private static boolean isDisconnected(SgipSession session) {
+			return session instanceof BindableSgipSession
+				&& !((BindableSgipSession)session).getChannel().isActive()
+				&& !session.isDraining() && !session.isUnbinding();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.routing;
+
+import cn.bromine0x23.sgip.SgipSession;
+import cn.bromine0x23.sgip.exception.RecoverablePduException;
+import cn.bromine0x23.sgip.exception.SgipChannelException;
+import cn.bromine0x23.sgip.exception.SgipPartialSendException;
+import cn.bromine0x23.sgip.exception.SgipTimeoutException;
+import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import cn.bromine0x23.sgip.pdu.SgipPduResponse;
+import cn.bromine0x23.sgip.pdu.SgipSubmit;
+import cn.bromine0x23.sgip.util.MsisdnList;
+import cn.bromine0x23.sgip.windowing.WindowFuture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按号段将消息路由到不同网关的会话池（{@link SgipSessionSelector}）
+ * <p>
+ * 路由表为不可变的 {@link SgipRoutingTable}，更新时整体替换，查找过程中不加锁、不分配对象；
+ * 多接收号码的 Submit 按路由拆分为多条。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipRouter {
+
+	private volatile SgipRoutingTable<SgipSessionSelector> routingTable;
+
+	public SgipRouter() {
+		this(SgipRoutingTable.empty());
+	}
+
+	public SgipRouter(SgipRoutingTable<SgipSessionSelector> routingTable) {
+		this.routingTable = routingTable;
+	}
+
+	public SgipRoutingTable<SgipSessionSelector> getRoutingTable() {
+		return routingTable;
+	}
+
+	/**
+	 * 整体替换路由表，已在进行的查找使用旧表完成
+	 *
+	 * @param routingTable 新路由表
+	 */
+	public void setRoutingTable(SgipRoutingTable<SgipSessionSelector> routingTable) {
+		if (routingTable == null) {
+			throw new IllegalArgumentException("routingTable must not be null");
+		}
+		this.routingTable = routingTable;
+	}
+
+	/**
+	 * @param msisdn 号码
+	 * @return 会话选择器，无路由时为 {@code null}
+	 */
+	public SgipSessionSelector route(CharSequence msisdn) {
+		return routingTable.lookup(msisdn);
+	}
+
+	/**
+	 * @param number 号码数值
+	 * @param digits 号码位数
+	 * @return 会话选择器，无路由时为 {@code null}
+	 */
+	public SgipSessionSelector route(long number, int digits) {
+		return routingTable.lookup(number, digits);
+	}
+
+	/**
+	 * 按接收号码的路由拆分 Submit
+	 * <p>
+	 * 全部号码路由相同时原样返回，不复制；拆分出的消息共享短消息内容
+	 *
+	 * @param submit 消息
+	 * @return 会话选择器到消息的映射，按号码首次出现的顺序排列；无路由的号码归入 {@code null} 键
+	 */
+	public Map<SgipSessionSelector, SgipSubmit> split(SgipSubmit submit) {
+		SgipRoutingTable<SgipSessionSelector> table = routingTable;
+		MsisdnList                            list  = submit.getUserNumberList();
+		int                                   count = submit.getUserCount();
+		if (list != null) {
+			SgipSessionSelector first = count > 0 ? table.lookup(list.getNumber(0), list.getDigits(0)) : null;
+			int                 i     = 1;
+			while (i < count && table.lookup(list.getNumber(i), list.getDigits(i)) == first) {
+				++i;
+			}
+			if (i == count) {
+				return Collections.singletonMap(first, submit);
+			}
+			Map<SgipSessionSelector, MsisdnList> groups = new LinkedHashMap<>();
+			for (i = 0; i < count; ++i) {
+				SgipSessionSelector pool = table.lookup(list.getNumber(i), list.getDigits(i));
+				groups.computeIfAbsent(pool, key -> new MsisdnList(count)).add(list.getNumber(i), list.getDigits(i));
+			}
+			Map<SgipSessionSelector, SgipSubmit> result = new LinkedHashMap<>();
+			for (Map.Entry<SgipSessionSelector, MsisdnList> entry : groups.entrySet()) {
+				result.put(entry.getKey(), submit.withUserNumbers(entry.getValue()));
+			}
+			return result;
+		}
+		String[]            numbers = submit.getUserNumbers();
+		SgipSessionSelector first   = count > 0 ? table.lookup(numbers[0]) : null;
+		int                 i       = 1;
+		while (i < count && table.lookup(numbers[i]) == first) {
+			++i;
+		}
+		if (i == count) {
+			return Collections.singletonMap(first, submit);
+		}
+		Map<SgipSessionSelector, List<String>> groups = new LinkedHashMap<>();
+		for (String number : numbers) {
+			groups.computeIfAbsent(table.lookup(number), key -> new ArrayList<>()).add(number);
+		}
+		Map<SgipSessionSelector, SgipSubmit> result = new LinkedHashMap<>();
+		for (Map.Entry<SgipSessionSelector, List<String>> entry : groups.entrySet()) {
+			result.put(entry.getKey(), submit.withUserNumbers(entry.getValue().toArray(new String[0])));
+		}
+		return result;
+	}
+
+	/**
+	 * 拆分并异步发送 Submit，每条拆分出的消息发往对应会话池中的一个已绑定会话
+	 *
+	 * @param submit        消息
+	 * @param timeoutMillis 请求超时时间
+	 * @return 各条消息的窗口 Future，顺序与 {@link #split} 相同
+	 * @throws RecoverablePduException   有号码无路由或路由的会话池中没有已绑定的会话，此时不发送任何消息
+	 * @throws SgipPartialSendException 已发出部分消息后发送失败，携带已发出消息的 Future 与未发出的消息
+	 */
+	public List<WindowFuture<Integer, SgipPduRequest, SgipPduResponse>> send(
+		SgipSubmit submit, long timeoutMillis
+	) throws RecoverablePduException, UnrecoverablePduException, SgipTimeoutException, SgipChannelException, InterruptedException {
+		Map<SgipSessionSelector, SgipSubmit> parts    = split(submit);
+		Map<SgipSubmit, SgipSession>         sessions = new IdentityHashMap<>();
+		for (Map.Entry<SgipSessionSelector, SgipSubmit> entry : parts.entrySet()) {
+			if (entry.getKey() == null) {
+				throw new RecoverablePduException("No route for user numbers " + String.join(",", entry.getValue().getUserNumbers()));
+			}
+			SgipSession session = entry.getKey().select();
+			if (session == null) {
+				throw new RecoverablePduException("No bound session in " + entry.getKey());
+			}
+			sessions.put(entry.getValue(), session);
+		}
+		List<WindowFuture<Integer, SgipPduRequest, SgipPduResponse>> futures = new ArrayList<>(parts.size());
+		List<SgipSubmit>                                             pending = new ArrayList<>(parts.values());
+		for (SgipSubmit part : pending) {
+			try {
+				futures.add(sessions.get(part).sendRequestPdu(part, timeoutMillis, false));
+			} catch (RecoverablePduException | UnrecoverablePduException | SgipTimeoutException | SgipChannelException | InterruptedException exception) {
+				if (futures.isEmpty()) {
+					throw exception;
+				}
+				if (exception instanceof InterruptedException) {
+					Thread.currentThread().interrupt();
+				}
+				throw new SgipPartialSendException(futures, pending.subList(futures.size(), pending.size()), exception);
+			}
+		}
+		return futures;
+	}
+}
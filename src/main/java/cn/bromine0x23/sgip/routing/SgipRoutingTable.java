@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 号段路由表
+ * <p>
+ * 不可变的十叉数字前缀树，节点以下标存放在 {@code int} 数组中，按最长前缀匹配，查找不分配对象。
+ * 更新时构建新表整体替换，见 {@link SgipRouter#setRoutingTable(SgipRoutingTable)}。
+ *
+ * @param <T> 路由目标类型
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class SgipRoutingTable<T> {
+
+	private static final int RADIX = 10;
+
+	/**
+	 * 第 {@code node} 个节点的第 {@code digit} 个子节点位于 {@code children[node * 10 + digit]}，0 表示无
+	 */
+	private final int[] children;
+
+	/**
+	 * 第 {@code node} 个节点的目标在 {@link #targets} 中的下标，-1 表示无
+	 */
+	private final int[] values;
+
+	private final Object[] targets;
+
+	private final int size;
+
+	private SgipRoutingTable(int[] children, int[] values, Object[] targets, int size) {
+		this.children = children;
+		this.values   = values;
+		this.targets  = targets;
+		this.size     = size;
+	}
+
+	public static <T> Builder<T> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * @return 空表
+	 */
+	public static <T> SgipRoutingTable<T> empty() {
+		return new Builder<T>().build();
+	}
+
+	/**
+	 * @return 前缀数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 按最长前缀查找
+	 *
+	 * @param msisdn 号码，遇到非数字字符时停止匹配
+	 * @return 路由目标，无匹配时为 {@code null}
+	 */
+	public T lookup(CharSequence msisdn) {
+		int node  = 0;
+		int value = values[0];
+		for (int i = 0; i < msisdn.length(); ++i) {
+			int digit = msisdn.charAt(i) - '0';
+			if (digit < 0 || digit >= RADIX) {
+				break;
+			}
+			node = children[node * RADIX + digit];
+			if (node == 0) {
+				break;
+			}
+			if (values[node] >= 0) {
+				value = values[node];
+			}
+		}
+		return target(value);
+	}
+
+	/**
+	 * 按最长前缀查找
+	 *
+	 * @param number 号码数值
+	 * @param digits 号码位数
+	 * @return 路由目标，无匹配时为 {@code null}
+	 * @see cn.bromine0x23.sgip.util.MsisdnList
+	 */
+	public T lookup(long number, int digits) {
+		long divisor = 1;
+		for (int i = 1; i < digits; ++i) {
+			divisor *= 10;
+		}
+		int node  = 0;
+		int value = values[0];
+		for (; divisor > 0; divisor /= 10) {
+			int digit = (int)(number / divisor % 10);
+			node = children[node * RADIX + digit];
+			if (node == 0) {
+				break;
+			}
+			if (values[node] >= 0) {
+				value = values[node];
+			}
+		}
+		return target(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T target(int value) {
+		return value >= 0 ? (T)targets[value] : null;
+	}
+
+	/**
+	 * 路由表构建器
+	 *
+	 * @param <T> 路由目标类型
+	 */
+	public static final class Builder<T> {
+
+		private int[] children = new int[16 * RADIX];
+
+		private int[] values = new int[16];
+
+		private int nodes = 1;
+
+		private int size;
+
+		private final List<Object> targets = new ArrayList<>();
+
+		private final Map<Object, Integer> targetIndexes = new IdentityHashMap<>();
+
+		private Builder() {
+			Arrays.fill(values, -1);
+		}
+
+		/**
+		 * 添加号段，相同前缀后添加的覆盖先添加的
+		 *
+		 * @param prefix 号码前缀，仅含数字，空串表示默认路由
+		 * @param target 路由目标
+		 * @return this
+		 */
+		public Builder<T> add(String prefix, T target) {
+			if (target == null) {
+				throw new IllegalArgumentException("target must not be null");
+			}
+			int node = 0;
+			for (int i = 0; i < prefix.length(); ++i) {
+				int digit = prefix.charAt(i) - '0';
+				if (digit < 0 || digit >= RADIX) {
+					throw new IllegalArgumentException("Prefix must be numeric: " + prefix);
+				}
+				int child = children[node * RADIX + digit];
+				if (child == 0) {
+					child = newNode();
+					children[node * RADIX + digit] = child;
+				}
+				node = child;
+			}
+			if (values[node] < 0) {
+				++size;
+			}
+			Integer index = targetIndexes.get(target);
+			if (index == null) {
+				index = targets.size();
+				targets.add(target);
+				targetIndexes.put(target, index);
+			}
+			values[node] = index;
+			return this;
+		}
+
+		public SgipRoutingTable<T> build() {
+			return new SgipRoutingTable<>(
+				Arrays.copyOf(children, nodes * RADIX),
+				Arrays.copyOf(values, nodes),
+				targets.toArray(),
+				size
+			);
+		}
+
+		private int newNode() {
+			if (nodes == values.length) {
+				int capacity = nodes * 2;
+				children = Arrays.copyOf(children, capacity * RADIX);
+				values   = Arrays.copyOf(values, capacity);
+				Arrays.fill(values, nodes, capacity, -1);
+			}
+			return nodes++;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.routing;
+
+import cn.bromine0x23.sgip.SgipSession;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连接同一网关的会话池，轮询选择已绑定的会话
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipSessionPool implements SgipSessionSelector {
+
+	/**
+	 * 名称
+	 */
+	@Getter
+	private final String name;
+
+	private volatile SgipSession[] sessions = new SgipSession[0];
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	public SgipSessionPool(String name) {
+		this.name = name;
+	}
+
+	public synchronized void add(SgipSession session) {
+		SgipSession[] sessions = Arrays.copyOf(this.sessions, this.sessions.length + 1);
+		sessions[sessions.length - 1] = session;
+		this.sessions = sessions;
+	}
+
+	public synchronized void remove(SgipSession session) {
+		List<SgipSession> list = new ArrayList<>(Arrays.asList(sessions));
+		if (list.remove(session)) {
+			sessions = list.toArray(new SgipSession[0]);
+		}
+	}
+
+	/**
+	 * @return 当前会话，不可修改
+	 */
+	SgipSession[] sessions() {
+		return sessions;
+	}
+
+	@Override
+	public int size() {
+		return sessions.length;
+	}
+
+	/**
+	 * 轮询选择一个已绑定的会话
+	 *
+	 * @return 会话，没有已绑定的会话时为 {@code null}
+	 */
+	@Override
+	public SgipSession select() {
+		SgipSession[] sessions = this.sessions;
+		int           count    = sessions.length;
+		if (count == 0) {
+			return null;
+		}
+		int start = next.getAndIncrement() & Integer.MAX_VALUE;
+		for (int i = 0; i < count; ++i) {
+			SgipSession session = sessions[(start + i) % count];
+			if (session.isBound()) {
+				return session;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "SgipSessionPool(" + name + ")";
+	}
+}
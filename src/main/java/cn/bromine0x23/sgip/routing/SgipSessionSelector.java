@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.routing;
+
+import cn.bromine0x23.sgip.SgipSession;
+
+/**
+ * 会话选择器，{@link SgipRouter} 路由表与 {@link SgipTenantScheduler} 的发送目标
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see SgipSessionPool
+ * @see SgipFailoverPool
+ */
+public interface SgipSessionSelector {
+
+	String getName();
+
+	/**
+	 * @return 会话数
+	 */
+	int size();
+
+	/**
+	 * 选择一个已绑定的会话
+	 *
+	 * @return 会话，没有已绑定的会话时为 {@code null}
+	 */
+	SgipSession select();
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.routing;
+
+import cn.bromine0x23.sgip.SgipAsyncPduResponse;
+import cn.bromine0x23.sgip.SgipSession;
+import cn.bromine0x23.sgip.SgipSessionHandler;
+import cn.bromine0x23.sgip.SgipSessionListener;
+import cn.bromine0x23.sgip.exception.RecoverablePduException;
+import cn.bromine0x23.sgip.exception.SgipTimeoutException;
+import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
+import cn.bromine0x23.sgip.pdu.SgipPdu;
+import cn.bromine0x23.sgip.pdu.SgipPduRequest;
+import cn.bromine0x23.sgip.pdu.SgipPduResponse;
+import cn.bromine0x23.sgip.pdu.SgipSubmit;
+import cn.bromine0x23.sgip.pdu.SgipSubmitResp;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 多个租户共享会话池时的加权公平调度
+ * <p>
+ * 每个租户一个有界队列，按自同步公平排队（SCFQ）排序：队首请求的完成标签为
+ * max(系统虚拟时间, 该租户上一请求的完成标签) + 1 / 权重，发出请求时系统虚拟时间前进到该请求的完成标签。
+ * 有请求可发的租户按队首完成标签放在小根堆中，每次选择为 O(log 租户数)；
+ * 达到自身在途上限的租户暂时移出堆，有请求完成后再放回。
+ * <p>
+ * 总在途数不超过 {@code maxInFlight}（应不大于会话池中各会话窗口大小之和），超出的请求留在各租户队列中，
+ * 不进入会话先到先得的发送队列。会话需以 {@link #wrap} 包装后的处理器绑定，调度器据此得知请求完成；
+ * 未经调度器发送的请求原样交给被包装的处理器。请求以本身为键跟踪，以响应、过期或 {@link SgipSessionHandler#pduRequestFailed} 结束；
+ * 重连后重新发送的请求（{@link SgipSessionHandler#pduRequestResent}）继续计入在途，等待新连接上的响应。
+ * <p>
+ * 请求完成的回调在 I/O 线程上，此后的发送默认直接在该线程进行，只适用于发送不阻塞的会话（{@link cn.bromine0x23.sgip.impl.EventLoopSgipSession}）；
+ * {@link cn.bromine0x23.sgip.impl.DefaultSgipSession} 在窗口已满时阻塞，需指定执行发送的线程池。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SgipTenantScheduler {
+
+	/**
+	 * 权重为 1 的租户每个请求推进的虚拟时间
+	 */
+	private static final long VIRTUAL_TIME_UNIT = 1L << 20;
+
+	@Getter
+	private final SgipSessionSelector pool;
+
+	/**
+	 * 总在途上限
+	 */
+	@Getter
+	private final int maxInFlight;
+
+	private final Map<String, Tenant> tenants = new HashMap<>();
+
+	private final PriorityQueue<Tenant> ready = new PriorityQueue<>((a, b) -> Long.compare(a.headFinish, b.headFinish));
+
+	private final Map<SgipPduRequest, Entry> inFlightEntries = new IdentityHashMap<>();
+
+	private long virtualTime;
+
+	private int inFlight;
+
+	private final Executor executor;
+
+	private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+	/**
+	 * @param pool        会话池
+	 * @param maxInFlight 总在途上限
+	 */
+	public SgipTenantScheduler(SgipSessionSelector pool, int maxInFlight) {
+		this(pool, maxInFlight, null);
+	}
+
+	/**
+	 * @param pool        会话池
+	 * @param maxInFlight 总在途上限
+	 * @param executor    请求完成后执行发送的线程池，为 {@code null} 时在完成回调的线程上发送
+	 */
+	public SgipTenantScheduler(SgipSessionSelector pool, int maxInFlight, Executor executor) {
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("maxInFlight must be > 0");
+		}
+		this.pool        = pool;
+		this.maxInFlight = maxInFlight;
+		this.executor    = executor;
+	}
+
+	/**
+	 * 添加租户
+	 *
+	 * @param name        名称
+	 * @param weight      权重
+	 * @param maxInFlight 在途上限
+	 * @param maxQueued   排队上限
+	 * @return 租户
+	 */
+	public synchronized Tenant addTenant(String name, int weight, int maxInFlight, int maxQueued) {
+		if (weight <= 0 || maxInFlight <= 0 || maxQueued <= 0) {
+			throw new IllegalArgumentException("weight, maxInFlight and maxQueued must be > 0");
+		}
+		if (tenants.containsKey(name)) {
+			throw new IllegalArgumentException("Tenant [" + name + "] already exists");
+		}
+		Tenant tenant = new Tenant(name, weight, maxInFlight, maxQueued);
+		tenants.put(name, tenant);
+		return tenant;
+	}
+
+	/**
+	 * 移除租户，排队中的请求以异常结束，在途请求照常完成
+	 *
+	 * @param name 名称
+	 */
+	public void removeTenant(String name) {
+		List<Entry> removed = new ArrayList<>();
+		synchronized (this) {
+			Tenant tenant = tenants.remove(name);
+			if (tenant == null) {
+				return;
+			}
+			ready.remove(tenant);
+			removed.addAll(tenant.queue);
+			tenant.queue.clear();
+		}
+		for (Entry entry : removed) {
+			entry.future.completeExceptionally(new RecoverablePduException("Tenant [" + name + "] removed"));
+		}
+	}
+
+	public synchronized Tenant getTenant(String name) {
+		return tenants.get(name);
+	}
+
+	public synchronized List<Tenant> getTenants() {
+		return Collections.unmodifiableList(new ArrayList<>(tenants.values()));
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * 以指定租户排队发送 Submit
+	 *
+	 * @param tenant        租户名称
+	 * @param submit        消息
+	 * @param timeoutMillis 发送时传给 {@link SgipSession#sendRequestPdu} 的超时时间
+	 * @return 收到响应时完成；响应的所有权交给调用方
+	 * @throws RecoverablePduException 租户队列已满
+	 */
+	public CompletableFuture<SgipSubmitResp> submit(String tenant, SgipSubmit submit, long timeoutMillis) throws RecoverablePduException {
+		Entry entry;
+		synchronized (this) {
+			Tenant target = tenants.get(tenant);
+			if (target == null) {
+				throw new IllegalArgumentException("Unknown tenant [" + tenant + "]");
+			}
+			if (target.queue.size() >= target.maxQueued) {
+				++target.rejected;
+				throw new RecoverablePduException("Queue of tenant [" + tenant + "] is full");
+			}
+			entry = new Entry(target, submit, timeoutMillis);
+			target.queue.add(entry);
+			if (target.queue.size() == 1) {
+				schedule(target);
+			}
+		}
+		dispatch();
+		return entry.future;
+	}
+
+	/**
+	 * 包装会话处理器，使调度器得知其发出的请求完成
+	 *
+	 * @param delegate 被包装的处理器
+	 * @return 用于绑定会话的处理器
+	 */
+	public SgipSessionListener wrap(SgipSessionHandler delegate) {
+		return new Handler(delegate);
+	}
+
+	/**
+	 * 在线程池上继续发送，合并尚未执行的发送任务
+	 */
+	private void requestDispatch() {
+		if (executor == null) {
+			dispatch();
+		} else if (dispatchScheduled.compareAndSet(false, true)) {
+			executor.execute(() -> {
+				dispatchScheduled.set(false);
+				dispatch();
+			});
+		}
+	}
+
+	/**
+	 * 按完成标签依次发出请求，直到总在途数达到上限或没有可发的租户
+	 */
+	private void dispatch() {
+		while (true) {
+			List<Entry> batch = new ArrayList<>();
+			synchronized (this) {
+				while (inFlight < maxInFlight && !ready.isEmpty()) {
+					Tenant tenant = ready.poll();
+					Entry  entry  = tenant.queue.poll();
+					virtualTime = Math.max(virtualTime, tenant.headFinish);
+					tenant.lastFinish = tenant.headFinish;
+					++tenant.inFlight;
+					++tenant.dispatched;
+					++inFlight;
+					inFlightEntries.put(entry.request, entry);
+					schedule(tenant);
+					batch.add(entry);
+				}
+			}
+			if (batch.isEmpty()) {
+				return;
+			}
+			for (Entry entry : batch) {
+				send(entry);
+			}
+		}
+	}
+
+	private void send(Entry entry) {
+		SgipSession session = pool.select();
+		Throwable   cause;
+		if (session == null) {
+			cause = new RecoverablePduException("No bound session in " + pool);
+		} else {
+			try {
+				session.sendRequestPdu(entry.request, entry.timeoutMillis, false);
+				return;
+			} catch (Exception exception) {
+				cause = exception;
+			}
+		}
+		if (finish(entry.request) != null) {
+			entry.future.completeExceptionally(cause);
+		}
+	}
+
+	/**
+	 * 租户有请求排队且未达在途上限时，以队首请求的完成标签放入堆中
+	 */
+	private void schedule(Tenant tenant) {
+		if (tenant.queue.isEmpty() || tenant.inFlight >= tenant.maxInFlight || tenants.get(tenant.name) != tenant) {
+			return;
+		}
+		tenant.headFinish = Math.max(virtualTime, tenant.lastFinish) + VIRTUAL_TIME_UNIT / tenant.weight;
+		ready.add(tenant);
+	}
+
+	/**
+	 * @return 由调度器发出且尚未结束的请求，否则为 {@code null}
+	 */
+	private synchronized Entry finish(SgipPduRequest request) {
+		Entry entry = inFlightEntries.get(request);
+		if (entry != null) {
+			release(entry);
+		}
+		return entry;
+	}
+
+	private void release(Entry entry) {
+		inFlightEntries.remove(entry.request);
+		Tenant tenant = entry.tenant;
+		--tenant.inFlight;
+		--inFlight;
+		if (tenant.inFlight == tenant.maxInFlight - 1) {
+			schedule(tenant);
+		}
+	}
+
+	/**
+	 * 租户
+	 */
+	public class Tenant {
+
+		@Getter
+		private final String name;
+
+		@Getter
+		private final int weight;
+
+		/**
+		 * 在途上限
+		 */
+		@Getter
+		private final int maxInFlight;
+
+		/**
+		 * 排队上限
+		 */
+		@Getter
+		private final int maxQueued;
+
+		private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+
+		private int inFlight;
+
+		private long dispatched;
+
+		private long rejected;
+
+		private long lastFinish;
+
+		private long headFinish;
+
+		Tenant(String name, int weight, int maxInFlight, int maxQueued) {
+			this.name        = name;
+			this.weight      = weight;
+			this.maxInFlight = maxInFlight;
+			this.maxQueued   = maxQueued;
+		}
+
+		/**
+		 * @return 排队中的请求数
+		 */
+		public int getQueued() {
+			synchronized (SgipTenantScheduler.this) {
+				return queue.size();
+			}
+		}
+
+		/**
+		 * @return 在途请求数
+		 */
+		public int getInFlight() {
+			synchronized (SgipTenantScheduler.this) {
+				return inFlight;
+			}
+		}
+
+		/**
+		 * @return 已发出的请求数
+		 */
+		public long getDispatched() {
+			synchronized (SgipTenantScheduler.this) {
+				return dispatched;
+			}
+		}
+
+		/**
+		 * @return 因队列已满被拒绝的请求数
+		 */
+		public long getRejected() {
+			synchronized (SgipTenantScheduler.this) {
+				return rejected;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "Tenant(" + name + ")";
+		}
+	}
+
+	private static class Entry {
+
+		private final Tenant tenant;
+
+		private final SgipSubmit request;
+
+		private final long timeoutMillis;
+
+		private final CompletableFuture<SgipSubmitResp> future = new CompletableFuture<>();
+
+		Entry(Tenant tenant, SgipSubmit request, long timeoutMillis) {
+			this.tenant        = tenant;
+			this.request       = request;
+			this.timeoutMillis = timeoutMillis;
+		}
+	}
+
+	private class Handler implements SgipSessionListener {
+
+		private final SgipSessionHandler delegate;
+
+		Handler(SgipSessionHandler delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void channelUnexpectedlyClosed() {
+			delegate.channelUnexpectedlyClosed();
+		}
+
+		@Override
+		public SgipPduResponse pduRequestReceived(SgipPduRequest request) {
+			return delegate.pduRequestReceived(request);
+		}
+
+		@Override
+		public void pduRequestExpired(SgipPduRequest request) {
+			Entry entry = finish(request);
+			if (entry == null) {
+				delegate.pduRequestExpired(request);
+				return;
+			}
+			entry.future.completeExceptionally(new SgipTimeoutException("Request expired"));
+			requestDispatch();
+		}
+
+		@Override
+		public void expectedPduResponseReceived(SgipAsyncPduResponse response) {
+			Entry entry = finish(response.getRequest());
+			if (entry == null) {
+				delegate.expectedPduResponseReceived(response);
+				return;
+			}
+			if (response.getResponse() instanceof SgipSubmitResp) {
+				entry.future.complete((SgipSubmitResp)response.getResponse());
+			} else {
+				entry.future.completeExceptionally(new UnrecoverablePduException("Unexpected response " + response.getResponse()));
+			}
+			requestDispatch();
+		}
+
+		@Override
+		public void unexpectedPduResponseReceived(SgipPduResponse response) {
+			delegate.unexpectedPduResponseReceived(response);
+		}
+
+		@Override
+		public void unrecoverablePduException(UnrecoverablePduException exception) {
+			delegate.unrecoverablePduException(exception);
+		}
+
+		@Override
+		public void recoverablePduException(RecoverablePduException exception) {
+			delegate.recoverablePduException(exception);
+		}
+
+		@Override
+		public void unknownThrowable(Throwable throwable) {
+			delegate.unknownThrowable(throwable);
+		}
+
+		@Override
+		public void pduRequestFailed(SgipPduRequest request, Throwable cause) {
+			Entry entry = finish(request);
+			if (entry == null) {
+				delegate.pduRequestFailed(request, cause);
+				return;
+			}
+			entry.future.completeExceptionally(cause);
+			requestDispatch();
+		}
+
+		@Override
+		public void pduRequestResent(SgipPduRequest request) {
+			// 仍在途，等待新连接上的响应
+			boolean scheduled;
+			synchronized (SgipTenantScheduler.this) {
+				scheduled = inFlightEntries.containsKey(request);
+			}
+			if (!scheduled) {
+				delegate.pduRequestResent(request);
+			}
+		}
+
+		@Override
+		public boolean pduReceived(SgipPdu pdu) {
+			return !(delegate instanceof SgipSessionListener) || ((SgipSessionListener)delegate).pduReceived(pdu);
+		}
+
+		@Override
+		public boolean pduDispatch(SgipPdu pdu) {
+			return !(delegate instanceof SgipSessionListener) || ((SgipSessionListener)delegate).pduDispatch(pdu);
+		}
+	}
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import cn.bromine0x23.sgip.pdu.SgipDeliver;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 级联 Deliver 短消息重组器
+ * <p>
+ * 以（UserNumber, SpNumber, 参考号）区分级联组，收齐后按序号拼接各段去除 UDH 后的内容，合并为一条 Deliver。
+ * 未完成的组按到达顺序排列，超时或超出组数、缓存字节数上限时从最早的组开始淘汰，淘汰的分段交给 {@link EvictionListener}。
+ * 内容按字节拼接，适用于 ASCII、UCS2、GBK 等 8 位编码。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class ConcatenatedDeliverReassembler {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConcatenatedDeliverReassembler.class);
+
+	public static final long DEFAULT_TIMEOUT = 60000;
+
+	public static final int DEFAULT_MAX_GROUPS = 10000;
+
+	public static final long DEFAULT_MAX_BUFFERED_BYTES = 16 * 1024 * 1024;
+
+	/**
+	 * 淘汰监听器
+	 */
+	public interface EvictionListener {
+
+		/**
+		 * 未完成的组被淘汰，回调返回后由对象池创建的分段即被回收
+		 *
+		 * @param fragments 按序号排列的分段，未收到的位置为 {@code null}
+		 */
+		void evicted(SgipDeliver[] fragments);
+	}
+
+	/**
+	 * 未完成组的超时时间（毫秒）
+	 */
+	@Getter
+	private final long timeout;
+
+	/**
+	 * 未完成组的最大数量
+	 */
+	@Getter
+	private final int maxGroups;
+
+	/**
+	 * 未完成组缓存内容的最大字节数
+	 */
+	@Getter
+	private final long maxBufferedBytes;
+
+	private final EvictionListener evictionListener;
+
+	private final LinkedHashMap<GroupKey, Group> groups = new LinkedHashMap<>();
+
+	private long bufferedBytes;
+
+	public ConcatenatedDeliverReassembler() {
+		this(DEFAULT_TIMEOUT, DEFAULT_MAX_GROUPS, DEFAULT_MAX_BUFFERED_BYTES, null);
+	}
+
+	/**
+	 * @param timeout          未完成组的超时时间（毫秒）
+	 * @param maxGroups        未完成组的最大数量
+	 * @param maxBufferedBytes 未完成组缓存内容的最大字节数
+	 * @param evictionListener 淘汰监听器，为 {@code null} 时淘汰的分段被丢弃
+	 */
+	public ConcatenatedDeliverReassembler(long timeout, int maxGroups, long maxBufferedBytes, EvictionListener evictionListener) {
+		if (timeout <= 0 || maxGroups <= 0 || maxBufferedBytes <= 0) {
+			throw new IllegalArgumentException("timeout, maxGroups and maxBufferedBytes must be positive");
+		}
+		this.timeout          = timeout;
+		this.maxGroups        = maxGroups;
+		this.maxBufferedBytes = maxBufferedBytes;
+		this.evictionListener = evictionListener;
+	}
+
+	/**
+	 * 提交收到的 Deliver
+	 *
+	 * @param deliver 收到的 Deliver
+	 * @return 非级联消息原样返回；级联消息收齐时返回合并后的 Deliver，否则返回 {@code null}
+	 */
+	public SgipDeliver offer(SgipDeliver deliver) {
+		if (deliver.getTpUdhi() == SgipConstants.TpUdhi.NORMAL) {
+			return deliver;
+		}
+		ConcatenatedHeader header = ShortMessageUtil.parseConcatenatedHeader(deliver.getRawMessageContent());
+		if (header == null) {
+			return deliver;
+		}
+		if (header.getSegmentsCount() == 1) {
+			return join(deliver, new SgipDeliver[]{deliver}, new int[]{header.getHeaderLength()});
+		}
+		long                now     = System.nanoTime();
+		GroupKey            key     = new GroupKey(deliver.getUserNumber(), deliver.getSpNumber(), header.getReference());
+		List<SgipDeliver[]> evicted = new ArrayList<>();
+		SgipDeliver         result  = null;
+		synchronized (this) {
+			evictExpired(now, evicted);
+			Group group = groups.get(key);
+			if (group != null && group.fragments.length != header.getSegmentsCount()) {
+				// 参考号被复用于另一条消息
+				evicted.add(remove(key).fragments);
+				group = null;
+			}
+			if (group == null) {
+				group = new Group(header.getSegmentsCount(), now + TimeUnit.MILLISECONDS.toNanos(timeout));
+				groups.put(key, group);
+			}
+			int index = header.getSequence() - 1;
+			if (group.fragments[index] == null) {
+				group.received += 1;
+			} else {
+				group.bytes -= group.fragments[index].getMessageLength();
+				bufferedBytes -= group.fragments[index].getMessageLength();
+				group.fragments[index].release();
+			}
+			deliver.retain();
+			group.fragments[index]     = deliver;
+			group.headerLengths[index] = header.getHeaderLength();
+			group.bytes += deliver.getMessageLength();
+			bufferedBytes += deliver.getMessageLength();
+			if (group.received == group.fragments.length) {
+				remove(key);
+				result = join(deliver, group.fragments, group.headerLengths);
+				release(group.fragments);
+			} else {
+				evictOverflow(evicted);
+			}
+		}
+		notifyEvicted(evicted);
+		return result;
+	}
+
+	/**
+	 * 淘汰超时的未完成组，可由调用方定期调用；{@link #offer(SgipDeliver)} 时也会顺带淘汰
+	 *
+	 * @return 淘汰的组数
+	 */
+	public int evictExpired() {
+		List<SgipDeliver[]> evicted = new ArrayList<>();
+		synchronized (this) {
+			evictExpired(System.nanoTime(), evicted);
+		}
+		notifyEvicted(evicted);
+		return evicted.size();
+	}
+
+	/**
+	 * @return 未完成组的数量
+	 */
+	public synchronized int getGroupsCount() {
+		return groups.size();
+	}
+
+	/**
+	 * @return 未完成组缓存内容的字节数
+	 */
+	public synchronized long getBufferedBytes() {
+		return bufferedBytes;
+	}
+
+	private void evictExpired(long now, List<SgipDeliver[]> evicted) {
+		// 超时时间相同，按插入顺序即按截止时间排列
+		Iterator<Group> iterator = groups.values().iterator();
+		while (iterator.hasNext()) {
+			Group group = iterator.next();
+			if (group.deadline - now > 0) {
+				break;
+			}
+			iterator.remove();
+			bufferedBytes -= group.bytes;
+			evicted.add(group.fragments);
+		}
+	}
+
+	private void evictOverflow(List<SgipDeliver[]> evicted) {
+		Iterator<Group> iterator = groups.values().iterator();
+		while ((groups.size() > maxGroups || bufferedBytes > maxBufferedBytes) && iterator.hasNext()) {
+			Group group = iterator.next();
+			iterator.remove();
+			bufferedBytes -= group.bytes;
+			evicted.add(group.fragments);
+		}
+	}
+
+	private Group remove(GroupKey key) {
+		Group group = groups.remove(key);
+		bufferedBytes -= group.bytes;
+		return group;
+	}
+
+	private void notifyEvicted(List<SgipDeliver[]> evicted) {
+		for (SgipDeliver[] fragments : evicted) {
+			if (evictionListener != null) {
+				evictionListener.evicted(fragments);
+			} else {
+				logger.warn("Incomplete concatenated deliver evicted without listener, {} fragments dropped", count(fragments));
+			}
+			release(fragments);
+		}
+	}
+
+	private static int count(SgipDeliver[] fragments) {
+		int count = 0;
+		for (SgipDeliver fragment : fragments) {
+			if (fragment != null) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	private static void release(SgipDeliver[] fragments) {
+		for (SgipDeliver fragment : fragments) {
+			if (fragment != null) {
+				fragment.release();
+			}
+		}
+	}
+
+	/**
+	 * 合并各段，头部字段取自最后到达的分段，以便对其应答
+	 */
+	private static SgipDeliver join(SgipDeliver last, SgipDeliver[] fragments, int[] headerLengths) {
+		int length = 0;
+		for (int i = 0; i < fragments.length; ++i) {
+			length += fragments[i].getRawMessageContent().length - headerLengths[i];
+		}
+		byte[] content = new byte[length];
+		int    offset  = 0;
+		for (int i = 0; i < fragments.length; ++i) {
+			byte[] fragment = fragments[i].getRawMessageContent();
+			System.arraycopy(fragment, headerLengths[i], content, offset, fragment.length - headerLengths[i]);
+			offset += fragment.length - headerLengths[i];
+		}
+		SgipDeliver deliver = new SgipDeliver();
+		deliver.setSourceNodeId(last.getSourceNodeId());
+		deliver.setTimestamp(last.getTimestamp());
+		deliver.setSequenceNumber(last.getSequenceNumber());
+		deliver.setUserNumber(last.getUserNumber());
+		deliver.setSpNumber(last.getSpNumber());
+		deliver.setTpPid(last.getTpPid());
+		deliver.setTpUdhi(SgipConstants.TpUdhi.NORMAL);
+		deliver.setMessageCoding(last.getMessageCoding());
+		deliver.setMessageType(last.getMessageType());
+		deliver.setRawMessageContent(content);
+		deliver.setReserve(last.getReserve());
+		return deliver;
+	}
+
+	@EqualsAndHashCode
+	private static final class GroupKey {
+
+		private final String userNumber;
+
+		private final String spNumber;
+
+		private final int reference;
+
+		GroupKey(String userNumber, String spNumber, int reference) {
+			this.userNumber = userNumber;
+			this.spNumber   = spNumber;
+			this.reference  = reference;
+		}
+	}
+
+	private static final class Group {
+
+		private final SgipDeliver[] fragments;
+
+		private final int[] headerLengths;
+
+		private final long deadline;
+
+		private int received;
+
+		private long bytes;
+
+		Group(int segmentsCount, long deadline) {
+			this.fragments     = new SgipDeliver[segmentsCount];
+			this.headerLengths = new int[segmentsCount];
+			this.deadline      = deadline;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import lombok.Getter;
+
+/**
+ * 级联短消息 UDH 信息
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see ShortMessageUtil#parseConcatenatedHeader(byte[])
+ */
+@SuppressWarnings("unused")
+public class ConcatenatedHeader {
+
+	/**
+	 * 参考号
+	 */
+	@Getter
+	private final int reference;
+
+	/**
+	 * 总段数
+	 */
+	@Getter
+	private final int segmentsCount;
+
+	/**
+	 * 当前段序号，从 1 开始
+	 */
+	@Getter
+	private final int sequence;
+
+	/**
+	 * UDH 总长度（含 UDHL 字节）
+	 */
+	@Getter
+	private final int headerLength;
+
+	public ConcatenatedHeader(int reference, int segmentsCount, int sequence, int headerLength) {
+		this.reference     = reference;
+		this.segmentsCount = segmentsCount;
+		this.sequence      = sequence;
+		this.headerLength  = headerLength;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 级联短消息参考号分配器
+ * <p>
+ * 按接收号码散列到固定数量的计数器上分配参考号，同一号码的参考号单调递增，
+ * 不同号码之间互不消耗参考号空间；散列到同一计数器的号码共享计数，仅使参考号前进更快，不会产生重复。
+ * 计数器初值随机，避免进程重启后对同一号码重复使用刚用过的参考号。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class ConcatenatedReferenceAllocator {
+
+	public static final int DEFAULT_STRIPES = 4096;
+
+	/**
+	 * 是否使用 16 位参考号（IEI 0x08），否则使用 8 位参考号（IEI 0x00）
+	 */
+	@Getter
+	private final boolean wideReference;
+
+	private final AtomicIntegerArray counters;
+
+	private final int mask;
+
+	/**
+	 * 创建使用 16 位参考号的分配器
+	 */
+	public ConcatenatedReferenceAllocator() {
+		this(true, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * @param wideReference 是否使用 16 位参考号
+	 * @param stripes       计数器数量，向上取整为 2 的幂
+	 */
+	public ConcatenatedReferenceAllocator(boolean wideReference, int stripes) {
+		if (stripes <= 0 || stripes > (1 << 30)) {
+			throw new IllegalArgumentException("stripes must between 1 and 2^30");
+		}
+		int size = Integer.highestOneBit(stripes);
+		if (size < stripes) {
+			size <<= 1;
+		}
+		this.wideReference = wideReference;
+		this.counters = new AtomicIntegerArray(size);
+		this.mask = size - 1;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < size; ++i) {
+			counters.set(i, random.nextInt());
+		}
+	}
+
+	/**
+	 * 为发往指定号码的级联短消息分配参考号
+	 *
+	 * @param destination 接收号码
+	 * @return 参考号，8 位时取值 0-255，16 位时取值 0-65535
+	 */
+	public int next(CharSequence destination) {
+		int reference = counters.getAndIncrement(indexOf(destination));
+		return wideReference ? reference & 0xFFFF : reference & 0xFF;
+	}
+
+	private int indexOf(CharSequence destination) {
+		int hash = 0;
+		if (destination instanceof String) {
+			hash = destination.hashCode();
+		} else if (destination != null) {
+			for (int i = 0; i < destination.length(); ++i) {
+				hash = 31 * hash + destination.charAt(i);
+			}
+		}
+		// 号码前缀大多相同，打散后再取低位
+		hash ^= (hash >>> 16);
+		hash *= 0x85EBCA6B;
+		hash ^= (hash >>> 13);
+		return hash & mask;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import lombok.Getter;
+
+/**
+ * 已编码的短消息
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings("unused")
+public class EncodedShortMessage {
+
+	/**
+	 * 编码方式
+	 */
+	@Getter
+	private final ShortMessageEncoding encoding;
+
+	/**
+	 * 编码后的数据段，多于一段时每段均以 UDH 开头
+	 */
+	@Getter
+	private final byte[][] segments;
+
+	public EncodedShortMessage(ShortMessageEncoding encoding, byte[][] segments) {
+		this.encoding = encoding;
+		this.segments = segments;
+	}
+
+	/**
+	 * @return {@code MessageCoding} 字段值
+	 */
+	public byte getMessageCoding() {
+		return encoding.getDataCoding();
+	}
+
+	/**
+	 * @return {@code TP_udhi} 字段值
+	 */
+	public byte getTpUdhi() {
+		return segments.length > 1 ? SgipConstants.TpUdhi.CONTAINS_HEADER : SgipConstants.TpUdhi.NORMAL;
+	}
+
+	public int getSegmentsCount() {
+		return segments.length;
+	}
+}
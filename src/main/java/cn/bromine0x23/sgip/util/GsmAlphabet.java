@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * GSM 7 bit 缺省字母表编码工具
+ * <p>
+ * 参见 3GPP TS 23.038／GSM 03.38 6.2.1 及 6.2.1.1
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class GsmAlphabet {
+
+	/**
+	 * 扩展表转义符
+	 */
+	public static final byte ESCAPE = 0x1B;
+
+	/**
+	 * 缺省字母表（6.2.1），下标即编码值
+	 */
+	private static final String DEFAULT_ALPHABET =
+		"@£$¥èéùìòÇ\nØø\rÅåΔ_ΦΓΛΩΠΨΣΘΞ\u001BÆæßÉ !\"#¤%&'()*+,-./0123456789:;<=>?" +
+		"¡ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÑÜ§¿abcdefghijklmnopqrstuvwxyzäöñüà";
+
+	/**
+	 * 缺省字母表扩展表（6.2.1.1），需前置 {@link #ESCAPE}
+	 */
+	private static final char[] EXTENSION_CHARS = {'\f', '^', '{', '}', '\\', '[', '~', ']', '|', '€'};
+	private static final byte[] EXTENSION_CODES = {0x0A, 0x14, 0x28, 0x29, 0x2F, 0x3C, 0x3D, 0x3E, 0x40, 0x65};
+
+	private static final byte CARRIAGE_RETURN = 0x0D;
+
+	/**
+	 * ASCII 字符到缺省字母表的快速映射，-1 表示不在缺省字母表中
+	 */
+	private static final byte[] ASCII_TO_DEFAULT = new byte[0x80];
+
+	static {
+		for (int i = 0; i < ASCII_TO_DEFAULT.length; ++i) {
+			ASCII_TO_DEFAULT[i] = -1;
+		}
+		for (int i = 0; i < DEFAULT_ALPHABET.length(); ++i) {
+			char c = DEFAULT_ALPHABET.charAt(i);
+			if (c < 0x80 && i != ESCAPE) {
+				ASCII_TO_DEFAULT[c] = (byte)i;
+			}
+		}
+	}
+
+	private GsmAlphabet() {
+	}
+
+	/**
+	 * 查询字符在缺省字母表中的编码
+	 *
+	 * @param c 字符
+	 * @return 编码值，不在缺省字母表中时返回 -1
+	 */
+	public static int toDefault(char c) {
+		if (c < 0x80) {
+			return ASCII_TO_DEFAULT[c];
+		}
+		int index = DEFAULT_ALPHABET.indexOf(c);
+		return index == ESCAPE ? -1 : index;
+	}
+
+	/**
+	 * 查询字符在扩展表中的编码
+	 *
+	 * @param c 字符
+	 * @return 编码值（不含转义符），不在扩展表中时返回 -1
+	 */
+	public static int toExtension(char c) {
+		for (int i = 0; i < EXTENSION_CHARS.length; ++i) {
+			if (EXTENSION_CHARS[i] == c) {
+				return EXTENSION_CODES[i];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 计算字符编码后占用的 septet 数
+	 *
+	 * @param c 字符
+	 * @return 1（缺省字母表）、2（扩展表）或 -1（无法编码）
+	 */
+	public static int countSeptets(char c) {
+		if (toDefault(c) >= 0) {
+			return 1;
+		}
+		if (toExtension(c) >= 0) {
+			return 2;
+		}
+		return -1;
+	}
+
+	/**
+	 * 计算字符串编码后占用的 septet 数
+	 *
+	 * @param content 字符串
+	 * @return septet 数，无法编码时返回 -1
+	 */
+	public static int countSeptets(CharSequence content) {
+		int count = 0;
+		for (int i = 0; i < content.length(); ++i) {
+			int septets = countSeptets(content.charAt(i));
+			if (septets < 0) {
+				return -1;
+			}
+			count += septets;
+		}
+		return count;
+	}
+
+	public static boolean canEncode(CharSequence content) {
+		return countSeptets(content) >= 0;
+	}
+
+	/**
+	 * 将字符串转换为未压缩的 septet 序列
+	 *
+	 * @param content 字符串
+	 * @return 每字节一个 septet
+	 * @throws IllegalArgumentException 包含无法编码的字符
+	 */
+	public static byte[] toSeptets(CharSequence content) {
+		int count = countSeptets(content);
+		if (count < 0) {
+			throw new IllegalArgumentException("Content contains characters outside GSM 7 bit default alphabet");
+		}
+		byte[] septets = new byte[count];
+		int    offset  = 0;
+		for (int i = 0; i < content.length(); ++i) {
+			char c     = content.charAt(i);
+			int  value = toDefault(c);
+			if (value >= 0) {
+				septets[offset++] = (byte)value;
+			} else {
+				septets[offset++] = ESCAPE;
+				septets[offset++] = (byte)toExtension(c);
+			}
+		}
+		return septets;
+	}
+
+	/**
+	 * 压缩 septet 序列
+	 * <p>
+	 * 参见 3GPP TS 23.038／GSM 03.38 6.1.2.1.1，末尾恰好余 7 位时按 6.1.2.3.1 填充 CR
+	 *
+	 * @param septets     未压缩的 septet 序列
+	 * @param paddingBits 起始填充位数（存在 UDH 时用于对齐 septet 边界）
+	 * @return 压缩后的字节
+	 */
+	public static byte[] pack(byte[] septets, int paddingBits) {
+		int    bits   = paddingBits + septets.length * 7;
+		byte[] packed = new byte[(bits + 7) / 8];
+		for (int i = 0; i < septets.length; ++i) {
+			packSeptet(packed, paddingBits + i * 7, septets[i]);
+		}
+		if (bits % 8 == 1) {
+			packSeptet(packed, bits, CARRIAGE_RETURN);
+		}
+		return packed;
+	}
+
+	/**
+	 * 将字符串的一部分直接压缩写入字节缓冲，不产生中间数组
+	 *
+	 * @param content     字符串
+	 * @param start       起始下标（含）
+	 * @param end         结束下标（不含）
+	 * @param paddingBits 起始填充位数
+	 * @param buffer      目标字节缓冲
+	 * @return 写入的字节数
+	 * @throws IllegalArgumentException 包含无法编码的字符
+	 * @see #pack(byte[], int)
+	 */
+	public static int pack(CharSequence content, int start, int end, int paddingBits, ByteBuf buffer) {
+		int writerIndex = buffer.writerIndex();
+		int accumulator = 0;
+		int bits        = paddingBits;
+		for (int i = start; i < end; ++i) {
+			char c     = content.charAt(i);
+			int  value = toDefault(c);
+			if (value < 0) {
+				int extension = toExtension(c);
+				if (extension < 0) {
+					throw new IllegalArgumentException("Content contains characters outside GSM 7 bit default alphabet");
+				}
+				accumulator |= ESCAPE << bits;
+				bits += 7;
+				while (bits >= 8) {
+					buffer.writeByte(accumulator);
+					accumulator >>>= 8;
+					bits -= 8;
+				}
+				value = extension;
+			}
+			accumulator |= value << bits;
+			bits += 7;
+			while (bits >= 8) {
+				buffer.writeByte(accumulator);
+				accumulator >>>= 8;
+				bits -= 8;
+			}
+		}
+		if (bits == 1) {
+			accumulator |= CARRIAGE_RETURN << 1;
+		}
+		if (bits > 0) {
+			buffer.writeByte(accumulator);
+		}
+		return buffer.writerIndex() - writerIndex;
+	}
+
+	private static void packSeptet(byte[] packed, int bitOffset, byte septet) {
+		int value = septet & 0x7F;
+		int index = bitOffset >>> 3;
+		int shift = bitOffset & 0x07;
+		packed[index] |= (byte)(value << shift);
+		if (shift > 1 && index + 1 < packed.length) {
+			packed[index + 1] |= (byte)(value >>> (8 - shift));
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 短消息内容缓存
+ * <p>
+ * 相同内容发往大量号码时，按内容去重得到共享的只读直接缓冲，
+ * 通过 {@link cn.bromine0x23.sgip.pdu.SgipSubmit#setMessageContent(ByteBuf)} 设置后，
+ * 编码时以保留引用的切片接入复合缓冲，内容在内存中只有一份，也不逐条复制。
+ * <p>
+ * 缓存自身持有每个条目的一个引用，超出容量时按最近最少使用淘汰并释放该引用；
+ * {@link #acquire(byte[])} 返回的缓冲另外增加一个引用，调用方在引用它的所有 Submit 写出后释放。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class MessageContentCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+
+	/**
+	 * 最大条目数
+	 */
+	@Getter
+	private final int maxEntries;
+
+	private final LinkedHashMap<Key, ByteBuf> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	public MessageContentCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries 最大条目数
+	 */
+	public MessageContentCache(int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be positive");
+		}
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * 获取与 {@code content} 内容相同的共享缓冲
+	 *
+	 * @param content 短消息内容，不保留引用
+	 * @return 只读缓冲，引用计数已增加，由调用方释放
+	 */
+	public synchronized ByteBuf acquire(byte[] content) {
+		Key     key    = new Key(content);
+		ByteBuf buffer = entries.get(key);
+		if (buffer == null) {
+			ByteBuf direct = Unpooled.directBuffer(content.length, content.length);
+			direct.writeBytes(content);
+			buffer = direct.asReadOnly();
+			entries.put(new Key(content.clone(), key.hash), buffer);
+			evictOverflow();
+		}
+		return buffer.retain();
+	}
+
+	/**
+	 * @return 条目数
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * 清空缓存，释放缓存持有的引用
+	 */
+	public synchronized void clear() {
+		for (ByteBuf buffer : entries.values()) {
+			buffer.release();
+		}
+		entries.clear();
+	}
+
+	private void evictOverflow() {
+		Iterator<ByteBuf> iterator = entries.values().iterator();
+		while (entries.size() > maxEntries && iterator.hasNext()) {
+			ByteBuf buffer = iterator.next();
+			iterator.remove();
+			buffer.release();
+		}
+	}
+
+	private static final class Key {
+
+		private final byte[] content;
+
+		private final int hash;
+
+		Key(byte[] content) {
+			this(content, Arrays.hashCode(content));
+		}
+
+		Key(byte[] content, int hash) {
+			this.content = content;
+			this.hash    = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			return object instanceof Key && hash == ((Key)object).hash && Arrays.equals(content, ((Key)object).content);
+		}
+	}
+}
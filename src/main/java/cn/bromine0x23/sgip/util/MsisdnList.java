@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑的手机号码列表
+ * <p>
+ * 纯数字号码以 {@code long} 数值与位数（保留前导零）存放，每个号码 9 字节，
+ * 编码时直接写入定长字段，解码时直接从字段解析，不经过 {@link String}。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class MsisdnList {
+
+	/**
+	 * 号码最大位数，{@code long} 可无损表示的十进制位数
+	 */
+	public static final int MAX_DIGITS = 18;
+
+	private long[] numbers;
+
+	private byte[] digits;
+
+	private int size;
+
+	public MsisdnList() {
+		this(1);
+	}
+
+	/**
+	 * @param capacity 初始容量
+	 */
+	public MsisdnList(int capacity) {
+		this.numbers = new long[Math.max(capacity, 1)];
+		this.digits  = new byte[numbers.length];
+	}
+
+	/**
+	 * @param msisdns 号码
+	 * @return 号码列表
+	 * @throws IllegalArgumentException 号码不是 1 至 {@value #MAX_DIGITS} 位数字
+	 */
+	public static MsisdnList of(CharSequence... msisdns) {
+		MsisdnList list = new MsisdnList(msisdns.length);
+		for (CharSequence msisdn : msisdns) {
+			list.add(msisdn);
+		}
+		return list;
+	}
+
+	/**
+	 * @param msisdn 号码
+	 * @return 是否可以紧凑存放，即由 1 至 {@value #MAX_DIGITS} 位数字组成
+	 */
+	public static boolean isCompactable(CharSequence msisdn) {
+		int length = msisdn.length();
+		if (length == 0 || length > MAX_DIGITS) {
+			return false;
+		}
+		for (int i = 0; i < length; ++i) {
+			char c = msisdn.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 添加号码
+	 *
+	 * @param msisdn 号码
+	 * @throws IllegalArgumentException 号码不是 1 至 {@value #MAX_DIGITS} 位数字
+	 */
+	public void add(CharSequence msisdn) {
+		if (!isCompactable(msisdn)) {
+			throw new IllegalArgumentException("Not a numeric MSISDN of at most " + MAX_DIGITS + " digits: " + msisdn);
+		}
+		long number = 0;
+		for (int i = 0; i < msisdn.length(); ++i) {
+			number = number * 10 + (msisdn.charAt(i) - '0');
+		}
+		add(number, msisdn.length());
+	}
+
+	/**
+	 * 添加号码
+	 *
+	 * @param number 号码数值
+	 * @param count  号码位数，不足的高位补 0
+	 */
+	public void add(long number, int count) {
+		if (count <= 0 || count > MAX_DIGITS || number < 0 || number >= pow10(count)) {
+			throw new IllegalArgumentException("Number " + number + " does not fit in " + count + " digits");
+		}
+		if (size == numbers.length) {
+			numbers = Arrays.copyOf(numbers, size * 2);
+			digits  = Arrays.copyOf(digits, size * 2);
+		}
+		numbers[size] = number;
+		digits[size]  = (byte)count;
+		++size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getNumber(int index) {
+		checkIndex(index);
+		return numbers[index];
+	}
+
+	public int getDigits(int index) {
+		checkIndex(index);
+		return digits[index];
+	}
+
+	/**
+	 * @return 第 {@code index} 个号码的字符串形式
+	 */
+	public String get(int index) {
+		checkIndex(index);
+		char[] chars = new char[digits[index]];
+		long   value = numbers[index];
+		for (int i = chars.length - 1; i >= 0; --i) {
+			chars[i] = (char)('0' + value % 10);
+			value /= 10;
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * @return 全部号码的字符串形式
+	 */
+	public String[] toArray() {
+		String[] array = new String[size];
+		for (int i = 0; i < size; ++i) {
+			array[i] = get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * 将第 {@code index} 个号码写为定长字段，不足部分补 0 字节
+	 *
+	 * @param index  下标
+	 * @param buffer 字节缓冲
+	 * @param length 字段长度
+	 */
+	public void write(int index, ByteBuf buffer, int length) {
+		checkIndex(index);
+		int  count = Math.min(digits[index], length);
+		long value = numbers[index];
+		int  start = buffer.writerIndex();
+		buffer.ensureWritable(length);
+		for (int i = digits[index] - 1; i >= count; --i) {
+			value /= 10;
+		}
+		if (buffer.hasArray()) {
+			byte[] array  = buffer.array();
+			int    offset = buffer.arrayOffset() + start;
+			for (int i = count - 1; i >= 0; --i) {
+				long quotient = value / 10;
+				array[offset + i] = (byte)('0' + (int)(value - quotient * 10));
+				value = quotient;
+			}
+		} else {
+			for (int i = count - 1; i >= 0; --i) {
+				long quotient = value / 10;
+				buffer.setByte(start + i, '0' + (int)(value - quotient * 10));
+				value = quotient;
+			}
+		}
+		buffer.writerIndex(start + count);
+		buffer.writeZero(length - count);
+	}
+
+	/**
+	 * 读取 {@code count} 个定长号码字段
+	 *
+	 * @param buffer 字节缓冲
+	 * @param count  号码数
+	 * @param length 字段长度
+	 * @return 号码列表；有号码不是 1 至 {@value #MAX_DIGITS} 位数字时返回 {@code null}，且不改变读下标
+	 */
+	public static MsisdnList read(ByteBuf buffer, int count, int length) {
+		MsisdnList list  = new MsisdnList(count);
+		int        start = buffer.readerIndex();
+		for (int i = 0; i < count; ++i) {
+			int  offset = start + i * length;
+			long number = 0;
+			int  digits = 0;
+			for (; digits < length; ++digits) {
+				byte b = buffer.getByte(offset + digits);
+				if (b == 0 || b == ' ') {
+					break;
+				}
+				if (b < '0' || b > '9' || digits == MAX_DIGITS) {
+					return null;
+				}
+				number = number * 10 + (b - '0');
+			}
+			for (int j = digits; j < length; ++j) {
+				byte b = buffer.getByte(offset + j);
+				if (b != 0 && b != ' ') {
+					return null;
+				}
+			}
+			if (digits == 0) {
+				return null;
+			}
+			list.add(number, digits);
+		}
+		buffer.skipBytes(count * length);
+		return list;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		if (!(object instanceof MsisdnList)) {
+			return false;
+		}
+		MsisdnList other = (MsisdnList)object;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; ++i) {
+			if (numbers[i] != other.numbers[i] || digits[i] != other.digits[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; ++i) {
+			hash = 31 * hash + Long.hashCode(numbers[i]);
+			hash = 31 * hash + digits[i];
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private static long pow10(int exponent) {
+		long value = 1;
+		for (int i = 0; i < exponent; ++i) {
+			value *= 10;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import lombok.Getter;
+
+/**
+ * 以字节缓冲形式编码的短消息
+ * <p>
+ * 多于一段时，每段为 UDH 与正文切片组成的 {@link io.netty.buffer.CompositeByteBuf}，
+ * 各段共享同一块编码后的正文缓冲，不发生复制。
+ * 各段的所有权属于本对象，使用完毕后需调用 {@link #release()}；
+ * {@link cn.bromine0x23.sgip.pdu.SgipSubmit} 编码时自行持有引用，提交后即可释放。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings("unused")
+public class SegmentedShortMessage {
+
+	/**
+	 * 编码方式
+	 */
+	@Getter
+	private final ShortMessageEncoding encoding;
+
+	/**
+	 * 编码后的数据段
+	 */
+	@Getter
+	private final ByteBuf[] segments;
+
+	public SegmentedShortMessage(ShortMessageEncoding encoding, ByteBuf[] segments) {
+		this.encoding = encoding;
+		this.segments = segments;
+	}
+
+	/**
+	 * @return {@code MessageCoding} 字段值
+	 */
+	public byte getMessageCoding() {
+		return encoding.getDataCoding();
+	}
+
+	/**
+	 * @return {@code TP_udhi} 字段值
+	 */
+	public byte getTpUdhi() {
+		return segments.length > 1 ? SgipConstants.TpUdhi.CONTAINS_HEADER : SgipConstants.TpUdhi.NORMAL;
+	}
+
+	public int getSegmentsCount() {
+		return segments.length;
+	}
+
+	/**
+	 * 释放所有数据段
+	 */
+	public void release() {
+		for (ByteBuf segment : segments) {
+			ReferenceCountUtil.safeRelease(segment);
+		}
+	}
+}
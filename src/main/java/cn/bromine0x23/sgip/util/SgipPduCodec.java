@@ -12,6 +12,8 @@ import cn.bromine0x23.sgip.exception.UnknownCommandIdException;
 import cn.bromine0x23.sgip.exception.UnrecoverablePduException;
 import cn.bromine0x23.sgip.pdu.*;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 
 /**
@@ -38,6 +40,34 @@ public class SgipPduCodec {
 		return buffer;
 	}
 
+	/**
+	 * 编码 SGIP PDU
+	 * <p>
+	 * 以字节缓冲设置内容的 {@link SgipSubmit} 编码为复合缓冲，短消息内容以保留引用的副本接入，不复制
+	 *
+	 * @param pdu       PDU
+	 * @param allocator 字节缓冲分配器
+	 * @return 存放编码结果的字节缓冲，由调用方释放
+	 * @throws UnrecoverablePduException 不可恢复的PDU编码错误
+	 * @throws RecoverablePduException   可恢复的PDU编码错误
+	 */
+	public static ByteBuf encode(SgipPdu pdu, ByteBufAllocator allocator) throws UnrecoverablePduException, RecoverablePduException {
+		if (!pdu.hasCommandLengthCalculated()) {
+			pdu.calculateAndSetCommandLength();
+		}
+		if (pdu instanceof SgipSubmit && ((SgipSubmit) pdu).hasMessageContentBuffer()) {
+			return encodeComposite((SgipSubmit) pdu, allocator);
+		}
+		ByteBuf buffer = allocator.ioBuffer(pdu.getCommandLength());
+		try {
+			encode(pdu, buffer);
+		} catch (UnrecoverablePduException | RecoverablePduException | RuntimeException e) {
+			buffer.release();
+			throw e;
+		}
+		return buffer;
+	}
+
 	/**
 	 * 编码 SGIP PDU
 	 *
@@ -54,6 +84,28 @@ public class SgipPduCodec {
 		pdu.writeBody(buffer);
 	}
 
+	private static ByteBuf encodeComposite(SgipSubmit submit, ByteBufAllocator allocator) {
+		ByteBuf content = submit.getMessageContentBuffer();
+		ByteBuf fields  = allocator.ioBuffer(submit.getCommandLength() - submit.getMessageLength());
+		try {
+			submit.writeHeader(fields);
+			submit.writeBodyBeforeContent(fields);
+			int headLength = fields.writerIndex();
+			submit.writeBodyAfterContent(fields);
+			CompositeByteBuf composite = allocator.compositeBuffer(3);
+			composite.addComponents(
+				true,
+				fields.retainedSlice(0, headLength),
+				content.retainedSlice(content.readerIndex(), submit.getMessageLength()),
+				fields.slice(headLength, fields.writerIndex() - headLength)
+			);
+			return composite;
+		} catch (RuntimeException e) {
+			fields.release();
+			throw e;
+		}
+	}
+
 	/**
 	 * SGIP PDU 解码
 	 *
@@ -63,6 +115,19 @@ public class SgipPduCodec {
 	 * @throws RecoverablePduException   可恢复的PDU解码错误
 	 */
 	public static SgipPdu decode(ByteBuf buffer) throws UnrecoverablePduException, RecoverablePduException {
+		return decode(buffer, false);
+	}
+
+	/**
+	 * SGIP PDU 解码
+	 *
+	 * @param buffer 字节缓冲
+	 * @param pooled 是否从对象池创建 Submit_Resp、Deliver、Report（见 {@link SgipPdu#release()}）
+	 * @return 解码出 SGIP PDU
+	 * @throws UnrecoverablePduException 不可恢复的PDU解码错误
+	 * @throws RecoverablePduException   可恢复的PDU解码错误
+	 */
+	public static SgipPdu decode(ByteBuf buffer, boolean pooled) throws UnrecoverablePduException, RecoverablePduException {
 		if (buffer.readableBytes() < SgipConstants.PDU_INT_LENGTH) {
 			return null;
 		}
@@ -77,7 +142,15 @@ public class SgipPduCodec {
 			return null;
 		}
 
-		return decode(commandLength, buffer.readSlice(commandLength));
+		if (buffer.readableBytes() > commandLength) {
+			return decode(commandLength, buffer.readSlice(commandLength), pooled);
+		}
+
+		// 恰为一帧（帧解码器的输出），就地解码，不创建切片
+		int     end = buffer.readerIndex() + commandLength;
+		SgipPdu pdu = decode(commandLength, buffer, pooled);
+		buffer.readerIndex(end);
+		return pdu;
 	}
 
 	/**
@@ -90,6 +163,20 @@ public class SgipPduCodec {
 	 * @throws RecoverablePduException   可恢复的PDU解码错误
 	 */
 	public static SgipPdu decode(int commandLength, ByteBuf buffer) throws UnrecoverablePduException, RecoverablePduException {
+		return decode(commandLength, buffer, false);
+	}
+
+	/**
+	 * SGIP PDU 解码
+	 *
+	 * @param commandLength 指令ID
+	 * @param buffer        字节缓冲
+	 * @param pooled        是否从对象池创建 Submit_Resp、Deliver、Report（见 {@link SgipPdu#release()}）
+	 * @return 解码出 SGIP PDU
+	 * @throws UnrecoverablePduException 不可恢复的PDU解码错误
+	 * @throws RecoverablePduException   可恢复的PDU解码错误
+	 */
+	public static SgipPdu decode(int commandLength, ByteBuf buffer, boolean pooled) throws UnrecoverablePduException, RecoverablePduException {
 		buffer.skipBytes(SgipConstants.PDU_INT_LENGTH);
 
 		int commandId      = buffer.readInt();
@@ -97,7 +184,7 @@ public class SgipPduCodec {
 		int timestamp      = buffer.readInt();
 		int sequenceNumber = buffer.readInt();
 
-		SgipPdu pdu = isRequestCommandId(commandId) ? createPduRequest(commandId) : createPduResponse(commandId);
+		SgipPdu pdu = isRequestCommandId(commandId) ? createPduRequest(commandId, pooled) : createPduResponse(commandId, pooled);
 
 		pdu.setCommandLength(commandLength);
 		pdu.setSourceNodeId(sourceNodeId);
@@ -110,7 +197,12 @@ public class SgipPduCodec {
 			throw new UnknownCommandIdException(pdu, "Unsupported or unknown PDU response commandId [0x" + HexUtil.toHexString(commandId) + "]");
 		}
 
-		pdu.readBody(buffer);
+		try {
+			pdu.readBody(buffer);
+		} catch (UnrecoverablePduException | RecoverablePduException | RuntimeException e) {
+			pdu.release();
+			throw e;
+		}
 
 		return pdu;
 	}
@@ -123,7 +215,7 @@ public class SgipPduCodec {
 		return ((commandId & SgipConstants.PDU_CMD_ID_RESP_MASK) == SgipConstants.PDU_CMD_ID_RESP_MASK);
 	}
 
-	private static SgipPdu createPduRequest(int commandId) {
+	private static SgipPdu createPduRequest(int commandId, boolean pooled) {
 		switch (commandId) {
 			case SgipConstants.CommandId.BIND:
 				return new SgipBind();
@@ -132,26 +224,26 @@ public class SgipPduCodec {
 			case SgipConstants.CommandId.SUBMIT:
 				return new SgipSubmit();
 			case SgipConstants.CommandId.DELIVER:
-				return new SgipDeliver();
+				return pooled ? SgipDeliver.newPooled() : new SgipDeliver();
 			case SgipConstants.CommandId.REPORT:
-				return new SgipReport();
+				return pooled ? SgipReport.newPooled() : new SgipReport();
 			default:
 				return new SgipPartialPdu(commandId);
 		}
 	}
 
-	private static SgipPdu createPduResponse(int commandId) {
+	private static SgipPdu createPduResponse(int commandId, boolean pooled) {
 		switch (commandId) {
 			case SgipConstants.CommandId.BIND_RESP:
 				return new SgipBindResp();
 			case SgipConstants.CommandId.UNBIND_RESP:
 				return new SgipUnbindResp();
 			case SgipConstants.CommandId.SUBMIT_RESP:
-				return new SgipSubmitResp();
+				return pooled ? SgipSubmitResp.newPooled() : new SgipSubmitResp();
 			case SgipConstants.CommandId.DELIVER_RESP:
-				return new SgipDeliverResp();
+				return pooled ? SgipDeliverResp.newPooled() : new SgipDeliverResp();
 			case SgipConstants.CommandId.REPORT_RESP:
-				return new SgipReportResp();
+				return pooled ? SgipReportResp.newPooled() : new SgipReportResp();
 			default:
 				return new SgipPartialPduResp(commandId);
 		}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.util;
+
+import cn.bromine0x23.sgip.SgipConstants;
+import lombok.Getter;
+
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.util.BitSet;
+
+/**
+ * 短消息文本编码方式
+ * <p>
+ * 声明顺序即同等分段数时的优先顺序
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see SgipConstants.DataCoding
+ */
+@SuppressWarnings("unused")
+public enum ShortMessageEncoding {
+
+	/**
+	 * 纯 ASCII 字符串，每字符 1 字节
+	 */
+	ASCII(SgipConstants.DataCoding.ASCII, SgipConstants.CHARSET_ASCII, 8),
+
+	/**
+	 * GSM 7 bit 缺省字母表，压缩编码，每字符 7 位（扩展表字符 14 位）
+	 * <p>
+	 * {@code MessageCoding} 与 {@link #ASCII} 相同，只能用于将 0 解释为 GSM 03.38 压缩编码的网关，
+	 * 因此不在 {@link ShortMessageUtil#DEFAULT_CANDIDATES} 中，需显式列入候选
+	 */
+	GSM7(SgipConstants.DataCoding.GSM7, null, 7),
+
+	/**
+	 * UCS2 编码，每 UTF-16 单元 2 字节
+	 */
+	UCS2(SgipConstants.DataCoding.UCS2, SgipConstants.CHARSET_UCS2, 8),
+
+	/**
+	 * GBK 编码，ASCII 字符 1 字节，其余字符 2 字节（GSM 03.38 保留值，需网关支持）
+	 */
+	GBK(SgipConstants.DataCoding.GBK, SgipConstants.CHARSET_GBK, 8);
+
+	/**
+	 * 对应的 {@code MessageCoding} 字段值
+	 */
+	@Getter
+	private final byte dataCoding;
+
+	/**
+	 * 字符集，GSM 7 bit 为 {@code null}
+	 */
+	@Getter
+	private final Charset charset;
+
+	/**
+	 * 每编码单元的位数
+	 */
+	@Getter
+	private final int bitsPerUnit;
+
+	ShortMessageEncoding(byte dataCoding, Charset charset, int bitsPerUnit) {
+		this.dataCoding = dataCoding;
+		this.charset = charset;
+		this.bitsPerUnit = bitsPerUnit;
+	}
+
+	/**
+	 * 计算单条短消息可容纳的编码单元数
+	 *
+	 * @param headerLength UDH 长度（含 UDHL 字节），无 UDH 时为 0
+	 * @return 编码单元数（字节或 septet）
+	 */
+	public int capacity(int headerLength) {
+		return (ShortMessageUtil.MAX_SEGMENT_LENGTH * 8 - headerLength * 8) / bitsPerUnit;
+	}
+
+	/**
+	 * 计算第 {@code index} 个字符编码后占用的编码单元数
+	 * <p>
+	 * UCS2 下代理对视为一个整体（返回 4），以避免分段时被拆开，调用方需跳过低位代理
+	 *
+	 * @param content 文本
+	 * @param index   字符下标
+	 * @return 编码单元数，无法编码时返回 -1
+	 */
+	public int measure(CharSequence content, int index) {
+		char c = content.charAt(index);
+		switch (this) {
+			case ASCII:
+				return c < 0x80 ? 1 : -1;
+			case GSM7:
+				return GsmAlphabet.countSeptets(c);
+			case GBK:
+				if (c < 0x80) {
+					return 1;
+				}
+				return GbkTable.ENCODABLE.get(c) ? 2 : -1;
+			case UCS2:
+				if (Character.isHighSurrogate(c) && index + 1 < content.length() && Character.isLowSurrogate(content.charAt(index + 1))) {
+					return 4;
+				}
+				return 2;
+			default:
+				return -1;
+		}
+	}
+
+	/**
+	 * 计算文本编码后占用的编码单元数
+	 *
+	 * @param content 文本
+	 * @return 编码单元数，无法编码时返回 -1
+	 */
+	public int measure(CharSequence content) {
+		int units = 0;
+		for (int i = 0; i < content.length(); ++i) {
+			int length = measure(content, i);
+			if (length < 0) {
+				return -1;
+			}
+			if (length == 4) {
+				++i;
+			}
+			units += length;
+		}
+		return units;
+	}
+
+	/**
+	 * 编码文本
+	 *
+	 * @param content     文本
+	 * @param paddingBits 起始填充位数，仅对 GSM 7 bit 有效
+	 * @return 编码后的字节
+	 */
+	public byte[] encode(CharSequence content, int paddingBits) {
+		if (this == GSM7) {
+			return GsmAlphabet.pack(GsmAlphabet.toSeptets(content), paddingBits);
+		}
+		return content.toString().getBytes(charset);
+	}
+
+	/**
+	 * GBK 可编码的 BMP 字符表，首次使用时构建，逐字符判断时不创建编码器
+	 */
+	private static class GbkTable {
+
+		static final BitSet ENCODABLE = new BitSet(0x10000);
+
+		static {
+			CharsetEncoder encoder = SgipConstants.CHARSET_GBK.newEncoder();
+			for (int c = 0x80; c < 0x10000; ++c) {
+				if (!Character.isSurrogate((char)c) && encoder.canEncode((char)c)) {
+					ENCODABLE.set(c);
+				}
+			}
+		}
+	}
+}
@@ -6,8 +6,19 @@
  */
 package cn.bromine0x23.sgip.util;
 
+import cn.bromine0x23.sgip.SgipConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.util.CharsetUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * 短消息工具
@@ -23,19 +34,288 @@ public class ShortMessageUtil {
 
 	private static final int HEADER_LENGTH = 6;
 
+	private static final int WIDE_HEADER_LENGTH = 7;
+
 	private static final byte UDH_HEADER_LENGTH = 0x05;
 
+	private static final byte UDH_WIDE_HEADER_LENGTH = 0x06;
+
 	private static final byte UDH_IEI_CONCATENATED = 0x00; // UDH Information-Element-Identifier: Concatenated short messages, 8-bit reference number
 
 	private static final byte UDH_IEI_CONCATENATED_LENGTH = 0x03;
 
-	private static final int SEGMENT_HEADER_LENGTH = 1 + 2 + UDH_IEI_CONCATENATED_LENGTH;
+	private static final byte UDH_IEI_CONCATENATED_WIDE = 0x08; // UDH Information-Element-Identifier: Concatenated short messages, 16-bit reference number
 
-	private static final AtomicInteger referenceCounter = new AtomicInteger();
+	private static final byte UDH_IEI_CONCATENATED_WIDE_LENGTH = 0x04;
+
+	/**
+	 * 缺省候选编码方式，不含 {@link ShortMessageEncoding#GSM7}
+	 */
+	public static final Set<ShortMessageEncoding> DEFAULT_CANDIDATES = Collections.unmodifiableSet(EnumSet.of(
+		ShortMessageEncoding.ASCII, ShortMessageEncoding.UCS2, ShortMessageEncoding.GBK
+	));
+
+	/**
+	 * 未指定分配器时使用的全局 8 位参考号
+	 */
+	private static final ConcatenatedReferenceAllocator DEFAULT_REFERENCE_ALLOCATOR = new ConcatenatedReferenceAllocator(false, 1);
 
 	private ShortMessageUtil() {
 	}
 
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准编码文本消息，从 {@link #DEFAULT_CANDIDATES} 中选择分段数最少的编码方式
+	 *
+	 * @param content 消息内容
+	 * @return 编码后的消息
+	 * @see #encode(String, Set)
+	 */
+	public static EncodedShortMessage encode(String content) {
+		return encode(content, DEFAULT_CANDIDATES);
+	}
+
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准编码文本消息，从候选编码方式中选择分段数最少的一种
+	 * <p>
+	 * 级联短消息使用全局 8 位参考号，高吞吐量下应使用 {@link #encode(String, Set, ConcatenatedReferenceAllocator, String)}
+	 *
+	 * @param content    消息内容
+	 * @param candidates 候选编码方式
+	 * @return 编码后的消息
+	 * @throws IllegalArgumentException 没有能够编码该内容的候选编码方式
+	 */
+	public static EncodedShortMessage encode(String content, Set<ShortMessageEncoding> candidates) {
+		return encode(content, candidates, DEFAULT_REFERENCE_ALLOCATOR, null);
+	}
+
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准编码文本消息，从候选编码方式中选择分段数最少的一种
+	 *
+	 * @param content     消息内容
+	 * @param candidates  候选编码方式
+	 * @param allocator   级联短消息参考号分配器
+	 * @param destination 接收号码
+	 * @return 编码后的消息
+	 * @throws IllegalArgumentException 没有能够编码该内容的候选编码方式
+	 */
+	public static EncodedShortMessage encode(
+		String content, Set<ShortMessageEncoding> candidates, ConcatenatedReferenceAllocator allocator, String destination
+	) {
+		return encode(content, selectEncoding(content, candidates, allocator.isWideReference()), allocator, destination);
+	}
+
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准编码文本消息
+	 *
+	 * @param content  消息内容
+	 * @param encoding 编码方式
+	 * @return 编码后的消息
+	 * @throws IllegalArgumentException 内容包含无法以该方式编码的字符
+	 */
+	public static EncodedShortMessage encode(String content, ShortMessageEncoding encoding) {
+		return encode(content, encoding, DEFAULT_REFERENCE_ALLOCATOR, null);
+	}
+
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准编码文本消息
+	 * <p>
+	 * 参见 3GPP TS 23.040／GSM 03.40 9.2.3.24.1 及 9.2.3.24.8
+	 *
+	 * @param content     消息内容
+	 * @param encoding    编码方式
+	 * @param allocator   级联短消息参考号分配器，仅在需要分段时分配
+	 * @param destination 接收号码
+	 * @return 编码后的消息
+	 * @throws IllegalArgumentException 内容包含无法以该方式编码的字符
+	 */
+	public static EncodedShortMessage encode(
+		String content, ShortMessageEncoding encoding, ConcatenatedReferenceAllocator allocator, String destination
+	) {
+		int units = encoding.measure(content);
+		if (units < 0) {
+			throw new IllegalArgumentException("Content can not be encoded in " + encoding);
+		}
+		if (units <= encoding.capacity(0)) {
+			return new EncodedShortMessage(encoding, new byte[][]{encoding.encode(content, 0)});
+		}
+		final boolean  wide          = allocator.isWideReference();
+		final int      headerLength  = headerLength(wide);
+		final int      capacity      = encoding.capacity(headerLength);
+		final int      paddingBits   = paddingBits(encoding, headerLength);
+		final int[]    boundaries    = new int[split(content, encoding, capacity, null) + 1];
+		final int      segmentsCount = Math.min(split(content, encoding, capacity, boundaries), MAX_SEGMENTS_COUNT);
+		final int      reference     = allocator.next(destination);
+		final byte[][] segments      = new byte[segmentsCount][];
+		for (int i = 0; i < segmentsCount; ++i) {
+			byte[] body    = encoding.encode(content.subSequence(boundaries[i], boundaries[i + 1]), paddingBits);
+			byte[] segment = new byte[headerLength + body.length];
+			writeConcatenatedHeader(segment, wide, reference, segmentsCount, i + 1);
+			System.arraycopy(body, 0, segment, headerLength, body.length);
+			segments[i] = segment;
+		}
+		return new EncodedShortMessage(encoding, segments);
+	}
+
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准将文本消息编码为字节缓冲，从候选编码方式中选择分段数最少的一种
+	 *
+	 * @param bufferAllocator 字节缓冲分配器
+	 * @param content         消息内容
+	 * @param candidates      候选编码方式
+	 * @param allocator       级联短消息参考号分配器
+	 * @param destination     接收号码
+	 * @return 编码后的消息，使用完毕后需释放
+	 * @throws IllegalArgumentException 没有能够编码该内容的候选编码方式
+	 * @see #segment(ByteBufAllocator, String, ShortMessageEncoding, ConcatenatedReferenceAllocator, String)
+	 */
+	public static SegmentedShortMessage segment(
+		ByteBufAllocator bufferAllocator, String content, Set<ShortMessageEncoding> candidates,
+		ConcatenatedReferenceAllocator allocator, String destination
+	) {
+		return segment(bufferAllocator, content, selectEncoding(content, candidates, allocator.isWideReference()), allocator, destination);
+	}
+
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准将文本消息编码为字节缓冲
+	 * <p>
+	 * 正文只编码一次，写入单块缓冲；各段为 UDH 与正文切片组成的复合缓冲，不再复制正文。
+	 * GSM 7 bit 编码时各段需独立按 septet 对齐，因此逐段压缩写入同一块缓冲。
+	 *
+	 * @param bufferAllocator 字节缓冲分配器
+	 * @param content         消息内容
+	 * @param encoding        编码方式
+	 * @param allocator       级联短消息参考号分配器，仅在需要分段时分配
+	 * @param destination     接收号码
+	 * @return 编码后的消息，使用完毕后需释放
+	 * @throws IllegalArgumentException 内容包含无法以该方式编码的字符
+	 */
+	public static SegmentedShortMessage segment(
+		ByteBufAllocator bufferAllocator, String content, ShortMessageEncoding encoding,
+		ConcatenatedReferenceAllocator allocator, String destination
+	) {
+		int units = encoding.measure(content);
+		if (units < 0) {
+			throw new IllegalArgumentException("Content can not be encoded in " + encoding);
+		}
+		if (units <= encoding.capacity(0)) {
+			ByteBuf payload = bufferAllocator.buffer(MAX_SEGMENT_LENGTH);
+			try {
+				writeSegment(payload, content, 0, content.length(), encoding, 0);
+			} catch (RuntimeException e) {
+				payload.release();
+				throw e;
+			}
+			return new SegmentedShortMessage(encoding, new ByteBuf[]{payload});
+		}
+		final boolean   wide          = allocator.isWideReference();
+		final int       headerLength  = headerLength(wide);
+		final int       capacity      = encoding.capacity(headerLength);
+		final int       paddingBits   = paddingBits(encoding, headerLength);
+		final int[]     boundaries    = new int[split(content, encoding, capacity, null) + 1];
+		final int       segmentsCount = Math.min(split(content, encoding, capacity, boundaries), MAX_SEGMENTS_COUNT);
+		final int       reference     = allocator.next(destination);
+		final ByteBuf[] segments      = new ByteBuf[segmentsCount];
+		final ByteBuf   headers       = bufferAllocator.buffer(headerLength * segmentsCount);
+		final ByteBuf   payload       = bufferAllocator.buffer((MAX_SEGMENT_LENGTH - headerLength) * segmentsCount);
+		try {
+			byte[] header = new byte[headerLength];
+			for (int i = 0; i < segmentsCount; ++i) {
+				writeConcatenatedHeader(header, wide, reference, segmentsCount, i + 1);
+				headers.writeBytes(header);
+			}
+			for (int i = 0; i < segmentsCount; ++i) {
+				int offset = payload.writerIndex();
+				int length = writeSegment(payload, content, boundaries[i], boundaries[i + 1], encoding, paddingBits);
+				CompositeByteBuf segment = bufferAllocator.compositeBuffer(2);
+				segment.addComponents(true, headers.retainedSlice(i * headerLength, headerLength), payload.retainedSlice(offset, length));
+				segments[i] = segment;
+			}
+		} catch (RuntimeException e) {
+			for (ByteBuf segment : segments) {
+				if (segment != null) {
+					segment.release();
+				}
+			}
+			throw e;
+		} finally {
+			headers.release();
+			payload.release();
+		}
+		return new SegmentedShortMessage(encoding, segments);
+	}
+
+	/**
+	 * 从候选编码方式中选择分段数最少的一种，分段数相同时按 {@link ShortMessageEncoding} 声明顺序优先
+	 *
+	 * @param content    消息内容
+	 * @param candidates 候选编码方式
+	 * @return 编码方式
+	 * @throws IllegalArgumentException 没有能够编码该内容的候选编码方式
+	 */
+	public static ShortMessageEncoding selectEncoding(String content, Set<ShortMessageEncoding> candidates) {
+		return selectEncoding(content, candidates, false);
+	}
+
+	/**
+	 * 从候选编码方式中选择分段数最少的一种，分段数相同时按 {@link ShortMessageEncoding} 声明顺序优先
+	 * <p>
+	 * {@link ShortMessageEncoding#GSM7} 与 ASCII 的 {@code MessageCoding} 相同，仅在网关支持时列入候选
+	 *
+	 * @param content       消息内容
+	 * @param candidates    候选编码方式
+	 * @param wideReference 是否使用 16 位参考号
+	 * @return 编码方式
+	 * @throws IllegalArgumentException 没有能够编码该内容的候选编码方式
+	 */
+	public static ShortMessageEncoding selectEncoding(String content, Set<ShortMessageEncoding> candidates, boolean wideReference) {
+		ShortMessageEncoding selected         = null;
+		int                  selectedSegments = Integer.MAX_VALUE;
+		for (ShortMessageEncoding encoding : ShortMessageEncoding.values()) {
+			if (!candidates.contains(encoding)) {
+				continue;
+			}
+			int segments = countSegments(content, encoding, wideReference);
+			if (segments > 0 && segments < selectedSegments) {
+				selected = encoding;
+				selectedSegments = segments;
+			}
+		}
+		if (selected == null) {
+			throw new IllegalArgumentException("Content can not be encoded in any of " + candidates);
+		}
+		return selected;
+	}
+
+	/**
+	 * 计算文本消息以指定方式编码后的分段数
+	 *
+	 * @param content  消息内容
+	 * @param encoding 编码方式
+	 * @return 分段数，无法编码时返回 -1
+	 */
+	public static int countSegments(String content, ShortMessageEncoding encoding) {
+		return countSegments(content, encoding, false);
+	}
+
+	/**
+	 * 计算文本消息以指定方式编码后的分段数
+	 *
+	 * @param content       消息内容
+	 * @param encoding      编码方式
+	 * @param wideReference 是否使用 16 位参考号
+	 * @return 分段数，无法编码时返回 -1
+	 */
+	public static int countSegments(String content, ShortMessageEncoding encoding, boolean wideReference) {
+		int units = encoding.measure(content);
+		if (units < 0) {
+			return -1;
+		}
+		if (units <= encoding.capacity(0)) {
+			return 1;
+		}
+		return Math.min(split(content, encoding, encoding.capacity(headerLength(wideReference)), null), MAX_SEGMENTS_COUNT);
+	}
+
 	public static byte[][] encode(String content, Charset charset) {
 		return encode(content.getBytes(charset));
 	}
@@ -47,43 +327,213 @@ public class ShortMessageUtil {
 	 * @return 编码后的数据段
 	 */
 	public static byte[][] encode(byte[] bytes) {
+		return encode(bytes, DEFAULT_REFERENCE_ALLOCATOR, null);
+	}
+
+	/**
+	 * 按 3GPP TS 23.040／GSM 03.40 标准编码消息
+	 *
+	 * @param bytes       消息内容
+	 * @param allocator   级联短消息参考号分配器，仅在需要分段时分配
+	 * @param destination 接收号码
+	 * @return 编码后的数据段
+	 */
+	public static byte[][] encode(byte[] bytes, ConcatenatedReferenceAllocator allocator, String destination) {
 		if (bytes.length <= MAX_SEGMENT_LENGTH) {
 			byte[][] segments = new byte[1][];
 			segments[0] = bytes;
 			return segments;
 		}
-		return encodeConcatenated(bytes);
+		return encodeConcatenated(bytes, allocator.isWideReference(), allocator.next(destination));
 	}
 
 	/**
 	 * 按 3GPP TS 23.040／GSM 03.40 标准编码消息，使用级联短消息（Concatenated Short Messages）
 	 * <p>
-	 * 参见 3GPP TS 23.040／GSM 03.40 9.2.3.24.1
+	 * 参见 3GPP TS 23.040／GSM 03.40 9.2.3.24.1 及 9.2.3.24.8
 	 *
-	 * @param bytes 短消息内容
+	 * @param bytes     短消息内容
+	 * @param wide      是否使用 16 位参考号
+	 * @param reference 参考号
 	 * @return 编码后的数据段
 	 */
-	private static byte[][] encodeConcatenated(byte[] bytes) {
-		final byte     reference     = (byte)(referenceCounter.getAndIncrement() & 0xFF);
-		final int      segmentsCount = getSegmentsCount(bytes);
+	private static byte[][] encodeConcatenated(byte[] bytes, boolean wide, int reference) {
+		final int      headerLength  = headerLength(wide);
+		final int      capacity      = MAX_SEGMENT_LENGTH - headerLength;
+		final int      segmentsCount = Math.min((bytes.length + capacity - 1) / capacity, MAX_SEGMENTS_COUNT);
 		final byte[][] segments      = new byte[segmentsCount][];
-		final int      length        = Math.min(bytes.length, segmentsCount * MAX_SEGMENTS_COUNT);
 		for (int i = 0; i < segmentsCount; ++i) {
-			int    segmentLength = Math.min(MAX_SEGMENT_LENGTH - SEGMENT_HEADER_LENGTH, length - i * (MAX_SEGMENT_LENGTH - SEGMENT_HEADER_LENGTH));
-			byte[] segment       = new byte[HEADER_LENGTH + segmentLength];
+			int    segmentLength = Math.min(capacity, bytes.length - i * capacity);
+			byte[] segment       = new byte[headerLength + segmentLength];
+			writeConcatenatedHeader(segment, wide, reference, segmentsCount, i + 1);
+			System.arraycopy(bytes, i * capacity, segment, headerLength, segmentLength);
+			segments[i] = segment;
+		}
+		return segments;
+	}
+
+	/**
+	 * 获取 {@code MessageCoding} 对应的字符集
+	 * <p>
+	 * GBK 编码以其超集 GB18030 解码，二进制及未知编码按 ISO-8859-1 逐字节对应
+	 *
+	 * @param messageCoding {@code MessageCoding} 字段值
+	 * @return 字符集
+	 */
+	public static Charset charsetOf(byte messageCoding) {
+		switch (messageCoding) {
+			case SgipConstants.DataCoding.ASCII:
+				return SgipConstants.CHARSET_ASCII;
+			case SgipConstants.DataCoding.UCS2:
+				return SgipConstants.CHARSET_UCS2;
+			case SgipConstants.DataCoding.GBK:
+				return SgipConstants.CHARSET_GB18030;
+			default:
+				return StandardCharsets.ISO_8859_1;
+		}
+	}
+
+	/**
+	 * 按 {@code MessageCoding} 解码短消息内容
+	 * <p>
+	 * 使用线程内缓存的 {@link java.nio.charset.CharsetDecoder}，无法解码的字节以替换字符表示
+	 *
+	 * @param content       短消息内容
+	 * @param offset        起始下标
+	 * @param length        字节数
+	 * @param messageCoding {@code MessageCoding} 字段值
+	 * @return 解码后的文本
+	 */
+	public static String decode(byte[] content, int offset, int length, byte messageCoding) {
+		if (length == 0) {
+			return "";
+		}
+		try {
+			return CharsetUtil.decoder(charsetOf(messageCoding)).decode(ByteBuffer.wrap(content, offset, length)).toString();
+		} catch (CharacterCodingException e) {
+			// 解码器使用 REPLACE 策略，不会抛出
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 解析以 UDH 开头的短消息内容中的级联短消息信息元素
+	 * <p>
+	 * 参见 3GPP TS 23.040／GSM 03.40 9.2.3.24.1 及 9.2.3.24.8
+	 *
+	 * @param content 短消息内容
+	 * @return 级联信息，UDH 无效或不含级联信息元素时返回 {@code null}
+	 */
+	public static ConcatenatedHeader parseConcatenatedHeader(byte[] content) {
+		if (content == null || content.length == 0) {
+			return null;
+		}
+		int headerLength = (content[0] & 0xFF) + 1;
+		if (headerLength > content.length) {
+			return null;
+		}
+		int offset = 1;
+		while (offset + 2 <= headerLength) {
+			int identifier = content[offset] & 0xFF;
+			int length     = content[offset + 1] & 0xFF;
+			int data       = offset + 2;
+			if (data + length > headerLength) {
+				return null;
+			}
+			if (identifier == UDH_IEI_CONCATENATED && length == UDH_IEI_CONCATENATED_LENGTH) {
+				return createConcatenatedHeader(content[data] & 0xFF, content[data + 1] & 0xFF, content[data + 2] & 0xFF, headerLength);
+			}
+			if (identifier == UDH_IEI_CONCATENATED_WIDE && length == UDH_IEI_CONCATENATED_WIDE_LENGTH) {
+				int reference = (content[data] & 0xFF) << 8 | (content[data + 1] & 0xFF);
+				return createConcatenatedHeader(reference, content[data + 2] & 0xFF, content[data + 3] & 0xFF, headerLength);
+			}
+			offset = data + length;
+		}
+		return null;
+	}
+
+	private static ConcatenatedHeader createConcatenatedHeader(int reference, int segmentsCount, int sequence, int headerLength) {
+		if (segmentsCount == 0 || sequence == 0 || sequence > segmentsCount) {
+			return null;
+		}
+		return new ConcatenatedHeader(reference, segmentsCount, sequence, headerLength);
+	}
+
+	private static void writeConcatenatedHeader(byte[] segment, boolean wide, int reference, int segmentsCount, int sequence) {
+		int offset;
+		if (wide) {
+			segment[0] = UDH_WIDE_HEADER_LENGTH;
+			segment[1] = UDH_IEI_CONCATENATED_WIDE;
+			segment[2] = UDH_IEI_CONCATENATED_WIDE_LENGTH;
+			segment[3] = (byte)(reference >>> 8); // Concatenated short message reference number.
+			segment[4] = (byte)reference;
+			offset = 5;
+		} else {
 			segment[0] = UDH_HEADER_LENGTH;
 			segment[1] = UDH_IEI_CONCATENATED;
 			segment[2] = UDH_IEI_CONCATENATED_LENGTH;
-			segment[3] = reference; // Concatenated short message reference number.
-			segment[4] = (byte)segmentsCount; // Maximum number of short messages in the concatenated short message.
-			segment[5] = (byte)(i + 1); // Sequence number of the current short message.
-			System.arraycopy(bytes, i * (MAX_SEGMENT_LENGTH - SEGMENT_HEADER_LENGTH), segment, HEADER_LENGTH, segmentLength);
-			segments[i] = segment;
+			segment[3] = (byte)reference; // Concatenated short message reference number.
+			offset = 4;
 		}
-		return segments;
+		segment[offset] = (byte)segmentsCount; // Maximum number of short messages in the concatenated short message.
+		segment[offset + 1] = (byte)sequence; // Sequence number of the current short message.
 	}
 
-	private static int getSegmentsCount(byte[] bytes) {
-		return Math.min((bytes.length + (MAX_SEGMENT_LENGTH - SEGMENT_HEADER_LENGTH) - 1) / (MAX_SEGMENT_LENGTH - SEGMENT_HEADER_LENGTH), MAX_SEGMENTS_COUNT);
+	/**
+	 * 将文本的一部分编码写入字节缓冲
+	 *
+	 * @return 写入的字节数
+	 */
+	private static int writeSegment(ByteBuf buffer, String content, int start, int end, ShortMessageEncoding encoding, int paddingBits) {
+		if (encoding == ShortMessageEncoding.GSM7) {
+			return GsmAlphabet.pack(content, start, end, paddingBits, buffer);
+		}
+		return buffer.writeCharSequence(content.subSequence(start, end), encoding.getCharset());
+	}
+
+	/**
+	 * 按字符边界切分文本，保证扩展表转义序列、代理对不被拆开
+	 *
+	 * @param content    文本
+	 * @param encoding   编码方式
+	 * @param capacity   每段可容纳的编码单元数
+	 * @param boundaries 用于存放各段起始下标及结尾下标，为 {@code null} 时仅计数
+	 * @return 分段数
+	 */
+	private static int split(CharSequence content, ShortMessageEncoding encoding, int capacity, int[] boundaries) {
+		int count = 0;
+		int units = 0;
+		int i     = 0;
+		while (i < content.length()) {
+			int length = encoding.measure(content, i);
+			int chars  = length == 4 ? 2 : 1;
+			if (count == 0 || units + length > capacity) {
+				if (boundaries != null && count < boundaries.length) {
+					boundaries[count] = i;
+				}
+				++count;
+				units = 0;
+			}
+			units += length;
+			i += chars;
+		}
+		if (boundaries != null && count < boundaries.length) {
+			boundaries[count] = content.length();
+		}
+		return count;
+	}
+
+	private static int headerLength(boolean wideReference) {
+		return wideReference ? WIDE_HEADER_LENGTH : HEADER_LENGTH;
+	}
+
+	/**
+	 * GSM 7 bit 编码时，为使正文从 septet 边界开始，UDH 之后需要的填充位数
+	 */
+	private static int paddingBits(ShortMessageEncoding encoding, int headerLength) {
+		if (encoding != ShortMessageEncoding.GSM7) {
+			return 0;
+		}
+		return (7 - headerLength * 8 % 7) % 7;
 	}
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.windowing;
+
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 单线程发送窗口
+ * <p>
+ * 与 {@link Window} 语义相同，但所有修改只在所属的 {@link EventExecutor} 上进行，不加锁、不使用 CAS。
+ * 窗口已满时请求在窗口内排队，由调用方在请求完成后调用 {@link #pollPending()} 补入；
+ * 过期与 offer 超时由调用方定期调用 {@link #expire} 检查。
+ * {@link #getSize()} 与 {@link #getPendingOfferCount()} 可在任意线程读取。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class LocalWindow<TRequest, TResponse> implements WindowStatus {
+
+	private final EventExecutor executor;
+
+	private final int maxSize;
+
+	private final IntObjectMap<LocalWindowFuture<TRequest, TResponse>> futures;
+
+	private final ArrayDeque<LocalWindowFuture<TRequest, TResponse>> pendingOffers = new ArrayDeque<>();
+
+	private volatile int size;
+
+	private volatile int pendingOfferCount;
+
+	/**
+	 * @param executor 所属线程
+	 * @param maxSize  窗口大小
+	 */
+	public LocalWindow(EventExecutor executor, int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("size must be > 0");
+		}
+		this.executor = executor;
+		this.maxSize  = maxSize;
+		this.futures  = new IntObjectHashMap<>(maxSize);
+	}
+
+	public EventExecutor executor() {
+		return executor;
+	}
+
+	@Override
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public int getPendingOfferCount() {
+		return pendingOfferCount;
+	}
+
+	public boolean isFull() {
+		return futures.size() >= maxSize;
+	}
+
+	/**
+	 * 请求进入窗口
+	 *
+	 * @param key       键，通常为序列号
+	 * @param future    请求
+	 * @param timestamp 当前时间
+	 * @return 键已存在时为 {@code false}
+	 */
+	public boolean accept(int key, LocalWindowFuture<TRequest, TResponse> future, long timestamp) {
+		if (futures.containsKey(key)) {
+			return false;
+		}
+		futures.put(key, future);
+		size = futures.size();
+		future.accepted(key, size, timestamp);
+		return true;
+	}
+
+	/**
+	 * 窗口已满时排队等待
+	 *
+	 * @param future 请求
+	 */
+	public void queue(LocalWindowFuture<TRequest, TResponse> future) {
+		pendingOffers.add(future);
+		pendingOfferCount = pendingOffers.size();
+	}
+
+	/**
+	 * @return 排队中的第一个未完成请求，没有时为 {@code null}
+	 */
+	public LocalWindowFuture<TRequest, TResponse> pollPending() {
+		LocalWindowFuture<TRequest, TResponse> future;
+		do {
+			future = pendingOffers.poll();
+		} while (future != null && future.isDone());
+		pendingOfferCount = pendingOffers.size();
+		return future;
+	}
+
+	/**
+	 * @param key       键
+	 * @param response  响应
+	 * @param timestamp 当前时间
+	 * @return 完成的请求，键不存在时为 {@code null}
+	 */
+	public LocalWindowFuture<TRequest, TResponse> complete(int key, TResponse response, long timestamp) {
+		LocalWindowFuture<TRequest, TResponse> future = remove(key);
+		if (future != null) {
+			future.completeHelper(response, timestamp);
+		}
+		return future;
+	}
+
+	/**
+	 * @param key       键
+	 * @param cause     原因
+	 * @param timestamp 当前时间
+	 * @return 失败的请求，键不存在时为 {@code null}
+	 */
+	public LocalWindowFuture<TRequest, TResponse> fail(int key, Throwable cause, long timestamp) {
+		LocalWindowFuture<TRequest, TResponse> future = remove(key);
+		if (future != null) {
+			future.failHelper(cause, timestamp);
+		}
+		return future;
+	}
+
+	/**
+	 * @param key       键
+	 * @param timestamp 当前时间
+	 * @return 取消的请求，键不存在时为 {@code null}
+	 */
+	public LocalWindowFuture<TRequest, TResponse> cancel(int key, long timestamp) {
+		LocalWindowFuture<TRequest, TResponse> future = remove(key);
+		if (future != null) {
+			future.cancelHelper(timestamp);
+		}
+		return future;
+	}
+
+	/**
+	 * 取消窗口内过期的请求，令 offer 超时的排队请求失败
+	 *
+	 * @param timestamp     当前时间
+	 * @param listener      过期请求的回调
+	 * @param offerListener offer 超时请求的回调
+	 */
+	public void expire(
+		long timestamp, Consumer<LocalWindowFuture<TRequest, TResponse>> listener, Consumer<LocalWindowFuture<TRequest, TResponse>> offerListener
+	) {
+		if (!futures.isEmpty()) {
+			Iterator<LocalWindowFuture<TRequest, TResponse>> iterator = futures.values().iterator();
+			while (iterator.hasNext()) {
+				LocalWindowFuture<TRequest, TResponse> future = iterator.next();
+				if (future.hasExpireTimestamp() && future.getExpireTimestamp() <= timestamp) {
+					iterator.remove();
+					future.cancelHelper(timestamp);
+					listener.accept(future);
+				}
+			}
+			size = futures.size();
+		}
+		if (!pendingOffers.isEmpty()) {
+			Iterator<LocalWindowFuture<TRequest, TResponse>> iterator = pendingOffers.iterator();
+			while (iterator.hasNext()) {
+				LocalWindowFuture<TRequest, TResponse> future = iterator.next();
+				if (future.isDone()) {
+					iterator.remove();
+				} else if (future.getOfferDeadline() <= timestamp) {
+					iterator.remove();
+					future.failHelper(new OfferTimeoutException("Unable to accept offer within [" + future.getOfferTimeoutMillis() + " ms] (window full)"), timestamp);
+					offerListener.accept(future);
+				}
+			}
+			pendingOfferCount = pendingOffers.size();
+		}
+	}
+
+	/**
+	 * 移出窗口内与排队中的全部请求，不改变其状态
+	 *
+	 * @return 窗口内的请求（按键升序）在前，排队中的请求在后
+	 */
+	public List<LocalWindowFuture<TRequest, TResponse>> removeAll() {
+		List<LocalWindowFuture<TRequest, TResponse>> list = new ArrayList<>(futures.size() + pendingOffers.size());
+		list.addAll(futures.values());
+		list.sort((a, b) -> Integer.compare(a.getKey(), b.getKey()));
+		list.addAll(pendingOffers);
+		futures.clear();
+		pendingOffers.clear();
+		size              = 0;
+		pendingOfferCount = 0;
+		return list;
+	}
+
+	void remove(int key, LocalWindowFuture<TRequest, TResponse> future) {
+		if (futures.get(key) == future) {
+			remove(key);
+		}
+	}
+
+	LocalWindowFuture<TRequest, TResponse> remove(int key) {
+		LocalWindowFuture<TRequest, TResponse> future = futures.remove(key);
+		if (future != null) {
+			size = futures.size();
+		}
+		return future;
+	}
+}
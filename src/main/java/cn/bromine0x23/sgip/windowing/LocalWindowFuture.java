@@ -0,0 +1,303 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.windowing;
+
+import lombok.Getter;
+
+/**
+ * {@link LocalWindow} 的请求
+ * <p>
+ * 状态只由窗口所属线程修改，以 volatile 的 {@code done} 发布结果；在其他线程调用
+ * {@link #complete}、{@link #fail} 或 {@link #cancel} 时转交给所属线程执行。
+ * 只有调用 {@link #await} 的线程才会在完成时被唤醒，无人等待时完成过程不加锁。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class LocalWindowFuture<TRequest, TResponse> implements WindowFuture<Integer, TRequest, TResponse> {
+
+	private final LocalWindow<TRequest, TResponse> window;
+
+	@Getter
+	private final TRequest request;
+
+	/**
+	 * offer 超时时间（毫秒）
+	 */
+	@Getter
+	private final long offerTimeoutMillis;
+
+	private final long expireTimeoutMillis;
+
+	@Getter
+	private final long offerTimestamp;
+
+	private volatile int key;
+
+	private volatile int windowSize;
+
+	private volatile long acceptTimestamp;
+
+	private volatile long expireTimestamp;
+
+	private volatile int callerStateHint;
+
+	private volatile boolean waiting;
+
+	private volatile boolean done;
+
+	private TResponse response;
+
+	private Throwable cause;
+
+	private long doneTimestamp;
+
+	/**
+	 * @param window              窗口
+	 * @param request             请求
+	 * @param callerStateHint     调用方状态
+	 * @param offerTimeoutMillis  offer 超时时间（毫秒）
+	 * @param expireTimeoutMillis 进入窗口后的过期时间（毫秒），不大于 0 时不过期
+	 * @param offerTimestamp      offer 时间
+	 */
+	public LocalWindowFuture(
+		LocalWindow<TRequest, TResponse> window, TRequest request, int callerStateHint, long offerTimeoutMillis, long expireTimeoutMillis, long offerTimestamp
+	) {
+		this.window              = window;
+		this.request             = request;
+		this.callerStateHint     = callerStateHint;
+		this.offerTimeoutMillis  = offerTimeoutMillis;
+		this.expireTimeoutMillis = expireTimeoutMillis;
+		this.offerTimestamp      = offerTimestamp;
+	}
+
+	void accepted(int key, int windowSize, long timestamp) {
+		this.key             = key;
+		this.windowSize      = windowSize;
+		this.acceptTimestamp = timestamp;
+		this.expireTimestamp = expireTimeoutMillis > 0 ? timestamp + expireTimeoutMillis : -1;
+	}
+
+	long getOfferDeadline() {
+		return offerTimestamp + offerTimeoutMillis;
+	}
+
+	/**
+	 * @param timestamp 当前时间
+	 * @return 尚未进入窗口且已超过 offer 超时时间
+	 */
+	public boolean isOfferExpired(long timestamp) {
+		return acceptTimestamp <= 0 && getOfferDeadline() <= timestamp;
+	}
+
+	/**
+	 * @return 键，尚未进入窗口时为 0
+	 */
+	@Override
+	public Integer getKey() {
+		return key;
+	}
+
+	@Override
+	public TResponse getResponse() {
+		return done ? response : null;
+	}
+
+	@Override
+	public boolean isDone() {
+		return done;
+	}
+
+	@Override
+	public boolean isSuccess() {
+		return done && response != null;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return done && response == null && cause == null;
+	}
+
+	@Override
+	public boolean isCallerWaiting() {
+		return callerStateHint == CALLER_WAITING;
+	}
+
+	@Override
+	public Throwable getCause() {
+		return done ? cause : null;
+	}
+
+	@Override
+	public int getCallerStateHint() {
+		return callerStateHint;
+	}
+
+	@Override
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	@Override
+	public boolean hasExpireTimestamp() {
+		return expireTimestamp > 0;
+	}
+
+	@Override
+	public long getExpireTimestamp() {
+		return expireTimestamp;
+	}
+
+	@Override
+	public long getAcceptTimestamp() {
+		return acceptTimestamp;
+	}
+
+	@Override
+	public long getOfferToAcceptTime() {
+		return acceptTimestamp > 0 ? acceptTimestamp - offerTimestamp : -1;
+	}
+
+	@Override
+	public boolean hasDoneTimestamp() {
+		return done;
+	}
+
+	@Override
+	public long getDoneTimestamp() {
+		return done ? doneTimestamp : 0;
+	}
+
+	@Override
+	public long getOfferToDoneTime() {
+		return done ? doneTimestamp - offerTimestamp : -1;
+	}
+
+	@Override
+	public long getAcceptToDoneTime() {
+		return done && acceptTimestamp > 0 ? doneTimestamp - acceptTimestamp : -1;
+	}
+
+	@Override
+	public void complete(TResponse response) {
+		complete(response, System.currentTimeMillis());
+	}
+
+	@Override
+	public void complete(TResponse response, long doneTimestamp) {
+		if (response == null) {
+			throw new IllegalArgumentException("A response cannot be null if trying to complete()");
+		}
+		inWindowThread(() -> {
+			removeFromWindow();
+			completeHelper(response, doneTimestamp);
+		});
+	}
+
+	@Override
+	public void fail(Throwable t) {
+		fail(t, System.currentTimeMillis());
+	}
+
+	@Override
+	public void fail(Throwable t, long doneTimestamp) {
+		if (t == null) {
+			throw new IllegalArgumentException("A response cannot be null if trying to failed()");
+		}
+		inWindowThread(() -> {
+			removeFromWindow();
+			failHelper(t, doneTimestamp);
+		});
+	}
+
+	@Override
+	public void cancel() {
+		cancel(System.currentTimeMillis());
+	}
+
+	@Override
+	public void cancel(long doneTimestamp) {
+		inWindowThread(() -> {
+			removeFromWindow();
+			cancelHelper(doneTimestamp);
+		});
+	}
+
+	@Override
+	public boolean await() throws InterruptedException {
+		long acceptTimestamp = this.acceptTimestamp;
+		return await(offerTimeoutMillis - (acceptTimestamp > 0 ? acceptTimestamp - offerTimestamp : 0));
+	}
+
+	@Override
+	public boolean await(long timeoutMillis) throws InterruptedException {
+		callerStateHint = CALLER_WAITING;
+		waiting         = true;
+		if (done) {
+			return true;
+		}
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		synchronized (this) {
+			while (!done) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					callerStateHint = CALLER_WAITING_TIMEOUT;
+					return false;
+				}
+				wait(remaining);
+			}
+		}
+		return true;
+	}
+
+	void completeHelper(TResponse response, long doneTimestamp) {
+		if (!done) {
+			this.response      = response;
+			this.doneTimestamp = doneTimestamp;
+			signal();
+		}
+	}
+
+	void failHelper(Throwable cause, long doneTimestamp) {
+		if (!done) {
+			this.cause         = cause;
+			this.doneTimestamp = doneTimestamp;
+			signal();
+		}
+	}
+
+	void cancelHelper(long doneTimestamp) {
+		if (!done) {
+			this.doneTimestamp = doneTimestamp;
+			signal();
+		}
+	}
+
+	private void signal() {
+		done = true;
+		// 等待方先写 waiting 再读 done，完成方先写 done 再读 waiting，两者至少有一方能看到对方
+		if (waiting) {
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
+
+	private void removeFromWindow() {
+		if (acceptTimestamp > 0) {
+			window.remove(key, this);
+		}
+	}
+
+	private void inWindowThread(Runnable task) {
+		if (window.executor().inEventLoop()) {
+			task.run();
+		} else {
+			window.executor().execute(task);
+		}
+	}
+}
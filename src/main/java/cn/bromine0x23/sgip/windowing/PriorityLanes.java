@@ -0,0 +1,225 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.windowing;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按优先级分级的提交队列
+ * <p>
+ * 每级一个多生产者单消费者队列，{@link #offer} 可在任意线程调用；
+ * {@link #poll} 只由消费者线程调用，按 {@link PriorityScheduling} 选择队列。
+ * 最高一级之外的队列只在窗口空位多于保留数时取出，保留的空位只供最高一级使用。
+ * <p>
+ * 容量为各级共享的总数：多级时各级为按需分配的分块队列，放入前以计数占位，超出容量时失败；
+ * 只有一级时与单个队列相同，容量大于 0 时为定长数组队列。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class PriorityLanes<T> {
+
+	/**
+	 * SGIP 优先级取值数（0-9）
+	 */
+	public static final int PRIORITY_LEVELS = 10;
+
+	private final Queue<T>[] lanes;
+
+	private final int capacity;
+
+	/**
+	 * 多级时各级元素总数，只有一级时不使用
+	 */
+	private final AtomicInteger count = new AtomicInteger();
+
+	private final PriorityScheduling scheduling;
+
+	private final int[] weights;
+
+	private final int reservedSlots;
+
+	/**
+	 * 加权轮转中当前队列的剩余额度，仅在消费者线程上访问
+	 */
+	private int credit;
+
+	private int current;
+
+	/**
+	 * @param laneCount     级数，1 至 {@value #PRIORITY_LEVELS}
+	 * @param capacity      各级合计容量，不大于 0 时不限容量
+	 * @param scheduling    调度方式
+	 * @param weights       各级权重（由低到高），为 {@code null} 时第 i 级权重为 i + 1
+	 * @param reservedSlots 为最高一级保留的窗口空位数
+	 */
+	@SuppressWarnings("unchecked")
+	public PriorityLanes(int laneCount, int capacity, PriorityScheduling scheduling, int[] weights, int reservedSlots) {
+		if (laneCount < 1 || laneCount > PRIORITY_LEVELS) {
+			throw new IllegalArgumentException("laneCount must between 1 and " + PRIORITY_LEVELS);
+		}
+		if (weights != null && weights.length != laneCount) {
+			throw new IllegalArgumentException("weights must have " + laneCount + " elements");
+		}
+		if (reservedSlots < 0) {
+			throw new IllegalArgumentException("reservedSlots must be >= 0");
+		}
+		this.lanes         = new Queue[laneCount];
+		this.capacity      = capacity;
+		this.scheduling    = scheduling;
+		this.weights       = new int[laneCount];
+		this.reservedSlots = laneCount > 1 ? reservedSlots : 0;
+		for (int i = 0; i < laneCount; ++i) {
+			if (laneCount == 1) {
+				lanes[i] = capacity > 0 ? PlatformDependent.newFixedMpscQueue(capacity) : PlatformDependent.newMpscQueue();
+			} else {
+				// 容量由 count 限制，各级队列不限容量，按需分配
+				lanes[i] = PlatformDependent.newMpscQueue();
+			}
+			this.weights[i] = weights != null ? Math.max(1, weights[i]) : i + 1;
+		}
+		this.current = laneCount - 1;
+		this.credit  = this.weights[current];
+	}
+
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * @param priority SGIP 优先级（0-9），超出范围时取边界值
+	 * @return 所在级，0 最低
+	 */
+	public int laneOf(int priority) {
+		if (priority <= 0) {
+			return 0;
+		}
+		if (priority >= PRIORITY_LEVELS) {
+			return lanes.length - 1;
+		}
+		return priority * lanes.length / PRIORITY_LEVELS;
+	}
+
+	/**
+	 * @return 最高一级
+	 */
+	public int highestLane() {
+		return lanes.length - 1;
+	}
+
+	/**
+	 * 放入指定级的队列，可在任意线程调用
+	 *
+	 * @return 队列已满时返回 {@code false}
+	 */
+	public boolean offer(int lane, T element) {
+		if (lanes.length == 1) {
+			return lanes[0].offer(element);
+		}
+		if (count.incrementAndGet() > capacity && capacity > 0) {
+			count.decrementAndGet();
+			return false;
+		}
+		lanes[lane].offer(element);
+		return true;
+	}
+
+	/**
+	 * 按调度方式取出一个可进入窗口的元素，仅在消费者线程上调用
+	 *
+	 * @param freeSlots 窗口空位数
+	 * @return 没有可取出的元素时返回 {@code null}
+	 */
+	public T poll(int freeSlots) {
+		if (freeSlots <= 0) {
+			return null;
+		}
+		int highest = lanes.length - 1;
+		if (highest == 0) {
+			return lanes[0].poll();
+		}
+		return taken(doPoll(freeSlots, highest));
+	}
+
+	private T doPoll(int freeSlots, int highest) {
+		if (scheduling == PriorityScheduling.STRICT) {
+			T element = lanes[highest].poll();
+			if (element != null || freeSlots <= reservedSlots) {
+				return element;
+			}
+			for (int i = highest - 1; i >= 0; --i) {
+				element = lanes[i].poll();
+				if (element != null) {
+					return element;
+				}
+			}
+			return null;
+		}
+		// 加权轮转：当前级额度用完或为空时轮到下一级（由高到低），至多走一圈
+		for (int i = 0; i <= lanes.length; ++i) {
+			if (credit > 0 && (current == highest || freeSlots > reservedSlots)) {
+				T element = lanes[current].poll();
+				if (element != null) {
+					--credit;
+					return element;
+				}
+			}
+			current = current == 0 ? highest : current - 1;
+			credit  = weights[current];
+		}
+		return null;
+	}
+
+	/**
+	 * 不考虑调度方式，从高到低取出一个元素，仅在消费者线程上调用
+	 */
+	public T pollAny() {
+		for (int i = lanes.length - 1; i >= 0; --i) {
+			T element = lanes[i].poll();
+			if (element != null) {
+				return lanes.length == 1 ? element : taken(element);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 多级时释放取出元素占用的计数
+	 */
+	private T taken(T element) {
+		if (element != null) {
+			count.decrementAndGet();
+		}
+		return element;
+	}
+
+	public boolean isEmpty() {
+		for (Queue<T> lane : lanes) {
+			if (!lane.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return 各级队列长度之和（近似值）
+	 */
+	public int size() {
+		return lanes.length == 1 ? lanes[0].size() : count.get();
+	}
+
+	/**
+	 * @return 指定级的队列长度（近似值）
+	 */
+	public int size(int lane) {
+		return lanes[lane].size();
+	}
+}
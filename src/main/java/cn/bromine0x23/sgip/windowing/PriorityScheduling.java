@@ -0,0 +1,26 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.windowing;
+
+/**
+ * 优先级队列调度方式
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ * @see PriorityLanes
+ */
+public enum PriorityScheduling {
+
+	/**
+	 * 严格优先：总是先取最高优先级的非空队列
+	 */
+	STRICT,
+
+	/**
+	 * 加权轮转：各队列轮流取出，每轮至多取出其权重个请求
+	 */
+	WEIGHTED
+}
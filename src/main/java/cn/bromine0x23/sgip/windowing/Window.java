@@ -69,7 +69,7 @@ import java.util.concurrent.locks.ReentrantLock;
  * @author joelauer (twitter: @jjlauer or <a href="http://twitter.com/jjlauer" target=window>http://twitter.com/jjlauer</a>)
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
-public class Window<TKey, TRequest, TResponse> {
+public class Window<TKey, TRequest, TResponse> implements WindowStatus {
 
 	private static final Logger logger = LoggerFactory.getLogger(Window.class);
 
@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.windowing;
+
+/**
+ * 发送窗口状态，可在任意线程读取
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+public interface WindowStatus {
+
+	/**
+	 * @return 窗口中的请求数
+	 */
+	int getSize();
+
+	/**
+	 * @return 窗口大小
+	 */
+	int getMaxSize();
+
+	/**
+	 * @return 等待进入窗口的请求数
+	 */
+	int getPendingOfferCount();
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Bromine0x23 <bromine0x23@163.com>
+ * This work is free. You can redistribute it and/or modify it under the
+ * terms of the Do What The Fuck You Want To Public License, Version 2,
+ * as published by Sam Hocevar. See http://www.wtfpl.net/ for more details.
+ */
+package cn.bromine0x23.sgip.benchmark;
+
+import cn.bromine0x23.sgip.pdu.SgipDeliver;
+import cn.bromine0x23.sgip.pdu.SgipPdu;
+import cn.bromine0x23.sgip.pdu.SgipSubmitResp;
+import cn.bromine0x23.sgip.util.SgipPduCodec;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * PDU 对象池分配量对比
+ *
+ * 以池化/非池化两种方式反复解码 Submit_Resp 与 Deliver，输出每次解码的平均分配字节数与耗时。
+ *
+ * @author <a href="mailto:bromine0x23@163.com">Bromine0x23</a>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public abstract class SgipPduRecyclingBenchmark {
+
+	private static final int WARMUP_ITERATIONS  = 2_000_000;
+	private static final int MEASURE_ITERATIONS = 5_000_000;
+
+	public static void main(String[] arguments) throws Exception {
+		SgipSubmitResp submitResp = new SgipSubmitResp();
+		submitResp.setSequenceNumber(1);
+
+		SgipDeliver deliver = new SgipDeliver();
+		deliver.setSequenceNumber(2);
+		deliver.setUserNumber("8613800000000");
+		deliver.setSpNumber("10655");
+		deliver.setMessageContent("benchmark");
+
+		ByteBuf submitRespBuffer = SgipPduCodec.encode(submitResp);
+		ByteBuf deliverBuffer    = SgipPduCodec.encode(deliver);
+		try {
+			for (boolean pooled : new boolean[]{false, true, false, true}) {
+				run("Submit_Resp", submitRespBuffer, pooled, WARMUP_ITERATIONS);
+				run("Deliver", deliverBuffer, pooled, WARMUP_ITERATIONS);
+			}
+			for (boolean pooled : new boolean[]{false, true}) {
+				report("Submit_Resp", submitRespBuffer, pooled);
+				report("Deliver", deliverBuffer, pooled);
+			}
+		} finally {
+			submitRespBuffer.release();
+			deliverBuffer.release();
+		}
+	}
+
+	private static void report(String name, ByteBuf buffer, boolean pooled) throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+		long nanosBefore     = System.nanoTime();
+		run(name, buffer, pooled, MEASURE_ITERATIONS);
+		long nanos     = System.nanoTime() - nanosBefore;
+		long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+		System.out.printf(
+			"%-12s pooled=%-5s %8.1f B/op %8.1f ns/op%n",
+			name, pooled, (double)allocated / MEASURE_ITERATIONS, (double)nanos / MEASURE_ITERATIONS
+		);
+	}
+
+	private static void run(String name, ByteBuf buffer, boolean pooled, int iterations) throws Exception {
+		int readerIndex = buffer.readerIndex();
+		for (int i = 0; i < iterations; ++i) {
+			buffer.readerIndex(readerIndex);
+			SgipPdu pdu = SgipPduCodec.decode(buffer, pooled);
+			pdu.release();
+		}
+		buffer.readerIndex(readerIndex);
+	}
+}